@@ -0,0 +1,89 @@
+package com.transloadit.sdk;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency distribution of API calls made through the client-wide HTTP client with calls that build a
+ * new {@link OkHttpClient} for every request, as {@link Request} used to do.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=ConnectionReuseBenchmark}; the p99 of both modes is part of the
+ * sample time report, the connection reuse ratio is printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class ConnectionReuseBenchmark {
+    private LocalStandInServer server;
+    private Transloadit transloadit;
+    private Transloadit transloaditWithClientPerRequest;
+
+    /**
+     * Starts the local stand-in server and a client pointing to it.
+     * @throws Exception if the server cannot be started
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new LocalStandInServer("{\"ok\":\"ASSEMBLY_COMPLETED\"}", 0);
+        transloadit = new Transloadit("KEY", "SECRET", server.getUrl());
+        transloadit.setMaxIdleConnections(16);
+        transloaditWithClientPerRequest = new Transloadit("KEY", "SECRET", server.getUrl()) {
+            @Override
+            OkHttpClient getHttpClient() {
+                // Connections of a per-request client are never reused, don't keep them open.
+                return new OkHttpClient.Builder()
+                        .connectionPool(new ConnectionPool(0, 1, TimeUnit.MILLISECONDS))
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Prints the connection reuse ratio of the trial and stops the server.
+     * @throws Exception if the server cannot be stopped
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        long requests = server.getRequests();
+        long connections = server.getConnections();
+        System.out.printf("%n%d requests over %d connections, connection reuse ratio: %.4f%n",
+                requests, connections, requests == 0 ? 0 : 1 - (double) connections / requests);
+        server.close();
+    }
+
+    /**
+     * Performs a GET request with the HTTP client shared by the {@link Transloadit} instance.
+     * @return the response body
+     * @throws Exception if the request fails
+     */
+    @Benchmark
+    public String sharedClient() throws Exception {
+        try (okhttp3.Response response = new Request(transloadit).get("/assemblies/foo")) {
+            return response.body().string();
+        }
+    }
+
+    /**
+     * Performs a GET request with a freshly built HTTP client, paying a new connection for every call.
+     * @return the response body
+     * @throws Exception if the request fails
+     */
+    @Benchmark
+    public String clientPerRequest() throws Exception {
+        try (okhttp3.Response response = new Request(transloaditWithClientPerRequest).get("/assemblies/foo")) {
+            return response.body().string();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.transloadit.sdk;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal HTTP/1.1 keep-alive server, which stands in for the Transloadit API during benchmarks.
+ * Every request is answered with the same JSON body, except requests to {@code /stream/...}, which are answered with
+ * an Assembly status stream (SSE) reporting the Assembly as finished. The server counts accepted connections and
+ * served requests, so benchmarks can report how often connections have been reused. Connections are served on virtual
+ * threads where available, so the server does not skew the thread counts of benchmarks.
+ */
+final class LocalStandInServer implements AutoCloseable {
+    private static final byte[] EVENT_STREAM = "data: assembly_finished\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers = VirtualThreads.isSupported()
+            ? VirtualThreads.newExecutor("stand-in-") : Executors.newCachedThreadPool();
+    private final byte[] body;
+    private final long responseDelayMillis;
+    private final long eventStreamDelayMillis;
+    private final Set<Socket> sockets = Collections.newSetFromMap(new ConcurrentHashMap<Socket, Boolean>());
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Starts a new server on a random local port.
+     * @param body response body sent for every request
+     * @param responseDelayMillis time in ms the server waits before answering a request
+     * @throws IOException if the server socket cannot be opened
+     */
+    LocalStandInServer(String body, long responseDelayMillis) throws IOException {
+        this(body, responseDelayMillis, 0);
+    }
+
+    /**
+     * Starts a new server on a random local port, which also serves Assembly status streams.
+     * @param body response body sent for every request; {@code {url}} is replaced with the base url of the server
+     * @param responseDelayMillis time in ms the server waits before answering a request
+     * @param eventStreamDelayMillis time in ms a status stream stays open before the Assembly is reported finished
+     * @throws IOException if the server socket cannot be opened
+     */
+    LocalStandInServer(String body, long responseDelayMillis, long eventStreamDelayMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 16384, InetAddress.getLoopbackAddress());
+        this.body = body.replace("{url}", getUrl()).getBytes(StandardCharsets.UTF_8);
+        this.responseDelayMillis = responseDelayMillis;
+        this.eventStreamDelayMillis = eventStreamDelayMillis;
+        workers.execute(this::acceptLoop);
+    }
+
+    /**
+     * Returns the base url of the server.
+     * @return base url, e.g. {@code http://127.0.0.1:4711}
+     */
+    String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of connections accepted since the server has been started.
+     * @return number of connections
+     */
+    long getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * Returns the number of requests served since the server has been started.
+     * @return number of requests
+     */
+    long getRequests() {
+        return requests.get();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sockets.add(socket);
+                workers.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            OutputStream out = s.getOutputStream();
+            StringBuilder path = new StringBuilder();
+            while (running) {
+                long contentLength = readHeaders(in, path);
+                if (contentLength < 0) {
+                    return;
+                }
+                for (long i = 0; i < contentLength; i++) {
+                    if (in.read() < 0) {
+                        return;
+                    }
+                }
+                boolean eventStream = path.toString().startsWith("/stream/");
+                long delay = eventStream ? eventStreamDelayMillis : responseDelayMillis;
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                requests.incrementAndGet();
+                byte[] responseBody = eventStream ? EVENT_STREAM : body;
+                String head = "HTTP/1.1 200 OK\r\nContent-Type: "
+                        + (eventStream ? "text/event-stream" : "application/json") + "\r\nContent-Length: "
+                        + responseBody.length + "\r\n\r\n";
+                ByteArrayOutputStream response = new ByteArrayOutputStream(head.length() + responseBody.length);
+                response.write(head.getBytes(StandardCharsets.US_ASCII));
+                response.write(responseBody);
+                response.writeTo(out);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException ignore) {
+            // Connection closed by the client
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    /**
+     * Reads the request line and headers of the next request.
+     * @param in input stream of the connection
+     * @param path receives the path of the request
+     * @return the announced content length, or -1 if the connection has been closed
+     * @throws IOException if reading fails
+     */
+    private long readHeaders(InputStream in, StringBuilder path) throws IOException {
+        long contentLength = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        boolean firstLine = true;
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') {
+                String header = line.toString(StandardCharsets.US_ASCII.name()).trim();
+                line.reset();
+                if (header.isEmpty()) {
+                    if (firstLine) {
+                        continue;
+                    }
+                    return contentLength;
+                }
+                if (firstLine) {
+                    String[] requestLine = header.split(" ");
+                    path.setLength(0);
+                    path.append(requestLine.length > 1 ? requestLine[1] : "");
+                }
+                firstLine = false;
+                if (header.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                    contentLength = Long.parseLong(header.substring("content-length:".length()).trim());
+                }
+            } else {
+                line.write(b);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,47 @@
+package com.transloadit.sdk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import javax.crypto.KeyGenerator;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of {@link NonceGenerator} with the former nonce generation, which built a
+ * {@link KeyGenerator} and an AES key for every request, under 32 concurrent threads.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=NonceGeneratorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class NonceGeneratorBenchmark {
+    private final NonceGenerator generator = new NonceGenerator();
+
+    /**
+     * Generates a nonce with the per-thread {@link NonceGenerator}.
+     * @return nonce
+     */
+    @Benchmark
+    public String nonceGenerator() {
+        return generator.next(32);
+    }
+
+    /**
+     * Generates a nonce like the former implementation of {@code Request.getNonce("AES", 256)}.
+     * @return nonce
+     * @throws Exception if AES is not available
+     */
+    @Benchmark
+    public String keyGenerator() throws Exception {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(256);
+        return Base64.getEncoder().encodeToString(keyGenerator.generateKey().getEncoded());
+    }
+}
@@ -0,0 +1,147 @@
+package com.transloadit.sdk;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to sign one Smart CDN URL: with the former implementation of
+ * {@link Transloadit#getSignedSmartCDNUrl(String, String, String, Map, long)}, with the method as it is now, with a
+ * reused {@link SmartCdnSigner}, with a {@link SmartCdnSigner#signAll(java.util.Collection, Map, long)} batch and with
+ * a signer whose URLs are cached, as they are when the same page is rendered again within an expiry bucket.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=SmartCdnSignerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SmartCdnSignerBenchmark {
+    private static final int BATCH_SIZE = 10000;
+    private static final String WORKSPACE = "my-workspace";
+    private static final String TEMPLATE = "thumbnails";
+    private static final long EXPIRES_AT = 1714525200000L;
+
+    private Transloadit transloadit;
+    private SmartCdnSigner signer;
+    private SmartCdnSigner cachingSigner;
+    private Map<String, List<String>> params;
+    private List<String> inputs;
+    private int next;
+
+    /**
+     * Creates the client, the signer and the inputs of a page.
+     * @throws Exception if the signer cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        transloadit = new Transloadit("foo_key", "foo_secret");
+        signer = transloadit.newSmartCdnSigner(WORKSPACE, TEMPLATE);
+        Transloadit cachingTransloadit = new Transloadit("foo_key", "foo_secret");
+        cachingTransloadit.setSmartCdnUrlCacheSize(BATCH_SIZE);
+        cachingSigner = cachingTransloadit.newSmartCdnSigner(WORKSPACE, TEMPLATE);
+        params = new HashMap<String, List<String>>();
+        params.put("w", Collections.singletonList("320"));
+        params.put("h", Collections.singletonList("240"));
+        inputs = new ArrayList<String>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            inputs.add("products/" + i + "/image.jpg");
+        }
+    }
+
+    private String nextInput() {
+        next = (next + 1) % BATCH_SIZE;
+        return inputs.get(next);
+    }
+
+    /**
+     * Signs one URL like the former implementation.
+     * @return signed URL
+     * @throws Exception if signing fails
+     */
+    @Benchmark
+    public String legacy() throws Exception {
+        String workspaceSlug = URLEncoder.encode(WORKSPACE, StandardCharsets.UTF_8.name());
+        String templateSlug = URLEncoder.encode(TEMPLATE, StandardCharsets.UTF_8.name());
+        String inputField = URLEncoder.encode(nextInput(), StandardCharsets.UTF_8.name());
+        SortedMap<String, List<String>> sorted = new TreeMap<String, List<String>>(params);
+        sorted.put("auth_key", Collections.singletonList("foo_key"));
+        sorted.put("exp", Collections.singletonList(String.valueOf(EXPIRES_AT)));
+        List<String> queryParts = new ArrayList<String>(sorted.size());
+        for (Map.Entry<String, List<String>> entry : sorted.entrySet()) {
+            for (String value : entry.getValue()) {
+                queryParts.add(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8.name()) + "="
+                        + URLEncoder.encode(value, StandardCharsets.UTF_8.name()));
+            }
+        }
+        String queryString = String.join("&", queryParts);
+        String stringToSign = workspaceSlug + "/" + templateSlug + "/" + inputField + "?" + queryString;
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        hmac.init(new SecretKeySpec("foo_secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] raw = hmac.doFinal(stringToSign.getBytes());
+        StringBuilder hex = new StringBuilder("sha256:");
+        for (byte b : raw) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return "https://" + workspaceSlug + ".tlcdn.com/" + templateSlug + "/" + inputField + "?" + queryString
+                + "&sig=" + URLEncoder.encode(hex.toString(), StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Signs one URL with {@link Transloadit#getSignedSmartCDNUrl(String, String, String, Map, long)}.
+     * @return signed URL
+     * @throws Exception if signing fails
+     */
+    @Benchmark
+    public String getSignedSmartCDNUrl() throws Exception {
+        return transloadit.getSignedSmartCDNUrl(WORKSPACE, TEMPLATE, nextInput(), params, EXPIRES_AT);
+    }
+
+    /**
+     * Signs one URL with a reused {@link SmartCdnSigner}.
+     * @return signed URL
+     * @throws Exception if signing fails
+     */
+    @Benchmark
+    public String signer() throws Exception {
+        return signer.sign(nextInput(), params, EXPIRES_AT);
+    }
+
+    /**
+     * Signs the URLs of a whole page at once; the score is reported per URL.
+     * @return signed URLs
+     * @throws Exception if signing fails
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> signAll() throws Exception {
+        return signer.signAll(inputs, params, EXPIRES_AT);
+    }
+
+    /**
+     * Signs one URL with a signer backed by the URL cache; after the first round every URL is a cache hit.
+     * @return signed URL
+     * @throws Exception if signing fails
+     */
+    @Benchmark
+    public String cachingSigner() throws Exception {
+        return cachingSigner.sign(nextInput(), params, EXPIRES_AT);
+    }
+}
@@ -0,0 +1,170 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.response.AssemblyResponse;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saves many Assemblies at once against a local stand-in server and waits until all of them have been reported
+ * finished through their status streams (SSE), each of which stays open for {@code streamMillis}. With platform threads
+ * every stream occupies a thread of the client's event stream executor, with virtual threads (Java 21+) the streams
+ * share the carrier threads of the JDK's scheduler.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=VirtualThreadBenchmark} on JDK 21; the peak number of platform threads
+ * is printed after each iteration. On older JDKs both modes use platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class VirtualThreadBenchmark {
+    private static final String ASSEMBLY = "{\"ok\":\"ASSEMBLY_EXECUTING\",\"assembly_id\":\"foo\","
+            + "\"assembly_ssl_url\":\"{url}/assemblies/foo\",\"update_stream_url\":\"{url}/stream/foo\"}";
+
+    /**
+     * Number of concurrent Assemblies.
+     */
+    @Param({"10000"})
+    public int assemblies;
+
+    /**
+     * Time in ms every status stream stays open before its Assembly is reported finished.
+     */
+    @Param({"1000"})
+    public long streamMillis;
+
+    /**
+     * Whether the client runs status streams on virtual threads.
+     */
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private LocalStandInServer server;
+    private Transloadit transloadit;
+
+    /**
+     * Starts the local stand-in server and a client pointing to it, which listens to all status streams at once.
+     * @throws Exception if the server cannot be started
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new LocalStandInServer(ASSEMBLY, 0, streamMillis);
+        transloadit = new Transloadit("KEY", "SECRET", server.getUrl());
+        transloadit.setMaxEventStreams(assemblies);
+        // Lets the Assemblies be created concurrently, so the benchmark measures the status streams.
+        transloadit.setMaxRequests(256);
+        transloadit.setMaxRequestsPerHost(256);
+        transloadit.setVirtualThreadsEnabled(virtualThreads);
+    }
+
+    /**
+     * Resets the peak thread count before every iteration.
+     */
+    @Setup(Level.Iteration)
+    public void resetPeakThreadCount() {
+        threads.resetPeakThreadCount();
+    }
+
+    /**
+     * Prints the peak number of platform threads of the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void printPeakThreadCount() {
+        System.out.printf("%npeak platform threads: %d (virtual threads %s)%n", threads.getPeakThreadCount(),
+                virtualThreads && VirtualThreads.isSupported() ? "used" : "not used");
+    }
+
+    /**
+     * Stops the server.
+     * @throws Exception if the server cannot be stopped
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    /**
+     * Saves {@link #assemblies} Assemblies and waits until all of them are finished.
+     * @throws Exception if an Assembly fails
+     */
+    @Benchmark
+    public void concurrentAssemblies() throws Exception {
+        final CountDownLatch finished = new CountDownLatch(assemblies);
+        final AtomicInteger errors = new AtomicInteger();
+        AssemblyListener listener = new AssemblyListener() {
+            @Override
+            public void onAssemblyFinished(AssemblyResponse response) {
+                finished.countDown();
+            }
+
+            @Override
+            public void onError(Exception error) {
+                errors.incrementAndGet();
+                finished.countDown();
+            }
+
+            @Override
+            public void onMetadataExtracted() {
+            }
+
+            @Override
+            public void onAssemblyUploadFinished() {
+            }
+
+            @Override
+            public void onFileUploadFinished(JSONObject uploadInformation) {
+            }
+
+            @Override
+            public void onFileUploadPaused(String name) {
+            }
+
+            @Override
+            public void onFileUploadResumed(String name) {
+            }
+
+            @Override
+            public void onFileUploadProgress(long uploadedBytes, long totalBytes) {
+            }
+
+            @Override
+            public void onAssemblyProgress(JSONObject progress) {
+            }
+
+            @Override
+            public void onAssemblyResultFinished(JSONArray result) {
+            }
+        };
+        for (int i = 0; i < assemblies; i++) {
+            Assembly assembly = new Assembly(transloadit);
+            assembly.setAssemblyListener(listener);
+            assembly.setShouldWaitForCompletion(true);
+            assembly.saveAsync(false);
+        }
+        if (!finished.await(10, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(finished.getCount() + " Assemblies have not finished");
+        }
+        if (errors.get() > 0) {
+            throw new IllegalStateException(errors.get() + " Assemblies have failed");
+        }
+    }
+}
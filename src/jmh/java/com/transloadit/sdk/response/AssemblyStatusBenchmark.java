@@ -0,0 +1,97 @@
+package com.transloadit.sdk.response;
+
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.ResponseBody;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link AssemblyResponse} status getters on a 5 MB Assembly document, as they are called while
+ * polling an Assembly until it is finished.
+ * Run with {@code ./gradlew jmh -Pjmh.includes=AssemblyStatusBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AssemblyStatusBenchmark {
+    private static final int DOCUMENT_SIZE = 5 * 1024 * 1024;
+
+    private String body;
+    private AssemblyResponse response;
+
+    /**
+     * Generates an Assembly document with enough results to reach 5 MB.
+     */
+    @Setup(Level.Trial)
+    public void generateDocument() {
+        JSONObject assembly = new JSONObject();
+        assembly.put("ok", "ASSEMBLY_COMPLETED");
+        assembly.put("assembly_id", "76fe5df1c93a0a530f3e583805cf98b4");
+        assembly.put("assembly_ssl_url", "https://api2.transloadit.com/assemblies/76fe5df1c93a0a530f3e583805cf98b4");
+        JSONArray results = new JSONArray();
+        int length = 0;
+        for (int i = 0; length < DOCUMENT_SIZE; i++) {
+            JSONObject result = new JSONObject();
+            result.put("id", String.format("%032x", i));
+            result.put("name", "image-" + i + ".jpg");
+            result.put("url", "https://tmp.transloadit.com/" + String.format("%032x", i) + "/image-" + i + ".jpg");
+            result.put("size", 1024 + i);
+            result.put("mime", "image/jpeg");
+            result.put("meta", new JSONObject().put("width", 800).put("height", 600).put("has_transparency", false));
+            length += result.toString().length() + 1;
+            results.put(result);
+        }
+        assembly.put("results", new JSONObject().put("resize", results));
+        body = assembly.toString();
+    }
+
+    /**
+     * Creates a fresh response for every invocation, so the first status check includes the one-time parse.
+     * @throws Exception if the response cannot be created
+     */
+    @Setup(Level.Invocation)
+    public void newResponse() throws Exception {
+        response = new AssemblyResponse(new okhttp3.Response.Builder()
+                .request(new okhttp3.Request.Builder().url("http://localhost/assemblies/foo").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(MediaType.parse("application/json"), body))
+                .build());
+    }
+
+    /**
+     * Performs the status checks of one polling round.
+     * @return combined status, so the calls cannot be eliminated
+     */
+    @Benchmark
+    public boolean statusGetters() {
+        return response.isFinished() && response.isCompleted() && !response.isCanceled()
+                && !response.isAborted() && !response.hasError();
+    }
+
+    /**
+     * Performs the same status checks, parsing the document for every lookup like the former implementation.
+     * @return combined status, so the calls cannot be eliminated
+     */
+    @Benchmark
+    public boolean statusGettersReparsing() {
+        boolean uploading = new JSONObject(body).has("ok") && new JSONObject(body).getString("ok").equals("ASSEMBLY_UPLOADING");
+        boolean executing = new JSONObject(body).has("ok") && new JSONObject(body).getString("ok").equals("ASSEMBLY_EXECUTING");
+        boolean completed = new JSONObject(body).has("ok") && new JSONObject(body).getString("ok").equals("ASSEMBLY_COMPLETED");
+        boolean canceled = new JSONObject(body).has("ok") && new JSONObject(body).getString("ok").equals("ASSEMBLY_CANCELED");
+        boolean aborted = new JSONObject(body).has("ok") && new JSONObject(body).getString("ok").equals("REQUEST_ABORTED");
+        return !uploading && !executing && completed && !canceled && !aborted && !new JSONObject(body).has("error");
+    }
+}
@@ -0,0 +1,108 @@
+package com.transloadit.sdk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the chunk size of a tus upload from the latency, throughput and failures of its previous chunks. Every
+ * chunk is sent as a request of its own, so larger chunks save round trips while smaller chunks lose less progress
+ * when a request fails.
+ * <p>
+ * A chunk which took longer than {@value #TARGET_CHUNK_MILLIS} ms shrinks the chunk size to what the measured
+ * throughput uploads in that time. A chunk which took less than half of that doubles the chunk size, unless the
+ * throughput has dropped compared to the previous, smaller chunk size or chunks have failed recently. A failed chunk
+ * halves the chunk size. The failure rate is tracked as exponentially weighted moving average, with a weight of
+ * {@value #FAILURE_WEIGHT} for the latest chunk; the chunk size only grows while it is below
+ * {@value #MAX_GROWTH_FAILURE_RATE}. Chunk sizes always stay within the given bounds.
+ * </p>
+ * Instances are not thread-safe, each upload uses its own.
+ */
+final class AdaptiveChunkSizer {
+    /**
+     * Duration in ms a chunk should take to upload.
+     */
+    static final long TARGET_CHUNK_MILLIS = 2000;
+    /**
+     * Weight of the latest chunk in the failure rate.
+     */
+    static final double FAILURE_WEIGHT = 0.2;
+    /**
+     * Failure rate up to which the chunk size may grow.
+     */
+    static final double MAX_GROWTH_FAILURE_RATE = 0.1;
+    /**
+     * Share of the throughput of the previous chunk size a larger chunk size has to reach to keep growing.
+     */
+    private static final double MIN_GROWTH_THROUGHPUT = 0.9;
+    private static final long TARGET_CHUNK_NANOS = TimeUnit.MILLISECONDS.toNanos(TARGET_CHUNK_MILLIS);
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private int chunkSize;
+    private double failureRate;
+    private double previousThroughput;
+
+    /**
+     * Creates a new sizer.
+     * @param initialChunkSize chunk size of the first chunk, adjusted to the bounds
+     * @param minChunkSize smallest chunk size in bytes
+     * @param maxChunkSize largest chunk size in bytes
+     */
+    AdaptiveChunkSizer(int initialChunkSize, int minChunkSize, int maxChunkSize) {
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.chunkSize = clamp(initialChunkSize);
+    }
+
+    /**
+     * Returns the chunk size to use for the next chunk.
+     * @return chunk size in bytes
+     */
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Records an uploaded chunk. Chunks smaller than the current chunk size, e.g. the last chunk of a file, do not
+     * tell how long a full chunk takes and only count as success.
+     * @param bytes number of bytes uploaded with the chunk
+     * @param durationNanos time in ns the chunk took to upload
+     * @return the chunk size to use for the next chunk
+     */
+    int onChunkUploaded(long bytes, long durationNanos) {
+        failureRate *= 1 - FAILURE_WEIGHT;
+        if (bytes < chunkSize || durationNanos <= 0) {
+            return chunkSize;
+        }
+        double throughput = bytes * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+        if (durationNanos > TARGET_CHUNK_NANOS) {
+            chunkSize = clamp((long) (throughput * TARGET_CHUNK_MILLIS / 1000));
+            previousThroughput = 0;
+        } else if (durationNanos < TARGET_CHUNK_NANOS / 2 && failureRate < MAX_GROWTH_FAILURE_RATE
+                && throughput >= previousThroughput * MIN_GROWTH_THROUGHPUT) {
+            int grown = clamp(2L * chunkSize);
+            previousThroughput = grown == chunkSize ? previousThroughput : throughput;
+            chunkSize = grown;
+        }
+        return chunkSize;
+    }
+
+    /**
+     * Records a chunk which failed to upload.
+     * @return the chunk size to use for the next chunk
+     */
+    int onChunkFailed() {
+        failureRate = failureRate * (1 - FAILURE_WEIGHT) + FAILURE_WEIGHT;
+        chunkSize = clamp(chunkSize / 2);
+        previousThroughput = 0;
+        return chunkSize;
+    }
+
+    /**
+     * Limits a chunk size to the bounds of this sizer.
+     * @param size chunk size in bytes
+     * @return chunk size within the bounds
+     */
+    private int clamp(long size) {
+        return (int) Math.max(minChunkSize, Math.min(maxChunkSize, size));
+    }
+}
@@ -15,6 +15,7 @@ import io.tus.java.client.TusUpload;
 // Only needed for Java Doc
 import io.tus.java.client.TusUploader;
 // CHECKSTYLE:ON
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -29,11 +30,17 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
  * This class represents a new assembly being created.
@@ -53,11 +60,18 @@ public class Assembly extends OptionsBuilder {
     protected ArrayList<TusUploadRunnable> threadList;
     private HashMap<String, Exception> threadExceptions;
     private int maxParallelUploads = 2;
-    private ThreadPoolExecutor executor;
+    private final Queue<TusUploadRunnable> pendingUploads = new ConcurrentLinkedQueue<TusUploadRunnable>();
+    private final List<Future<?>> uploadWorkers = new ArrayList<Future<?>>();
 
     private long uploadSize;
     private long uploadedBytes;
     protected int uploadChunkSize = 0;
+    private boolean adaptiveUploadChunkSize = false;
+    private int minUploadChunkSize = 256 * 1024;
+    private int maxUploadChunkSize = 16 * 1024 * 1024;
+    private long partialUploadThreshold = 0;
+    private int partialUploadCount = 4;
+    private final List<ConcatenatedUpload> concatenatedUploads = new ArrayList<ConcatenatedUpload>();
 
     /**
      * Calls {@link #Assembly(Transloadit, Steps, Map, Map)} with the transloadit
@@ -248,20 +262,164 @@ public class Assembly extends OptionsBuilder {
      */
     public AssemblyResponse save(boolean isResumable)
             throws RequestException, LocalOperationException {
+        Span span = getClient().getTracer().startSpan("transloadit.assembly.save", TraceContext.current());
+        Span previous = TraceContext.activate(span);
+        try {
+            Request request = new Request(getClient());
+            if (!steps.toMap().isEmpty()) {
+                options.put("steps", steps.toMap());
+            }
+
+            AssemblyResponse response;
+            // only do tus uploads if files will be uploaded
+            boolean usesTus = isResumable && getNumberOfFiles() > 0;
+            if (usesTus) {
+                response = new AssemblyResponse(
+                        request.post(obtainUploadUrlSuffix(), options, getTusOptions(), null, null), true);
+            } else {
+                response = new AssemblyResponse(
+                        request.post(obtainUploadUrlSuffix(), options, null, files, fileStreams));
+            }
+            span.setAttribute("transloadit.assembly_id", String.valueOf(response.getId()));
+            handleSavedAssembly(response, usesTus);
+
+            return shouldWaitWithoutSSE() ? waitTillComplete(response) : response;
+        } catch (RequestException | LocalOperationException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            TraceContext.restore(previous);
+            span.end();
+        }
+    }
+
+    /**
+     * Asynchronously submits the configured assembly to Transloadit for processing. The request is executed on the
+     * dispatcher of the client's HTTP engine. Once the response has arrived, tus uploads and the SSE listener are
+     * started the same way {@link #save(boolean)} does. If the assembly should be waited for without an
+     * {@link AssemblyListener}, its status is polled without blocking a thread in between.
+     *
+     * @param isResumable boolean value that tells the assembly whether or not to
+     *                    use tus.
+     * @param executor    {@link Executor} that handles the response and completes the returned future.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse} received from the Transloadit server,
+     *         completed exceptionally with a {@link RequestException} or {@link LocalOperationException} if
+     *         submitting the assembly fails.
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> saveAsync(boolean isResumable, final Executor executor) {
+        final Span span = getClient().getTracer().startSpan("transloadit.assembly.save", TraceContext.current());
         Request request = new Request(getClient());
         if (!steps.toMap().isEmpty()) {
             options.put("steps", steps.toMap());
         }
 
-        AssemblyResponse response;
-        // only do tus uploads if files will be uploaded
-        if (isResumable && getNumberOfFiles() > 0) {
-            Map<String, String> tusOptions = new HashMap<String, String>();
-            tusOptions.put("tus_num_expected_upload_files", Integer.toString(getNumberOfFiles()));
+        final boolean usesTus = isResumable && getNumberOfFiles() > 0;
+        CompletableFuture<okhttp3.Response> call;
+        Span previous = TraceContext.activate(span);
+        try {
+            if (usesTus) {
+                call = request.postAsync(obtainUploadUrlSuffix(), options, getTusOptions(), null, null);
+            } else {
+                call = request.postAsync(obtainUploadUrlSuffix(), options, null, files, fileStreams);
+            }
+        } finally {
+            TraceContext.restore(previous);
+        }
+
+        final CompletableFuture<AssemblyResponse> result = new CompletableFuture<AssemblyResponse>();
+        result.whenComplete(new BiConsumer<AssemblyResponse, Throwable>() {
+            @Override
+            public void accept(AssemblyResponse response, Throwable throwable) {
+                if (throwable != null) {
+                    span.recordException(throwable);
+                }
+                span.end();
+            }
+        });
+        call.whenComplete(new BiConsumer<okhttp3.Response, Throwable>() {
+            @Override
+            public void accept(final okhttp3.Response httpResponse, final Throwable throwable) {
+                if (throwable != null) {
+                    Transloadit.completeOn(executor, result, null, throwable);
+                    return;
+                }
+                Runnable handler = new Runnable() {
+                    @Override
+                    public void run() {
+                        Span previous = TraceContext.activate(span);
+                        try {
+                            AssemblyResponse response = new AssemblyResponse(httpResponse, usesTus);
+                            span.setAttribute("transloadit.assembly_id", String.valueOf(response.getId()));
+                            handleSavedAssembly(response, usesTus);
+                            if (shouldWaitWithoutSSE()) {
+                                waitTillCompleteAsync(response, executor, result, span);
+                            } else {
+                                result.complete(response);
+                            }
+                        } catch (LocalOperationException | RequestException e) {
+                            result.completeExceptionally(e);
+                        } finally {
+                            TraceContext.restore(previous);
+                        }
+                    }
+                };
+                try {
+                    executor.execute(handler);
+                } catch (RejectedExecutionException e) {
+                    httpResponse.close();
+                    result.completeExceptionally(new LocalOperationException(e));
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Calls {@link #saveAsync(boolean, Executor)} with {@link ForkJoinPool#commonPool()} as executor.
+     *
+     * @param isResumable boolean value that tells the assembly whether or not to
+     *                    use tus.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse} received from the Transloadit server.
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> saveAsync(boolean isResumable) {
+        return saveAsync(isResumable, ForkJoinPool.commonPool());
+    }
 
-            response = new AssemblyResponse(
-                    request.post(obtainUploadUrlSuffix(), options, tusOptions, null, null), true);
+    /**
+     * Calls {@link #saveAsync(boolean)} with boolean isResumable = true.
+     *
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse} received from the Transloadit server.
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> saveAsync() {
+        return saveAsync(true);
+    }
 
+    /**
+     * Returns the extra form fields sent along with an assembly that uses tus uploads.
+     *
+     * @return {@link Map} of tus options
+     */
+    private Map<String, String> getTusOptions() {
+        Map<String, String> tusOptions = new HashMap<String, String>();
+        tusOptions.put("tus_num_expected_upload_files", Integer.toString(getNumberOfFiles()));
+        return tusOptions;
+    }
+
+    /**
+     * Starts the tus uploads and the SSE listener of a freshly created assembly, as far as they are needed.
+     *
+     * @param response {@link AssemblyResponse} of the assembly creation request.
+     * @param usesTus  whether the files are uploaded with tus.
+     * @throws RequestException        if the assembly returned an error or the tus upload fails.
+     * @throws LocalOperationException if something goes wrong while running
+     *                                 non-http operations.
+     */
+    private void handleSavedAssembly(AssemblyResponse response, boolean usesTus)
+            throws RequestException, LocalOperationException {
+        if (usesTus) {
             // check if the assembly returned an error
             if (response.hasError()) {
                 throw new RequestException("Request to Assembly failed: " + response.json().getString("error"));
@@ -278,14 +436,9 @@ public class Assembly extends OptionsBuilder {
             } catch (ProtocolException e) {
                 throw new RequestException(e);
             }
-        } else {
-            response = new AssemblyResponse(request.post(obtainUploadUrlSuffix(), options, null, files, fileStreams));
-            if (shouldWaitWithSSE() && !response.isFinished()) {
-                listenToServerSentEvents(response);
-            }
+        } else if (shouldWaitWithSSE() && !response.isFinished()) {
+            listenToServerSentEvents(response);
         }
-
-        return shouldWaitWithoutSSE() ? waitTillComplete(response) : response;
     }
 
     /**
@@ -310,6 +463,7 @@ public class Assembly extends OptionsBuilder {
      * @throws ProtocolException when there's a failure with tus upload.
      */
     protected void handleTusUpload(AssemblyResponse response) throws IOException, ProtocolException {
+        transloadit.addUploadUrl(response.getTusUrl(), tusClient.getProxy());
         processTusFiles(response.getSslUrl(), response.getTusUrl());
         uploadTusFiles();
     }
@@ -370,7 +524,8 @@ public class Assembly extends OptionsBuilder {
     }
 
     /**
-     * Prepares a file for tus upload.
+     * Prepares a file for tus upload. Files of at least {@link #getPartialUploadThreshold()} bytes are prepared for
+     * an upload in parts.
      *
      * @param file        {@link File}
      * @param fieldName   the form field name assigned to the file.
@@ -379,13 +534,18 @@ public class Assembly extends OptionsBuilder {
      */
 
     protected void processTusFile(File file, String fieldName, String assemblyUrl) throws IOException {
-        TusUpload upload = getTusUploadInstance(file);
-
         Map<String, String> metadata = new HashMap<String, String>();
         metadata.put("filename", file.getName());
         metadata.put("assembly_url", assemblyUrl);
         metadata.put("fieldname", fieldName);
 
+        if (partialUploadThreshold > 0 && file.length() >= partialUploadThreshold) {
+            concatenatedUploads.add(new ConcatenatedUpload(file, metadata, partialUploadCount,
+                    transloadit.getReadTimeout()));
+            return;
+        }
+
+        TusUpload upload = getTusUploadInstance(file);
         upload.setMetadata(metadata);
 
         uploads.add(upload);
@@ -503,14 +663,47 @@ public class Assembly extends OptionsBuilder {
             runnableAssemblyListener = getAssemblyListener();
         }
         uploadSize = getUploadSize();
-        executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(maxParallelUploads);
+        int uploadCount = uploads.size();
         while (!uploads.isEmpty()) {
             final TusUpload tusUpload = uploads.remove(0);
             TusUploadRunnable tusUploadRunnable = new TusUploadRunnable(tusClient, tusUpload, uploadChunkSize, this);
             threadList.add(tusUploadRunnable);
-            executor.execute(tusUploadRunnable);
+            pendingUploads.add(tusUploadRunnable);
+        }
+        while (!concatenatedUploads.isEmpty()) {
+            ConcatenatedUpload concatenatedUpload = concatenatedUploads.remove(0);
+            for (TusUploadRunnable part : concatenatedUpload.createPartUploads(tusClient,
+                    tusClient.resumingEnabled() ? tusURLStore : null, uploadChunkSize, this)) {
+                threadList.add(part);
+                pendingUploads.add(part);
+                uploadCount++;
+            }
+        }
+        startUploadWorkers(Math.min(maxParallelUploads, uploadCount));
+    }
+
+    /**
+     * Submits workers to the upload executor of the client, which run the pending uploads of this Assembly one after
+     * another. The number of workers limits the parallel uploads of this Assembly, while the upload executor limits
+     * the parallel uploads of all Assemblies of the client.
+     *
+     * @param workers number of workers
+     * @see Transloadit#setMaxConcurrentUploads(int)
+     */
+    private synchronized void startUploadWorkers(int workers) {
+        ExecutorService executor = transloadit.getUploadExecutor();
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                TusUploadRunnable upload;
+                while (!Thread.currentThread().isInterrupted() && (upload = pendingUploads.poll()) != null) {
+                    upload.run();
+                }
+            }
+        };
+        for (int i = 0; i < workers; i++) {
+            uploadWorkers.add(executor.submit(worker));
         }
-        executor.shutdown();
     }
 
     /**
@@ -575,9 +768,11 @@ public class Assembly extends OptionsBuilder {
         final EventsourceRunnable eventsourceRunnable =
                 new EventsourceRunnable(transloadit, response, assemblyListener, connectStrategy, retryStrategy, errorStrategy, false);
 
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        executor.execute(eventsourceRunnable);
-        executor.shutdown();
+        try {
+            transloadit.getEventStreamExecutor().execute(eventsourceRunnable);
+        } catch (RejectedExecutionException e) {
+            throw new LocalOperationException(e);
+        }
     }
 
     /**
@@ -592,19 +787,90 @@ public class Assembly extends OptionsBuilder {
      */
     protected AssemblyResponse waitTillComplete(AssemblyResponse response)
             throws LocalOperationException, RequestException {
+        Span span = transloadit.getTracer().startSpan("transloadit.assembly.wait", TraceContext.current());
+        Span previous = TraceContext.activate(span);
         try {
             // wait for assembly to finish executing.
             while (!response.isFinished()) {
                 Thread.sleep(1000);
+                span.addEvent("poll");
+                Object jfrEvent = JfrEvents.beginPoll();
                 response = transloadit.getAssemblyByUrl(response.getSslUrl());
+                endPollEvent(jfrEvent, response);
             }
         } catch (InterruptedException e) {
+            span.recordException(e);
             throw new LocalOperationException(e);
+        } catch (LocalOperationException | RequestException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            TraceContext.restore(previous);
+            span.end();
         }
 
         return response;
     }
 
+    /**
+     * Polls the status of the assembly until it is finished and completes the given future with the response of the
+     * complete state. Between two polls no thread is blocked, the next poll is timed by the client's scheduler.
+     *
+     * @param response {@link AssemblyResponse}
+     * @param executor {@link Executor} that completes the future
+     * @param result   future to complete
+     * @param span     span of saving the assembly, which the polls are recorded on
+     */
+    private void waitTillCompleteAsync(final AssemblyResponse response, final Executor executor,
+                                       final CompletableFuture<AssemblyResponse> result, final Span span) {
+        if (response.isFinished()) {
+            result.complete(response);
+            return;
+        }
+        Runnable poll = new Runnable() {
+            @Override
+            public void run() {
+                span.addEvent("poll");
+                final Object jfrEvent = JfrEvents.beginPoll();
+                Span previous = TraceContext.activate(span);
+                try {
+                    transloadit.getAssemblyByUrlAsync(response.getSslUrl(), executor)
+                            .whenCompleteAsync(new BiConsumer<AssemblyResponse, Throwable>() {
+                                @Override
+                                public void accept(AssemblyResponse next, Throwable throwable) {
+                                    endPollEvent(jfrEvent, next);
+                                    if (throwable != null) {
+                                        result.completeExceptionally(throwable);
+                                    } else {
+                                        waitTillCompleteAsync(next, executor, result, span);
+                                    }
+                                }
+                            }, executor);
+                } finally {
+                    TraceContext.restore(previous);
+                }
+            }
+        };
+        try {
+            transloadit.getScheduler().schedule(poll, 1000, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new LocalOperationException(e));
+        }
+    }
+
+    /**
+     * Commits the flight recorder event of a status poll.
+     *
+     * @param jfrEvent event returned by {@link JfrEvents#beginPoll()}
+     * @param response polled status, or {@code null} if the poll has failed
+     */
+    private static void endPollEvent(@Nullable Object jfrEvent, @Nullable AssemblyResponse response) {
+        if (jfrEvent != null) {
+            JfrEvents.endPoll(jfrEvent, response == null ? null : response.json().optString("assembly_id", null),
+                    response == null ? null : response.json().optString("ok", null));
+        }
+    }
+
     /**
      * Returns the uploadChunkSize which is used to determine after how many bytes
      * upload should the
@@ -632,10 +898,76 @@ public class Assembly extends OptionsBuilder {
         this.uploadChunkSize = uploadChunkSize;
     }
 
+    /**
+     * Returns whether the chunk size of tus uploads adapts to the measured throughput, see
+     * {@link #setAdaptiveUploadChunkSizeEnabled(boolean)}.
+     *
+     * @return {@code true} if adaptive chunk sizing is enabled
+     * @since 2.3.0
+     */
+    public boolean isAdaptiveUploadChunkSizeEnabled() {
+        return adaptiveUploadChunkSize;
+    }
+
+    /**
+     * Lets every tus upload choose its chunk size from the latency, throughput and failures of its previous chunks,
+     * within the bounds set by {@link #setUploadChunkSizeBounds(int, int)}. Each chunk is sent as a request of its
+     * own: on fast connections the chunk size grows, which saves round trips, while slow chunks and failed chunks
+     * shrink it, so less progress is lost when a request fails. Uploads start with the chunk size set by
+     * {@link #setUploadChunkSize(int)}, or with the lower bound if none has been set. The chosen chunk sizes are
+     * reported to {@link MetricsRecorder#onUploadChunkSize(int)}, the span of the upload and Java Flight Recorder
+     * chunk events. Disabled by default.
+     *
+     * @param enabled {@code true} to enable adaptive chunk sizing
+     * @since 2.3.0
+     */
+    public void setAdaptiveUploadChunkSizeEnabled(boolean enabled) {
+        this.adaptiveUploadChunkSize = enabled;
+    }
+
+    /**
+     * Returns the smallest chunk size adaptive chunk sizing may choose.
+     *
+     * @return chunk size in bytes
+     * @since 2.3.0
+     */
+    public int getMinUploadChunkSize() {
+        return minUploadChunkSize;
+    }
+
+    /**
+     * Returns the largest chunk size adaptive chunk sizing may choose.
+     *
+     * @return chunk size in bytes
+     * @since 2.3.0
+     */
+    public int getMaxUploadChunkSize() {
+        return maxUploadChunkSize;
+    }
+
+    /**
+     * Sets the bounds of the chunk sizes adaptive chunk sizing may choose, see
+     * {@link #setAdaptiveUploadChunkSizeEnabled(boolean)}. Every upload keeps a buffer of the current chunk size in
+     * memory. Default values are 256 KiB and 16 MiB.
+     *
+     * @param minChunkSize smallest chunk size in bytes
+     * @param maxChunkSize largest chunk size in bytes
+     * @throws LocalOperationException if a bound is smaller than 1 or the lower bound exceeds the upper bound
+     * @since 2.3.0
+     */
+    public void setUploadChunkSizeBounds(int minChunkSize, int maxChunkSize) throws LocalOperationException {
+        if (minChunkSize < 1 || maxChunkSize < minChunkSize) {
+            throw new LocalOperationException("Upload chunk size bounds invalid. Values 0 < min <= max are expected");
+        }
+        this.minUploadChunkSize = minChunkSize;
+        this.maxUploadChunkSize = maxChunkSize;
+    }
+
     /**
      * This method sets how many uploads are performed simultaneously. If the number
      * of uploads exceeds the set value,
-     * a queue is created and processed piece by piece.
+     * a queue is created and processed piece by piece. Uploads of all Assemblies of a client additionally share
+     * the limit set by {@link Transloadit#setMaxConcurrentUploads(int)}.
      *
      * @param maxUploads maximum number of uploads, which are performed
      *                   simultaneously.
@@ -644,6 +976,62 @@ public class Assembly extends OptionsBuilder {
         this.maxParallelUploads = maxUploads;
     }
 
+    /**
+     * Returns the file size in bytes from which on files are uploaded in parts, see
+     * {@link #setPartialUploadThreshold(long)}.
+     *
+     * @return threshold in bytes, 0 if files are always uploaded in one piece
+     * @since 2.3.0
+     */
+    public long getPartialUploadThreshold() {
+        return partialUploadThreshold;
+    }
+
+    /**
+     * Uploads files of at least the given size as several parallel tus uploads, which the tus server joins by its
+     * concatenation extension. Each file is split into {@link #getPartialUploadCount()} byte ranges, which are
+     * uploaded like separate files, so they share the limits of {@link #setMaxParallelUploads(int)} and
+     * {@link Transloadit#setMaxConcurrentUploads(int)}. Once all parts have been uploaded, the final upload is
+     * created with the metadata of the file. This can speed up uploads of large files over connections whose
+     * throughput is limited per TCP connection. Only applies to files added as {@link File}, as streams cannot be
+     * split. Default value is 0, which uploads every file in one piece.
+     *
+     * @param partialUploadThreshold file size in bytes from which on files are uploaded in parts, 0 to disable
+     * @throws LocalOperationException if the provided threshold is negative
+     * @since 2.3.0
+     */
+    public void setPartialUploadThreshold(long partialUploadThreshold) throws LocalOperationException {
+        if (partialUploadThreshold < 0) {
+            throw new LocalOperationException("Partial upload threshold invalid. Values >= 0 are expected");
+        }
+        this.partialUploadThreshold = partialUploadThreshold;
+    }
+
+    /**
+     * Returns the number of parts a file is uploaded in, see {@link #setPartialUploadThreshold(long)}.
+     *
+     * @return number of parts
+     * @since 2.3.0
+     */
+    public int getPartialUploadCount() {
+        return partialUploadCount;
+    }
+
+    /**
+     * Sets the number of parallel tus uploads a file of at least {@link #getPartialUploadThreshold()} bytes is split
+     * into. A file is never split into more parts than it has bytes. Default value is 4 parts.
+     *
+     * @param partialUploadCount number of parts
+     * @throws LocalOperationException if the provided number is smaller than 2
+     * @since 2.3.0
+     */
+    public void setPartialUploadCount(int partialUploadCount) throws LocalOperationException {
+        if (partialUploadCount < 2) {
+            throw new LocalOperationException("Number of partial uploads invalid. Values > 1 are expected");
+        }
+        this.partialUploadCount = partialUploadCount;
+    }
+
     /**
      * Returns current Assembly listener used by a {@link TusUploadRunnable}.
      *
@@ -720,8 +1108,12 @@ public class Assembly extends OptionsBuilder {
      * @param e {@link Exception that lead to the abortion}
      */
     protected void abortUploads(Exception e) {
-        if (executor != null) {
-            executor.shutdownNow();
+        pendingUploads.clear();
+        synchronized (this) {
+            for (Future<?> worker : uploadWorkers) {
+                worker.cancel(true);
+            }
+            uploadWorkers.clear();
         }
         runnableAssemblyListener.onError(e);
     }
@@ -0,0 +1,161 @@
+package com.transloadit.sdk;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * {@link EventListener} recording the timestamps of the phases of a single call. When the call ends, the
+ * {@link CallTimings} are published to the {@link Slot} tagged on its request and passed to the client's
+ * {@link MetricsRecorder}; calls without a slot, e.g. warm-up requests, are not reported. OkHttp reports the events
+ * of a call one after another, so no synchronization is needed apart from publishing the result.
+ */
+final class CallTimingListener extends EventListener {
+    private final Transloadit transloadit;
+    private long callStart;
+    private long dnsStart = -1;
+    private long dnsEnd = -1;
+    private long connectStart = -1;
+    private long connectEnd = -1;
+    private long secureConnectStart = -1;
+    private long secureConnectEnd = -1;
+    private long requestStart = -1;
+    private long requestEnd = -1;
+    private long responseStart = -1;
+    private long responseEnd = -1;
+
+    private CallTimingListener(Transloadit transloadit) {
+        this.transloadit = transloadit;
+    }
+
+    /**
+     * Returns a factory creating a listener per call, which reports to the given client.
+     * @param transloadit client of the calls
+     * @return {@link EventListener.Factory}
+     */
+    static EventListener.Factory factory(final Transloadit transloadit) {
+        return new EventListener.Factory() {
+            @Override
+            public EventListener create(Call call) {
+                return new CallTimingListener(transloadit);
+            }
+        };
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsEnd = System.nanoTime();
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, @Nullable Handshake handshake) {
+        secureConnectEnd = System.nanoTime();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, @Nullable Protocol protocol) {
+        connectEnd = System.nanoTime();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, @Nullable Protocol protocol,
+                              IOException ioe) {
+        connectEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, okhttp3.Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        responseStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        responseEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        responseEnd = System.nanoTime();
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        okhttp3.Request request = call.request();
+        Slot slot = request.tag(Slot.class);
+        if (slot == null) {
+            // Not an API request, e.g. a warm-up request.
+            return;
+        }
+        long end = System.nanoTime();
+        CallTimings timings = new CallTimings(span(dnsStart, dnsEnd), span(connectStart, connectEnd),
+                span(secureConnectStart, secureConnectEnd), span(requestStart, requestEnd),
+                span(requestEnd, responseStart), span(responseStart, responseEnd), end - callStart, connectStart < 0);
+        slot.set(timings);
+        transloadit.getMetricsRecorder().onCallTimings(request.method(),
+                CircuitBreaker.getEndpointClass(request.url().encodedPath()), timings);
+    }
+
+    private static long span(long start, long end) {
+        return start < 0 || end < start ? -1 : end - start;
+    }
+
+    /**
+     * Tag of a request receiving the {@link CallTimings} of its call.
+     */
+    static final class Slot {
+        private volatile CallTimings timings;
+
+        @Nullable
+        CallTimings get() {
+            return timings;
+        }
+
+        void set(CallTimings timings) {
+            this.timings = timings;
+        }
+    }
+}
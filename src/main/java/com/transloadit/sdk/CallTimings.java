@@ -0,0 +1,132 @@
+package com.transloadit.sdk;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Breakdown of the time a single HTTP call to the Transloadit API has spent in each phase, from the host name lookup
+ * to reading the last byte of the response body. Durations are in nanoseconds; phases which did not take place, e.g.
+ * the lookup, connect and TLS handshake of a call reusing a pooled connection, are reported as -1.
+ * <p>
+ * The timings of a call are available from {@link com.transloadit.sdk.response.Response#getCallTimings()} once its
+ * body has been read, and are passed to {@link MetricsRecorder#onCallTimings(String, String, CallTimings)}.
+ * </p>
+ *
+ * @since 2.3.0
+ */
+public final class CallTimings {
+    private final long dns;
+    private final long connect;
+    private final long tls;
+    private final long requestWrite;
+    private final long timeToFirstByte;
+    private final long responseRead;
+    private final long total;
+    private final boolean connectionReused;
+
+    /**
+     * Creates a new breakdown.
+     * @param dns duration of the host name lookup in ns, or -1
+     * @param connect duration of the connect in ns including the TLS handshake, or -1
+     * @param tls duration of the TLS handshake in ns, or -1
+     * @param requestWrite duration of writing the request headers and body in ns, or -1
+     * @param timeToFirstByte time in ns from the end of the request until the response headers arrived, or -1
+     * @param responseRead duration of reading the response headers and body in ns, or -1
+     * @param total duration of the whole call in ns
+     * @param connectionReused true if the call used a pooled connection
+     */
+    CallTimings(long dns, long connect, long tls, long requestWrite, long timeToFirstByte, long responseRead,
+                long total, boolean connectionReused) {
+        this.dns = dns;
+        this.connect = connect;
+        this.tls = tls;
+        this.requestWrite = requestWrite;
+        this.timeToFirstByte = timeToFirstByte;
+        this.responseRead = responseRead;
+        this.total = total;
+        this.connectionReused = connectionReused;
+    }
+
+    /**
+     * Returns the timings recorded for the call which produced a response. They are complete once the response body
+     * has been read or the response has been closed.
+     * @param response {@link okhttp3.Response} of a request sent by a {@link Transloadit} client
+     * @return {@link CallTimings}, or {@code null} if the call has not finished or was not sent by this SDK
+     */
+    @Nullable
+    public static CallTimings of(okhttp3.Response response) {
+        CallTimingListener.Slot slot = response.request().tag(CallTimingListener.Slot.class);
+        return slot == null ? null : slot.get();
+    }
+
+    /**
+     * Returns the duration of the host name lookup.
+     * @return duration in ns, or -1 if no lookup took place
+     */
+    public long getDns() {
+        return dns;
+    }
+
+    /**
+     * Returns the duration of establishing the connection, including the TLS handshake.
+     * @return duration in ns, or -1 if a pooled connection has been used
+     */
+    public long getConnect() {
+        return connect;
+    }
+
+    /**
+     * Returns the duration of the TLS handshake.
+     * @return duration in ns, or -1 if no handshake took place
+     */
+    public long getTls() {
+        return tls;
+    }
+
+    /**
+     * Returns the duration of writing the request headers and body.
+     * @return duration in ns, or -1 if the request has not been written
+     */
+    public long getRequestWrite() {
+        return requestWrite;
+    }
+
+    /**
+     * Returns the time from the end of the request until the response headers started to arrive, i.e. the time the
+     * server took to answer.
+     * @return duration in ns, or -1 if no response has been received
+     */
+    public long getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    /**
+     * Returns the duration of reading the response headers and body.
+     * @return duration in ns, or -1 if no response has been received
+     */
+    public long getResponseRead() {
+        return responseRead;
+    }
+
+    /**
+     * Returns the duration of the whole call.
+     * @return duration in ns
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns whether the call used a pooled connection instead of opening a new one.
+     * @return true if the connection has been reused
+     */
+    public boolean isConnectionReused() {
+        return connectionReused;
+    }
+
+    @Override
+    public String toString() {
+        return "CallTimings{dns=" + dns + ", connect=" + connect + ", tls=" + tls + ", requestWrite=" + requestWrite
+                + ", timeToFirstByte=" + timeToFirstByte + ", responseRead=" + responseRead + ", total=" + total
+                + ", connectionReused=" + connectionReused + "}";
+    }
+}
@@ -0,0 +1,163 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.CircuitBreakerOpenException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker guarding the requests of a client to one endpoint class of one host, e.g. the Assembly endpoints of
+ * api2.transloadit.com.
+ * <p>
+ * While closed, the outcomes of the last {@value #WINDOW_SIZE} calls are recorded; a call fails if it throws, returns
+ * a server error or takes longer than the slow call threshold. Once at least {@value #MINIMUM_CALLS} calls have been
+ * recorded and the share of failed calls reaches the failure rate threshold, the breaker opens and calls fail fast
+ * with a {@link CircuitBreakerOpenException}. After the open duration the breaker is half-open and lets
+ * {@value #HALF_OPEN_CALLS} trial calls pass: if all of them succeed it closes again, otherwise it opens for another
+ * open duration.
+ * </p>
+ * Instances are thread-safe.
+ */
+final class CircuitBreaker {
+    /**
+     * Number of most recent calls the failure rate is computed from.
+     */
+    static final int WINDOW_SIZE = 20;
+    /**
+     * Number of calls which have to be recorded before the breaker may open.
+     */
+    static final int MINIMUM_CALLS = 10;
+    /**
+     * Number of trial calls let through while half-open.
+     */
+    static final int HALF_OPEN_CALLS = 3;
+
+    /**
+     * States of a circuit breaker.
+     */
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final boolean[] failedCalls = new boolean[WINDOW_SIZE];
+    private int position;
+    private int calls;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * Creates a new closed breaker.
+     * @param name host and endpoint class guarded by the breaker, used in exception messages
+     * @param failureRateThreshold share of failed calls which opens the breaker, between 0 and 1
+     * @param slowCallMillis duration in ms after which a call counts as failed, 0 if latency is not considered
+     * @param openMillis duration in ms the breaker stays open before trial calls are let through
+     */
+    CircuitBreaker(String name, double failureRateThreshold, long slowCallMillis, long openMillis) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowCallMillis) : Long.MAX_VALUE;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * Asks for permission to send a call. Every permitted call has to be finished with
+     * {@link #onResult(boolean, long)} or {@link #release()}.
+     * @throws CircuitBreakerOpenException if the breaker is open or all trial calls of the half-open breaker are in
+     * flight
+     */
+    synchronized void acquire() throws CircuitBreakerOpenException {
+        if (state == State.OPEN) {
+            long remaining = openedAtNanos + openNanos - System.nanoTime();
+            if (remaining > 0) {
+                throw new CircuitBreakerOpenException("Circuit breaker for " + name + " is open",
+                        TimeUnit.NANOSECONDS.toMillis(remaining) + 1);
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = HALF_OPEN_CALLS;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                throw new CircuitBreakerOpenException("Circuit breaker for " + name + " is half-open", 0);
+            }
+            halfOpenPermits--;
+        }
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     * @param failed true if the call has thrown or returned a server error
+     * @param durationNanos duration of the call in ns
+     */
+    synchronized void onResult(boolean failed, long durationNanos) {
+        failed |= durationNanos > slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++halfOpenSuccesses >= HALF_OPEN_CALLS) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            if (calls == WINDOW_SIZE) {
+                failures -= failedCalls[position] ? 1 : 0;
+            } else {
+                calls++;
+            }
+            failedCalls[position] = failed;
+            failures += failed ? 1 : 0;
+            position = (position + 1) % WINDOW_SIZE;
+            if (calls >= MINIMUM_CALLS && failures >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+        // Calls which were started before the breaker opened do not change its state any more.
+    }
+
+    /**
+     * Returns the permission of a call which has been cancelled without an outcome.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenPermits + halfOpenSuccesses < HALF_OPEN_CALLS) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * Returns the current state.
+     * @return {@link State}
+     */
+    synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    /**
+     * Derives the endpoint class of a request from its path, so that e.g. failing template requests do not stop
+     * Assembly requests.
+     * @param path path of the request url
+     * @return "assemblies", "templates", "tus" or the first segment of the path
+     */
+    static String getEndpointClass(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        int end = trimmed.indexOf('/');
+        String segment = end < 0 ? trimmed : trimmed.substring(0, end);
+        return "resumable".equals(segment) ? "tus" : segment;
+    }
+}
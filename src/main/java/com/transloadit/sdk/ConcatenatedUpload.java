@@ -0,0 +1,293 @@
+package com.transloadit.sdk;
+
+import io.tus.java.client.ProtocolException;
+import io.tus.java.client.TusClient;
+import io.tus.java.client.TusURLStore;
+import io.tus.java.client.TusUpload;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads a single file as several tus uploads in parallel, which are joined by the tus server with the
+ * concatenation extension. Every part is a partial upload of a byte range of the file. Once all parts have been
+ * uploaded, the final upload, which carries the metadata of the file, is created from the URLs of the parts.
+ */
+class ConcatenatedUpload {
+    private final File file;
+    private final Map<String, String> metadata;
+    private final int partCount;
+    private final URL[] partUrls;
+    private final AtomicInteger remainingParts;
+    private final int readTimeout;
+
+    /**
+     * Constructs a new instance of the ConcatenatedUpload.
+     * @param file the file to be uploaded
+     * @param metadata metadata of the final upload, e.g. the Assembly URL
+     * @param partCount number of parts; limited to the size of the file, so that no part is empty
+     * @param readTimeout read timeout in ms of the request creating the final upload, 0 for no timeout
+     */
+    ConcatenatedUpload(File file, Map<String, String> metadata, int partCount, long readTimeout) {
+        this.file = file;
+        this.metadata = metadata;
+        this.partCount = (int) Math.max(1, Math.min(partCount, file.length()));
+        this.partUrls = new URL[this.partCount];
+        this.remainingParts = new AtomicInteger(this.partCount);
+        this.readTimeout = (int) Math.min(readTimeout, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates one {@link TusUploadRunnable} per part. The last part to finish creates the final upload.
+     * @param tusClient {@link TusClient} of the Assembly, providing the upload creation URL, headers and proxy
+     * @param urlStore {@link TusURLStore} used to resume the parts, or {@code null} if resuming is disabled
+     * @param uploadChunkSize the size of an uploadable chunk
+     * @param assembly the calling Assembly instance
+     * @return the uploads of the parts
+     * @throws IOException if the file cannot be opened
+     */
+    List<TusUploadRunnable> createPartUploads(TusClient tusClient, TusURLStore urlStore, int uploadChunkSize,
+                                              Assembly assembly) throws IOException {
+        TusClient partClient = new PartialTusClient(tusClient, urlStore);
+        long size = file.length();
+        String fingerprint = String.format("%s-%d", file.getAbsolutePath(), size);
+
+        List<TusUploadRunnable> parts = new ArrayList<TusUploadRunnable>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            long start = size * i / partCount;
+            long end = size * (i + 1) / partCount;
+
+            TusUpload part = new TusUpload();
+            part.setInputStream(openRange(start, end - start));
+            part.setSize(end - start);
+            part.setFingerprint(String.format("%s-part-%d-of-%d", fingerprint, i + 1, partCount));
+            Map<String, String> partMetadata = new HashMap<String, String>();
+            partMetadata.put("filename", String.format("%s.part%d", file.getName(), i + 1));
+            part.setMetadata(partMetadata);
+
+            parts.add(new PartUploadRunnable(partClient, part, uploadChunkSize, assembly, this, i));
+        }
+        return parts;
+    }
+
+    /**
+     * Opens the file and positions it at the start of a part.
+     * @param start offset of the part in bytes
+     * @param length length of the part in bytes
+     * @return {@link InputStream} of the part
+     * @throws IOException if the file cannot be opened
+     */
+    private InputStream openRange(long start, long length) throws IOException {
+        FileInputStream inputStream = new FileInputStream(file);
+        try {
+            inputStream.getChannel().position(start);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        return new RangeInputStream(inputStream, length);
+    }
+
+    /**
+     * Records the URL of an uploaded part and creates the final upload once all parts have been uploaded.
+     * @param tusClient {@link TusClient} used to upload the part
+     * @param index index of the part
+     * @param partUrl upload URL of the part
+     * @throws ProtocolException if the server rejects the final upload
+     * @throws IOException if the final upload cannot be created
+     */
+    private void onPartUploaded(TusClient tusClient, int index, URL partUrl) throws ProtocolException, IOException {
+        synchronized (partUrls) {
+            partUrls[index] = partUrl;
+        }
+        if (remainingParts.decrementAndGet() == 0) {
+            createFinalUpload(tusClient);
+        }
+    }
+
+    /**
+     * Creates the final upload, which the tus server concatenates from the uploaded parts.
+     * tus-java-client does not support the concatenation extension, therefore the request is sent directly.
+     * @param tusClient {@link TusClient} providing the upload creation URL, headers and proxy
+     * @throws ProtocolException if the server responds with an unexpected status code
+     * @throws IOException if the request fails
+     */
+    private void createFinalUpload(TusClient tusClient) throws ProtocolException, IOException {
+        StringBuilder concat = new StringBuilder("final;");
+        synchronized (partUrls) {
+            for (int i = 0; i < partUrls.length; i++) {
+                if (i > 0) {
+                    concat.append(' ');
+                }
+                concat.append(partUrls[i].toExternalForm());
+            }
+        }
+
+        URL creationUrl = tusClient.getUploadCreationURL();
+        Proxy proxy = tusClient.getProxy();
+        HttpURLConnection connection = (HttpURLConnection) (proxy == null
+                ? creationUrl.openConnection() : creationUrl.openConnection(proxy));
+        connection.setConnectTimeout(tusClient.getConnectTimeout());
+        connection.setReadTimeout(readTimeout);
+        connection.setRequestMethod("POST");
+        tusClient.prepareConnection(connection);
+        connection.setRequestProperty("Upload-Concat", concat.toString());
+
+        TusUpload finalUpload = new TusUpload();
+        finalUpload.setMetadata(metadata);
+        String encodedMetadata = finalUpload.getEncodedMetadata();
+        if (encodedMetadata.length() > 0) {
+            connection.setRequestProperty("Upload-Metadata", encodedMetadata);
+        }
+
+        try {
+            connection.connect();
+            int responseCode = connection.getResponseCode();
+            InputStream body = responseCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (body != null) {
+                body.close();
+            }
+            if (responseCode < 200 || responseCode >= 300) {
+                throw new ProtocolException("unexpected status code (" + responseCode + ") while concatenating upload",
+                        connection);
+            }
+        } finally {
+            // The response code stays available to the ProtocolException after disconnecting.
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * {@link TusClient} which marks the uploads it creates as partial uploads. All other requests, e.g. to resume
+     * a part, are sent unchanged.
+     */
+    private static class PartialTusClient extends TusClient {
+        private final String creationUrl;
+
+        /**
+         * Copies the settings of the Assembly's client.
+         * @param tusClient {@link TusClient} of the Assembly
+         * @param urlStore {@link TusURLStore} used to resume the parts, or {@code null} if resuming is disabled
+         */
+        PartialTusClient(TusClient tusClient, TusURLStore urlStore) {
+            setUploadCreationURL(tusClient.getUploadCreationURL());
+            setHeaders(tusClient.getHeaders());
+            setConnectTimeout(tusClient.getConnectTimeout());
+            setProxy(tusClient.getProxy());
+            if (urlStore != null && tusClient.resumingEnabled()) {
+                enableResuming(urlStore);
+            }
+            if (tusClient.removeFingerprintOnSuccessEnabled()) {
+                enableRemoveFingerprintOnSuccess();
+            }
+            // Compares the external form, as URL.equals() resolves host names.
+            this.creationUrl = tusClient.getUploadCreationURL().toExternalForm();
+        }
+
+        @Override
+        public void prepareConnection(HttpURLConnection connection) {
+            super.prepareConnection(connection);
+            if (connection.getURL().toExternalForm().equals(creationUrl)) {
+                connection.setRequestProperty("Upload-Concat", "partial");
+            }
+        }
+    }
+
+    /**
+     * Upload of a single part, which reports its upload URL to the {@link ConcatenatedUpload} when it has finished.
+     */
+    private static class PartUploadRunnable extends TusUploadRunnable {
+        private final ConcatenatedUpload concatenatedUpload;
+        private final int index;
+
+        /**
+         * Constructs a new instance of the PartUploadRunnable.
+         * @param tusClient {@link PartialTusClient} creating the partial upload
+         * @param tusUpload the part to be uploaded
+         * @param uploadChunkSize the size of an uploadable chunk
+         * @param assembly the calling Assembly instance
+         * @param concatenatedUpload the upload the part belongs to
+         * @param index index of the part
+         */
+        PartUploadRunnable(TusClient tusClient, TusUpload tusUpload, int uploadChunkSize, Assembly assembly,
+                           ConcatenatedUpload concatenatedUpload, int index) {
+            super(tusClient, tusUpload, uploadChunkSize, assembly);
+            this.concatenatedUpload = concatenatedUpload;
+            this.index = index;
+        }
+
+        @Override
+        protected void onUploadCompleted() throws ProtocolException, IOException {
+            concatenatedUpload.onPartUploaded(tusClient, index, tusUploader.getUploadURL());
+        }
+    }
+
+    /**
+     * {@link InputStream} which ends after a given number of bytes of the underlying stream.
+     */
+    private static class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        /**
+         * Constructs a new instance of the RangeInputStream.
+         * @param in stream positioned at the start of the range
+         * @param length length of the range in bytes
+         */
+        RangeInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.transloadit.sdk;
+
+/**
+ * Snapshot of the connection warm-up and keep-alive counters of a {@link Transloadit} client, see
+ * {@link Transloadit#warmUp(String...)}.
+ *
+ * @since 2.3.0
+ */
+public final class ConnectionStatistics {
+    private final long warmUpRequests;
+    private final long warmUpFailures;
+    private final long lastWarmUpDuration;
+    private final long pings;
+    private final long pingFailures;
+    private final int pooledConnections;
+    private final int idleConnections;
+
+    /**
+     * Creates a new snapshot.
+     * @param warmUpRequests number of successful warm-up requests
+     * @param warmUpFailures number of failed warm-up requests and host name lookups
+     * @param lastWarmUpDuration duration of the last warm-up in ms, or -1 if the client has not been warmed up
+     * @param pings number of successful keep-alive pings
+     * @param pingFailures number of failed keep-alive pings
+     * @param pooledConnections number of connections in the pool of the client's HTTP engine
+     * @param idleConnections number of idle connections in the pool of the client's HTTP engine
+     */
+    ConnectionStatistics(long warmUpRequests, long warmUpFailures, long lastWarmUpDuration, long pings,
+                         long pingFailures, int pooledConnections, int idleConnections) {
+        this.warmUpRequests = warmUpRequests;
+        this.warmUpFailures = warmUpFailures;
+        this.lastWarmUpDuration = lastWarmUpDuration;
+        this.pings = pings;
+        this.pingFailures = pingFailures;
+        this.pooledConnections = pooledConnections;
+        this.idleConnections = idleConnections;
+    }
+
+    /**
+     * Returns the number of successful warm-up requests.
+     * @return number of requests
+     */
+    public long getWarmUpRequests() {
+        return warmUpRequests;
+    }
+
+    /**
+     * Returns the number of failed warm-up requests and host name lookups.
+     * @return number of failures
+     */
+    public long getWarmUpFailures() {
+        return warmUpFailures;
+    }
+
+    /**
+     * Returns the duration of the last warm-up.
+     * @return duration in ms, or -1 if the client has not been warmed up
+     */
+    public long getLastWarmUpDuration() {
+        return lastWarmUpDuration;
+    }
+
+    /**
+     * Returns the number of successful keep-alive pings.
+     * @return number of pings
+     */
+    public long getPings() {
+        return pings;
+    }
+
+    /**
+     * Returns the number of failed keep-alive pings.
+     * @return number of failures
+     */
+    public long getPingFailures() {
+        return pingFailures;
+    }
+
+    /**
+     * Returns the number of connections to the API in the pool of the client's HTTP engine.
+     * @return number of connections
+     */
+    public int getPooledConnections() {
+        return pooledConnections;
+    }
+
+    /**
+     * Returns the number of idle connections to the API in the pool of the client's HTTP engine.
+     * @return number of connections
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionStatistics{warmUpRequests=" + warmUpRequests + ", warmUpFailures=" + warmUpFailures
+                + ", lastWarmUpDuration=" + lastWarmUpDuration + ", pings=" + pings + ", pingFailures="
+                + pingFailures + ", pooledConnections=" + pooledConnections + ", idleConnections=" + idleConnections
+                + "}";
+    }
+}
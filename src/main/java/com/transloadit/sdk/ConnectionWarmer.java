@@ -0,0 +1,221 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens connections to the API and to upload hosts ahead of the first request and keeps them alive.
+ * <p>
+ * Host names are resolved first, which fills the JVM's DNS cache. Connections to the API are opened by sending
+ * concurrent HEAD requests through the client's HTTP engine, so they end up in its connection pool. Tus uploads use
+ * {@link HttpURLConnection}, so connections to upload hosts are opened with tus discovery requests (OPTIONS) through
+ * the JDK's keep-alive cache; this also fills the default TLS session cache the upload connections resume from.
+ * Discovery requests use the proxy of the Assembly's tus client and the client's connect and read timeouts, and run on
+ * an executor owned by the client. Keep-alive pings repeat these requests periodically, so idle connections are not
+ * closed; discovery requests are skipped while those of the previous ping are still running.
+ * </p>
+ * Instances are thread-safe.
+ */
+final class ConnectionWarmer {
+    private final AtomicLong warmUpRequests = new AtomicLong();
+    private final AtomicLong warmUpFailures = new AtomicLong();
+    private final AtomicLong pings = new AtomicLong();
+    private final AtomicLong pingFailures = new AtomicLong();
+    private volatile long lastWarmUpDuration = -1;
+    private final AtomicInteger discoveriesInFlight = new AtomicInteger();
+    private ScheduledFuture<?> pingTask;
+
+    /**
+     * Resolves the host names and opens connections, waiting until all requests have finished.
+     * @param client HTTP engine of the API requests
+     * @param executor executor running the discovery requests
+     * @param apiUrl url of the API
+     * @param uploadUrls tus endpoints of the upload hosts, with the proxy of the tus client or
+     *                   {@link Proxy#NO_PROXY} if it has none
+     * @param connections number of connections to open per host
+     * @param timeoutMillis time in ms to wait for the requests at most
+     * @throws LocalOperationException if the thread is interrupted while waiting
+     */
+    void warmUp(OkHttpClient client, Executor executor, String apiUrl, Map<String, Proxy> uploadUrls,
+                int connections, long timeoutMillis) throws LocalOperationException {
+        long start = System.nanoTime();
+        Set<String> hosts = new LinkedHashSet<String>();
+        hosts.add(apiUrl);
+        hosts.addAll(uploadUrls.keySet());
+        for (String url : hosts) {
+            try {
+                InetAddress.getAllByName(new URL(url).getHost());
+            } catch (IOException e) {
+                warmUpFailures.incrementAndGet();
+            }
+        }
+
+        CountDownLatch latch = new CountDownLatch(connections * (1 + uploadUrls.size()));
+        send(client, executor, apiUrl, uploadUrls, connections, latch, warmUpRequests, warmUpFailures);
+        try {
+            latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LocalOperationException(e);
+        }
+        lastWarmUpDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Starts sending keep-alive pings, replacing previously started pings.
+     * @param scheduler scheduler to time the pings
+     * @param client provides the HTTP engine of the API requests and the executor of the discovery requests at the
+     *               time of a ping
+     * @param apiUrl url of the API
+     * @param uploadUrls tus endpoints of the upload hosts with their proxies, may grow while pings are sent
+     * @param connections number of connections to keep alive per host
+     * @param intervalMillis time in ms between two pings
+     */
+    synchronized void startPings(ScheduledExecutorService scheduler, final Transloadit client, final String apiUrl,
+                                 final Map<String, Proxy> uploadUrls, final int connections, long intervalMillis) {
+        stopPings();
+        pingTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                send(client.getHttpClient(), client.getDiscoveryExecutor(), apiUrl, uploadUrls, connections, null,
+                        pings, pingFailures);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sending keep-alive pings.
+     */
+    synchronized void stopPings() {
+        if (pingTask != null) {
+            pingTask.cancel(false);
+            pingTask = null;
+        }
+    }
+
+    /**
+     * Returns the current counters.
+     * @param client HTTP engine of the API requests
+     * @return {@link ConnectionStatistics}
+     */
+    ConnectionStatistics getStatistics(OkHttpClient client) {
+        return new ConnectionStatistics(warmUpRequests.get(), warmUpFailures.get(), lastWarmUpDuration, pings.get(),
+                pingFailures.get(), client.connectionPool().connectionCount(),
+                client.connectionPool().idleConnectionCount());
+    }
+
+    /**
+     * Sends the given number of concurrent requests to every host without blocking the calling thread. Without a
+     * latch, i.e. for a ping, no discovery requests are sent while those of the previous ping are still running.
+     */
+    private void send(final OkHttpClient client, Executor executor, String apiUrl, Map<String, Proxy> uploadUrls,
+                      int connections, final CountDownLatch latch, final AtomicLong successes,
+                      final AtomicLong failures) {
+        okhttp3.Request head = new okhttp3.Request.Builder().url(apiUrl).head().build();
+        for (int i = 0; i < connections; i++) {
+            client.newCall(head).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    finished(false);
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    finished(true);
+                }
+
+                private void finished(boolean success) {
+                    (success ? successes : failures).incrementAndGet();
+                    if (latch != null) {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+
+        if (latch == null && discoveriesInFlight.get() > 0) {
+            return;
+        }
+        for (final Map.Entry<String, Proxy> uploadUrl : uploadUrls.entrySet()) {
+            for (int i = 0; i < connections; i++) {
+                discoveriesInFlight.incrementAndGet();
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                (discover(client, uploadUrl.getKey(), uploadUrl.getValue()) ? successes : failures)
+                                        .incrementAndGet();
+                            } finally {
+                                discoveriesInFlight.decrementAndGet();
+                                if (latch != null) {
+                                    latch.countDown();
+                                }
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    discoveriesInFlight.decrementAndGet();
+                    failures.incrementAndGet();
+                    if (latch != null) {
+                        latch.countDown();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a tus discovery request and reads the response completely, so the connection is kept alive by the JDK.
+     * @param client HTTP engine of the API requests, providing the connect and read timeouts
+     * @param uploadUrl tus endpoint
+     * @param proxy proxy of the tus client, or {@link Proxy#NO_PROXY} if it has none
+     * @return true if a response has been received
+     */
+    private static boolean discover(OkHttpClient client, String uploadUrl, Proxy proxy) {
+        try {
+            URL url = new URL(uploadUrl);
+            // Opened like the tus client does, which uses the system's proxy settings unless a proxy has been set.
+            HttpURLConnection connection = (HttpURLConnection) (proxy == Proxy.NO_PROXY
+                    ? url.openConnection() : url.openConnection(proxy));
+            connection.setConnectTimeout(client.connectTimeoutMillis());
+            connection.setReadTimeout(client.readTimeoutMillis());
+            connection.setRequestMethod("OPTIONS");
+            connection.setRequestProperty("Tus-Resumable", "1.0.0");
+            int code = connection.getResponseCode();
+            InputStream stream = code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (stream != null) {
+                byte[] buffer = new byte[1024];
+                while (stream.read(buffer) != -1) {
+                    // drain, so the connection can be reused
+                }
+                stream.close();
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
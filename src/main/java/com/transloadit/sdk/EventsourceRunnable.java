@@ -16,6 +16,7 @@ import com.launchdarkly.logging.Logs;
 import com.transloadit.sdk.exceptions.LocalOperationException;
 import com.transloadit.sdk.exceptions.RequestException;
 import com.transloadit.sdk.response.AssemblyResponse;
+import org.jetbrains.annotations.Nullable;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -31,6 +32,9 @@ class EventsourceRunnable implements Runnable {
     protected Transloadit transloadit;
     protected boolean stopRequested;
     protected boolean assemblyFinishedNotified;
+    private boolean streamStarted;
+    private final Span parentSpan = TraceContext.current();
+    private Span span = Span.NOOP;
 
     /**
      * Constructor for {@link EventsourceRunnable}. It creates a new {@link EventSource} instance, wrapped in a
@@ -63,15 +67,32 @@ class EventsourceRunnable implements Runnable {
     /**
      * The {@link Runnable} implementation of the {@link EventsourceRunnable}. Runs a {@link EventSource} instance and
      * parses the incoming events. The events are then passed to the {@link AssemblyListener} to notify the user about them.
+     * The stream is traced as child of the span which was active when this runnable was created.
      */
     @Override
     public void run() {
+        Tracer tracer = transloadit.getTracer();
+        span = tracer == null ? Span.NOOP : tracer.startSpan("transloadit.assembly.events", parentSpan);
+        Span previous = TraceContext.activate(span);
+        try {
+            listen();
+        } finally {
+            TraceContext.restore(previous);
+            span.end();
+        }
+    }
+
+    /**
+     * Starts the {@link EventSource} and handles its events until the stream is closed or the Assembly is finished.
+     */
+    private void listen() {
         this.assemblyFinished = false;
         this.stopRequested = false;
         this.assemblyFinishedNotified = false;
         try {
             eventSource.start();
         } catch (StreamException e) {
+            span.recordException(e);
             assemblyListener.onError(e);
             stopRequested = true;
         }
@@ -126,6 +147,7 @@ class EventsourceRunnable implements Runnable {
 
         String eventName = messageEvent.getEventName();
         String data = messageEvent.getData();
+        JfrEvents.streamMessage(getAssemblyId(), eventName.equals("message") ? data : eventName);
 
         // Check if the event is a message event without
         if (eventName.equals("message")) {
@@ -194,12 +216,21 @@ class EventsourceRunnable implements Runnable {
     }
 
     protected void handleStartedEvent(StartedEvent startedEvent) {
+        // Every stream after the first one has been opened by a reconnect of the EventSource.
+        MetricsRecorder metrics = transloadit.getMetricsRecorder();
+        if (streamStarted && metrics != null) {
+            metrics.onEventStreamReconnect();
+        }
+        span.addEvent(streamStarted ? "reconnected" : "connected");
+        JfrEvents.streamConnected(getAssemblyId(), streamStarted);
+        streamStarted = true;
         // Debug output, uncomment if needed
         // String data = startedEvent.toString();
         // System.out.printf("Started: %s\n", data);
     }
 
     protected void handleFaultEvent(FaultEvent faultEvent) {
+        JfrEvents.streamFault(getAssemblyId(), String.valueOf(faultEvent.getCause()));
         if (assemblyFinished) {
             stopRequested = true;
             shutdownEventSource();
@@ -210,6 +241,16 @@ class EventsourceRunnable implements Runnable {
         // System.out.println("Starting Over");
     }
 
+    /**
+     * Returns the ID of the Assembly whose status is streamed, if known.
+     * @return Assembly ID or {@code null}
+     */
+    @Nullable
+    private String getAssemblyId() {
+        JSONObject json = response == null ? null : response.json();
+        return json == null ? null : json.optString("assembly_id", null);
+    }
+
     private void shutdownEventSource() {
         if (this.eventSource == null) {
             return;
@@ -0,0 +1,54 @@
+package com.transloadit.sdk;
+
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Formats the "expires" value of request authentication data.
+ * The formatted value only changes once per second, so the last result is kept and reused until the expiry second
+ * rolls over. Instances are thread-safe.
+ */
+final class ExpiryClock {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormat
+            .forPattern("Y/MM/dd HH:mm:ss+00:00")
+            .withZoneUTC();
+
+    private volatile Expiry last;
+
+    /**
+     * Returns the formatted expiry time for a request that should be valid for the given duration from now on.
+     * @param durationInSeconds for how long (in seconds) the request should be valid
+     * @return expiry time formatted as expected by the Transloadit API
+     */
+    String expiresIn(long durationInSeconds) {
+        return format(System.currentTimeMillis() + durationInSeconds * 1000);
+    }
+
+    /**
+     * Returns the formatted expiry time.
+     * @param expiryMillis expiry time in milliseconds since the UNIX epoch
+     * @return expiry time formatted as expected by the Transloadit API
+     */
+    String format(long expiryMillis) {
+        long second = Math.floorDiv(expiryMillis, 1000);
+        Expiry expiry = last;
+        if (expiry == null || expiry.second != second) {
+            expiry = new Expiry(second, FORMATTER.print(second * 1000));
+            last = expiry;
+        }
+        return expiry.formatted;
+    }
+
+    /**
+     * Formatted expiry time of one second.
+     */
+    private static final class Expiry {
+        private final long second;
+        private final String formatted;
+
+        Expiry(long second, String formatted) {
+            this.second = second;
+            this.formatted = formatted;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link RetryPolicy} with exponential backoff and decorrelated jitter: the delay before a retry is a random value
+ * between the base delay and three times the previous delay, capped at the maximum delay. Spreading the retries of
+ * many clients this way keeps them from hitting a recovering server at the same time.
+ *
+ * <p>Attempts are retried if they have failed with one of the retryable exception types (by default timeouts,
+ * connection failures and unknown hosts) or with one of the retryable status codes (by default 413, 429, 500, 502,
+ * 503 and 504). POST requests create Assemblies, so they are only retried if the server has certainly not processed
+ * them: after rate limits (413, 429), 503 and failures to connect.</p>
+ *
+ * @since 2.3.0
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+    private static final Set<Integer> NOT_PROCESSED_STATUS_CODES = new HashSet<Integer>(Arrays.asList(413, 429, 503));
+
+    private int maxAttempts = 4;
+    private long baseDelay = 100;
+    private long maxDelay = 20 * 1000;
+    private volatile Set<Integer> retryableStatusCodes = new HashSet<Integer>(Arrays.asList(413, 429, 500, 502, 503,
+            504));
+    private volatile List<Class<? extends IOException>> retryableExceptions =
+            new ArrayList<Class<? extends IOException>>(Arrays.asList(SocketTimeoutException.class,
+                    SocketException.class, UnknownHostException.class));
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRetryDelay(RetryAttempt attempt) {
+        if (attempt.getNumber() >= maxAttempts || !isRetryable(attempt)) {
+            return -1;
+        }
+        long lower = baseDelay;
+        long upper = Math.max(lower, Math.min(maxDelay, Math.max(attempt.getPreviousDelay(), baseDelay) * 3));
+        return Math.min(maxDelay, lower + (long) (ThreadLocalRandom.current().nextDouble() * (upper - lower)));
+    }
+
+    /**
+     * Classifies a failed attempt.
+     * @param attempt the failed attempt
+     * @return true if the attempt may be retried
+     */
+    protected boolean isRetryable(RetryAttempt attempt) {
+        boolean post = "POST".equals(attempt.getMethod());
+        IOException exception = attempt.getException();
+        if (exception != null) {
+            if (post && !(exception instanceof ConnectException || exception instanceof UnknownHostException)) {
+                return false;
+            }
+            for (Class<? extends IOException> type : retryableExceptions) {
+                if (type.isInstance(exception)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int statusCode = attempt.getStatusCode();
+        return retryableStatusCodes.contains(statusCode) && (!post || NOT_PROCESSED_STATUS_CODES.contains(statusCode));
+    }
+
+    /**
+     * Returns the maximum number of attempts of a request, including the first one.
+     * @return maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the maximum number of attempts of a request, including the first one. Default value is 4.
+     * @param maxAttempts maximum number of attempts
+     * @throws LocalOperationException if provided number is smaller than 1
+     */
+    public void setMaxAttempts(int maxAttempts) throws LocalOperationException {
+        if (maxAttempts < 1) {
+            throw new LocalOperationException("Invalid number of attempts. Values >= 1 are expected");
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Returns the shortest delay before a retry.
+     * @return delay in ms
+     */
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    /**
+     * Sets the shortest delay before a retry. Default value is 100 ms.
+     * @param baseDelay delay in ms
+     * @throws LocalOperationException if provided delay is smaller than 0 or greater than the maximum delay
+     */
+    public void setBaseDelay(long baseDelay) throws LocalOperationException {
+        if (baseDelay < 0 || baseDelay > maxDelay) {
+            throw new LocalOperationException("Delay invalid. Values between 0 and the maximum delay are expected");
+        }
+        this.baseDelay = baseDelay;
+    }
+
+    /**
+     * Returns the longest delay before a retry.
+     * @return delay in ms
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Sets the longest delay before a retry. Default value is 20 seconds.
+     * @param maxDelay delay in ms
+     * @throws LocalOperationException if provided delay is smaller than the base delay
+     */
+    public void setMaxDelay(long maxDelay) throws LocalOperationException {
+        if (maxDelay < baseDelay) {
+            throw new LocalOperationException("Delay invalid. Values >= the base delay are expected");
+        }
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Returns the HTTP status codes of responses which are retried.
+     * @return status codes
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return new HashSet<Integer>(retryableStatusCodes);
+    }
+
+    /**
+     * Sets the HTTP status codes of responses which are retried. POST requests are only retried for 413, 429 and 503.
+     * @param retryableStatusCodes status codes, by default 413, 429, 500, 502, 503 and 504
+     */
+    public void setRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+        this.retryableStatusCodes = new HashSet<Integer>(retryableStatusCodes);
+    }
+
+    /**
+     * Returns the exception types which are retried.
+     * @return exception types
+     */
+    public List<Class<? extends IOException>> getRetryableExceptions() {
+        return new ArrayList<Class<? extends IOException>>(retryableExceptions);
+    }
+
+    /**
+     * Sets the exception types which are retried, subclasses included. POST requests are only retried if the
+     * connection could not be established.
+     * @param retryableExceptions exception types, by default {@link SocketTimeoutException},
+     *                            {@link SocketException} and {@link UnknownHostException}
+     */
+    public void setRetryableExceptions(List<Class<? extends IOException>> retryableExceptions) {
+        this.retryableExceptions = new ArrayList<Class<? extends IOException>>(retryableExceptions);
+    }
+}
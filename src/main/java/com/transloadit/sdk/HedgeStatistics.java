@@ -0,0 +1,66 @@
+package com.transloadit.sdk;
+
+/**
+ * Snapshot of the hedged GET requests of a {@link Transloadit} client, see
+ * {@link Transloadit#setHedgingEnabled(boolean)}.
+ *
+ * @since 2.3.0
+ */
+public final class HedgeStatistics {
+    private final long requests;
+    private final long hedges;
+    private final long hedgeWins;
+    private final long hedgeDelay;
+
+    /**
+     * Creates a new snapshot.
+     * @param requests number of GET requests sent with hedging enabled
+     * @param hedges number of hedge requests sent
+     * @param hedgeWins number of hedge requests which answered before the original request
+     * @param hedgeDelay current hedge delay in ms, or -1 if not enough latencies have been recorded yet
+     */
+    HedgeStatistics(long requests, long hedges, long hedgeWins, long hedgeDelay) {
+        this.requests = requests;
+        this.hedges = hedges;
+        this.hedgeWins = hedgeWins;
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /**
+     * Returns the number of GET requests sent with hedging enabled.
+     * @return number of requests
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of hedge requests sent because the original request had not been answered in time.
+     * @return number of hedge requests
+     */
+    public long getHedges() {
+        return hedges;
+    }
+
+    /**
+     * Returns the number of hedge requests which answered before the original request.
+     * @return number of winning hedge requests
+     */
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * Returns the time after which a hedge request is sent.
+     * @return delay in ms, or -1 if not enough latencies have been recorded yet and no hedge requests are sent
+     */
+    public long getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeStatistics{requests=" + requests + ", hedges=" + hedges + ", hedgeWins=" + hedgeWins
+                + ", hedgeDelay=" + hedgeDelay + "}";
+    }
+}
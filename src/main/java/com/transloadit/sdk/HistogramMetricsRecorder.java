@@ -0,0 +1,193 @@
+package com.transloadit.sdk;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link MetricsRecorder} which keeps the measurements of a client in memory, e.g. to be exported by a
+ * periodic job. Latencies are kept per HTTP method and endpoint in {@link LatencyHistogram LatencyHistograms}, all
+ * other measurements in counters. Recording is lock-free; only the first request to an endpoint or the first
+ * response with a status code allocates.
+ *
+ * @since 2.3.0
+ */
+public class HistogramMetricsRecorder implements MetricsRecorder {
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<String, LatencyHistogram>();
+    private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<Integer, LongAdder>();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rateLimitWaits = new LongAdder();
+    private final LongAdder rateLimitWaitMillis = new LongAdder();
+    private final LongAdder bytesUploaded = new LongAdder();
+    private final LongAdder uploadNanos = new LongAdder();
+    private final LatencyHistogram chunkDurations = new LatencyHistogram();
+    private final LongAdder chunkSizeChanges = new LongAdder();
+    private volatile int lastChunkSize;
+    private final LongAdder eventStreamReconnects = new LongAdder();
+
+    @Override
+    public void onRequest(String method, String endpoint, int statusCode, long durationNanos) {
+        String key = method + " " + endpoint;
+        LatencyHistogram histogram = latencies.get(key);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = latencies.putIfAbsent(key, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        histogram.record(durationNanos);
+        LongAdder counter = statusCodes.get(statusCode);
+        if (counter == null) {
+            LongAdder created = new LongAdder();
+            counter = statusCodes.putIfAbsent(statusCode, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void onRetry(String method, String endpoint, long delayMillis) {
+        retries.increment();
+    }
+
+    @Override
+    public void onRateLimitWait(long waitMillis) {
+        rateLimitWaits.increment();
+        rateLimitWaitMillis.add(waitMillis);
+    }
+
+    @Override
+    public void onUploadChunk(long bytes, long durationNanos) {
+        bytesUploaded.add(bytes);
+        uploadNanos.add(durationNanos);
+        chunkDurations.record(durationNanos);
+    }
+
+    @Override
+    public void onUploadChunkSize(int chunkSize) {
+        chunkSizeChanges.increment();
+        lastChunkSize = chunkSize;
+    }
+
+    @Override
+    public void onEventStreamReconnect() {
+        eventStreamReconnects.increment();
+    }
+
+    /**
+     * Returns the latency histogram of the requests with the given method to the given endpoint.
+     * @param method HTTP method, e.g. "GET"
+     * @param endpoint endpoint, e.g. "assemblies"
+     * @return {@link LatencyHistogram}, or {@code null} if no such request has been recorded
+     */
+    @Nullable
+    public LatencyHistogram getLatencyHistogram(String method, String endpoint) {
+        return latencies.get(method + " " + endpoint);
+    }
+
+    /**
+     * Returns the keys of all recorded latency histograms, formatted as method and endpoint separated by a space,
+     * e.g. "GET assemblies".
+     * @return set of keys
+     */
+    public Set<String> getLatencyHistogramKeys() {
+        return Collections.unmodifiableSet(latencies.keySet());
+    }
+
+    /**
+     * Returns the number of responses per status code; failed attempts without response are counted as -1.
+     * @return map of status code to count, ordered by status code
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        Map<Integer, Long> result = new TreeMap<Integer, Long>();
+        for (Map.Entry<Integer, LongAdder> entry : statusCodes.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of retried attempts.
+     * @return number of retries
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of requests which had to wait for the client's rate limit.
+     * @return number of waits
+     */
+    public long getRateLimitWaits() {
+        return rateLimitWaits.sum();
+    }
+
+    /**
+     * Returns the total time requests have waited for the client's rate limit.
+     * @return time in ms
+     */
+    public long getRateLimitWaitMillis() {
+        return rateLimitWaitMillis.sum();
+    }
+
+    /**
+     * Returns the number of bytes uploaded with tus.
+     * @return number of bytes
+     */
+    public long getBytesUploaded() {
+        return bytesUploaded.sum();
+    }
+
+    /**
+     * Returns the average throughput of tus uploads, measured over the time spent uploading chunks. Parallel uploads
+     * are not summed up, so this is the throughput of a single upload.
+     * @return bytes per second, 0 if nothing has been uploaded
+     */
+    public double getUploadBytesPerSecond() {
+        long nanos = uploadNanos.sum();
+        return nanos == 0 ? 0 : bytesUploaded.sum() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Returns the histogram of the durations of tus upload chunks.
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram getChunkDurations() {
+        return chunkDurations;
+    }
+
+    /**
+     * Returns how often adaptive chunk sizing has chosen a chunk size, including the initial chunk size of every
+     * upload.
+     * @return number of chosen chunk sizes
+     */
+    public long getUploadChunkSizeChanges() {
+        return chunkSizeChanges.sum();
+    }
+
+    /**
+     * Returns the chunk size most recently chosen by adaptive chunk sizing.
+     * @return chunk size in bytes, 0 if adaptive chunk sizing has not been used
+     */
+    public int getLastUploadChunkSize() {
+        return lastChunkSize;
+    }
+
+    /**
+     * Returns the number of reconnects of Assembly status streams.
+     * @return number of reconnects
+     */
+    public long getEventStreamReconnects() {
+        return eventStreamReconnects.sum();
+    }
+}
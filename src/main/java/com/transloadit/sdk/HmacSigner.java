@@ -0,0 +1,149 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Computes hex encoded HMAC signatures with a fixed algorithm and key.
+ * The {@link Mac} is keyed once and every thread works on its own copy of it, together with reusable buffers for the
+ * UTF-8 encoded message, the raw digest and the hex digits. Apart from the resulting String no memory is allocated
+ * per signature. Instances are thread-safe.
+ */
+final class HmacSigner {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int ENCODE_BUFFER_SIZE = 4096;
+
+    private final String prefix;
+    private final SecretKeySpec key;
+    private final Mac prototype;
+    private final ThreadLocal<State> state = new ThreadLocal<State>() {
+        @Override
+        protected State initialValue() {
+            return new State(newMac());
+        }
+    };
+
+    /**
+     * Creates a new signer.
+     * @param algorithm name of the HMAC algorithm, e.g. "HmacSHA384"
+     * @param prefix text put in front of the hex digits, e.g. "sha384:"
+     * @param secret key of the HMAC
+     * @throws LocalOperationException if the algorithm is not available or the key is invalid
+     */
+    HmacSigner(String algorithm, String prefix, String secret) throws LocalOperationException {
+        this.prefix = prefix;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm);
+        try {
+            prototype = Mac.getInstance(algorithm);
+            prototype.init(key);
+        } catch (GeneralSecurityException e) {
+            throw new LocalOperationException(e);
+        }
+    }
+
+    /**
+     * Signs the UTF-8 representation of a message.
+     * @param message message to sign
+     * @return prefix followed by the lower case hex encoded signature
+     * @throws LocalOperationException if the message cannot be signed
+     */
+    String sign(CharSequence message) throws LocalOperationException {
+        State s = state.get();
+        try {
+            s.update(message);
+            int length = s.mac.getMacLength();
+            s.mac.doFinal(s.digest, 0);
+            char[] chars = s.chars;
+            for (int i = 0; i < length; i++) {
+                int b = s.digest[i] & 0xff;
+                chars[prefix.length() + 2 * i] = HEX_DIGITS[b >>> 4];
+                chars[prefix.length() + 2 * i + 1] = HEX_DIGITS[b & 0x0f];
+            }
+            return new String(chars, 0, prefix.length() + 2 * length);
+        } catch (ShortBufferException | CharacterCodingException e) {
+            s.mac.reset();
+            throw new LocalOperationException(e);
+        }
+    }
+
+    /**
+     * Returns a keyed copy of the prototype. Cloning avoids the provider lookup and the key schedule; providers that
+     * do not support cloning get a freshly initialised instance.
+     * @return keyed {@link Mac}
+     */
+    private Mac newMac() {
+        synchronized (prototype) {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                try {
+                    Mac mac = Mac.getInstance(prototype.getAlgorithm(), prototype.getProvider());
+                    mac.init(key);
+                    return mac;
+                } catch (GeneralSecurityException ex) {
+                    // The key has already been accepted by the prototype, so this is not expected to happen.
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Per thread signing state.
+     */
+    private final class State {
+        private final Mac mac;
+        private final byte[] digest;
+        private final char[] chars;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer buffer = ByteBuffer.allocate(ENCODE_BUFFER_SIZE);
+
+        State(Mac mac) {
+            this.mac = mac;
+            this.digest = new byte[mac.getMacLength()];
+            this.chars = new char[prefix.length() + 2 * mac.getMacLength()];
+            prefix.getChars(0, prefix.length(), chars, 0);
+        }
+
+        /**
+         * Feeds the UTF-8 bytes of the message to the {@link Mac}, encoding it in slices of the reusable buffer.
+         * @param message message to sign
+         * @throws CharacterCodingException if the message cannot be encoded
+         */
+        void update(CharSequence message) throws CharacterCodingException {
+            CharBuffer in = CharBuffer.wrap(message);
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(in, buffer, true);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                drain();
+            } while (result.isOverflow());
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+            drain();
+        }
+
+        private void drain() {
+            buffer.flip();
+            mac.update(buffer);
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.transloadit.sdk;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link RequestBody} which streams the content of an {@link InputStream} to the connection instead of reading it
+ * into memory first. The stream is copied through Okio's segment buffers, so memory usage does not depend on the
+ * size of the stream.
+ * The length of the body is only known for {@link FileInputStream FileInputStreams}; for all other streams
+ * {@link #contentLength()} returns -1 and the request is sent with chunked transfer encoding.
+ * The stream is not closed after it has been written, it remains owned by the caller. As it can only be read once,
+ * requests carrying such a body are not retried.
+ */
+final class InputStreamRequestBody extends RequestBody {
+    private final MediaType contentType;
+    private final InputStream stream;
+    private final long contentLength;
+
+    /**
+     * Creates a new body for the given stream.
+     * @param contentType media type of the body, or {@code null}
+     * @param stream stream providing the content
+     * @throws IOException if the remaining size of a {@link FileInputStream} cannot be determined
+     */
+    InputStreamRequestBody(@Nullable MediaType contentType, InputStream stream) throws IOException {
+        this.contentType = contentType;
+        this.stream = stream;
+        if (stream instanceof FileInputStream) {
+            FileInputStream fileStream = (FileInputStream) stream;
+            this.contentLength = fileStream.getChannel().size() - fileStream.getChannel().position();
+        } else {
+            this.contentLength = -1;
+        }
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    /**
+     * The stream can only be consumed once, so OkHttp must not replay the body on its own.
+     * @return true
+     */
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        // Do not close the source, as this would close the caller's stream.
+        sink.writeAll(Okio.source(stream));
+    }
+}
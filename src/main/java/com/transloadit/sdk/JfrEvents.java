@@ -0,0 +1,115 @@
+package com.transloadit.sdk;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Emits Java Flight Recorder events for API requests, tus uploads, Assembly status streams and status polls.
+ * <p>
+ * This is the Java 8 variant, in which every method does nothing. The SDK jar is a multi-release jar: on Java 11 and
+ * newer this class is replaced by the variant in {@code src/main/java11}, which emits {@code jdk.jfr.Event}s in the
+ * "Transloadit" category. Both variants have to keep the same methods.
+ * </p>
+ * Duration events are started by a {@code begin...} method, which returns the event in flight, or {@code null} if
+ * no recording is interested in it, and committed by the matching {@code end...} method.
+ */
+final class JfrEvents {
+    private JfrEvents() {
+    }
+
+    /**
+     * Starts the event of an API request, including its retries.
+     * @return the event in flight, or {@code null}
+     */
+    @Nullable
+    static Object beginRequest() {
+        return null;
+    }
+
+    /**
+     * Commits the event of an API request.
+     * @param event event returned by {@link #beginRequest()}
+     * @param method HTTP method of the request
+     * @param endpoint endpoint of the request, e.g. "assemblies"
+     * @param statusCode status code of the last response, or -1 if no response has been received
+     * @param retries number of retried attempts
+     */
+    static void endRequest(@Nullable Object event, @Nullable String method, @Nullable String endpoint, int statusCode,
+                           int retries) {
+    }
+
+    /**
+     * Starts the event of a tus chunk upload.
+     * @return the event in flight, or {@code null}
+     */
+    @Nullable
+    static Object beginChunk() {
+        return null;
+    }
+
+    /**
+     * Commits the event of a tus chunk upload.
+     * @param event event returned by {@link #beginChunk()}
+     * @param upload name of the upload
+     * @param bytes number of bytes uploaded with the chunk, or -1 if the upload has finished
+     * @param offset offset of the upload after the chunk
+     * @param chunkSize chunk size the chunk was uploaded with
+     */
+    static void endChunk(@Nullable Object event, String upload, long bytes, long offset, int chunkSize) {
+    }
+
+    /**
+     * Emits the event of a paused tus upload.
+     * @param upload name of the upload
+     */
+    static void uploadPaused(String upload) {
+    }
+
+    /**
+     * Emits the event of a resumed tus upload.
+     * @param upload name of the upload
+     */
+    static void uploadResumed(String upload) {
+    }
+
+    /**
+     * Emits the event of a (re)connected Assembly status stream.
+     * @param assemblyId id of the Assembly
+     * @param reconnect true if the stream has been reconnected
+     */
+    static void streamConnected(@Nullable String assemblyId, boolean reconnect) {
+    }
+
+    /**
+     * Emits the event of a dropped or failed Assembly status stream.
+     * @param assemblyId id of the Assembly
+     * @param message description of the fault
+     */
+    static void streamFault(@Nullable String assemblyId, String message) {
+    }
+
+    /**
+     * Emits the event of a message received on an Assembly status stream.
+     * @param assemblyId id of the Assembly
+     * @param name name of the message, e.g. "assembly_upload_finished"
+     */
+    static void streamMessage(@Nullable String assemblyId, String name) {
+    }
+
+    /**
+     * Starts the event of polling the status of an Assembly.
+     * @return the event in flight, or {@code null}
+     */
+    @Nullable
+    static Object beginPoll() {
+        return null;
+    }
+
+    /**
+     * Commits the event of polling the status of an Assembly.
+     * @param event event returned by {@link #beginPoll()}
+     * @param assemblyId id of the Assembly
+     * @param status status of the Assembly, e.g. "ASSEMBLY_EXECUTING", or {@code null} if the poll has failed
+     */
+    static void endPoll(@Nullable Object event, @Nullable String assemblyId, @Nullable String status) {
+    }
+}
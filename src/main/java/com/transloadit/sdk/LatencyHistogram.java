@@ -0,0 +1,124 @@
+package com.transloadit.sdk;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with log-linear buckets.
+ * <p>
+ * Every power of two is split into 16 buckets, so percentiles are accurate to about 6% over the whole range of
+ * {@code long} values, using a fixed 8 KB of memory. Recording a value updates a few atomic counters and never blocks
+ * or allocates, so histograms can be shared by all threads of a client.
+ * </p>
+ * Percentiles are computed from a live view of the counters; while values are recorded concurrently, the result may
+ * lag behind by the values in flight.
+ *
+ * @since 2.3.0
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     * @param nanos duration in ns, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     * @return number of durations
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the mean of the recorded durations.
+     * @return mean in ns, 0 if no duration has been recorded
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     * @return maximum in ns, 0 if no duration has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the given percentile of the recorded durations, e.g. 99 for the duration 99% of all recorded durations
+     * do not exceed. The result is the upper bound of the bucket the percentile falls into, capped by the maximum.
+     * @param percentile percentile between 0 and 100
+     * @return percentile in ns, 0 if no duration has been recorded
+     */
+    public long getPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount() + ", mean=" + (long) getMean() + ", p50=" + getPercentile(50)
+                + ", p99=" + getPercentile(99) + ", max=" + getMax() + "}";
+    }
+
+    /**
+     * Returns the bucket of a value: values below 16 get a bucket of their own, larger values share a bucket with
+     * the values of the same power of two and the same 4 bits following the highest one.
+     * @param value non-negative value
+     * @return index of the bucket
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Returns the largest value falling into a bucket.
+     * @param bucket index of the bucket
+     * @return upper bound of the bucket
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        long upper = lower + (1L << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
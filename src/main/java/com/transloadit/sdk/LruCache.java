@@ -0,0 +1,80 @@
+package com.transloadit.sdk;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded map which evicts the least recently used entry once it is full. Instances are thread-safe.
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+final class LruCache<K, V> {
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+
+    /**
+     * Creates a new, empty cache.
+     * @param maxSize maximum number of entries, must be greater than 0
+     */
+    LruCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value of a key and marks it as recently used.
+     * @param key key to look up
+     * @return the value, or {@code null} if the key is not cached
+     */
+    @Nullable
+    synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Adds or replaces an entry, evicting the least recently used entry if the cache is full.
+     * @param key key of the entry
+     * @param value value of the entry
+     */
+    synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Removes an entry.
+     * @param key key of the entry
+     */
+    synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached entries.
+     * @return number of entries
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     * @return maximum number of entries
+     */
+    int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,83 @@
+package com.transloadit.sdk;
+
+/**
+ * Receives measurements of the API requests, uploads and Assembly status streams of a {@link Transloadit} client.
+ * A recorder is set with {@link Transloadit#setMetricsRecorder(MetricsRecorder)} and shared by all threads of the
+ * client, so implementations have to be thread-safe. The methods are called on the threads doing the work, they are
+ * expected to return quickly and must not throw.
+ *
+ * <p>All methods do nothing by default, so implementations only override what they are interested in.
+ * {@link HistogramMetricsRecorder} is provided as a built-in implementation, {@link #NOOP} is the default of every
+ * client.</p>
+ *
+ * <p>Endpoints are reported as the first segment of the request path, e.g. "assemblies" or "templates"; tus uploads
+ * are reported as "tus".</p>
+ *
+ * @since 2.3.0
+ */
+public interface MetricsRecorder {
+    /**
+     * Recorder which ignores all measurements.
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+    };
+
+    /**
+     * Called after every attempt of an API request, including attempts which are retried afterwards.
+     * @param method HTTP method of the request
+     * @param endpoint endpoint of the request, e.g. "assemblies"
+     * @param statusCode status code of the response, or -1 if the attempt has failed with an exception
+     * @param durationNanos time in ns from sending the request until the response headers have been received
+     */
+    default void onRequest(String method, String endpoint, int statusCode, long durationNanos) {
+    }
+
+    /**
+     * Called after every completed HTTP call with the time it has spent in each phase, e.g. to log slow calls with
+     * their full timing profile. Completed means the response body has been read or closed, so this is called later
+     * than {@link #onRequest(String, String, int, long)}. Calls which failed or were cancelled are not reported.
+     * @param method HTTP method of the request
+     * @param endpoint endpoint of the request, e.g. "assemblies"
+     * @param timings {@link CallTimings} of the call
+     */
+    default void onCallTimings(String method, String endpoint, CallTimings timings) {
+    }
+
+    /**
+     * Called whenever a failed attempt of an API request is going to be retried.
+     * @param method HTTP method of the request
+     * @param endpoint endpoint of the request, e.g. "assemblies"
+     * @param delayMillis time in ms waited before the next attempt
+     */
+    default void onRetry(String method, String endpoint, long delayMillis) {
+    }
+
+    /**
+     * Called whenever a request has to wait for the client's rate limit before it may be sent.
+     * @param waitMillis time in ms the request waits
+     */
+    default void onRateLimitWait(long waitMillis) {
+    }
+
+    /**
+     * Called after every chunk of a tus upload.
+     * @param bytes number of bytes uploaded with the chunk
+     * @param durationNanos time in ns the chunk took to upload
+     */
+    default void onUploadChunk(long bytes, long durationNanos) {
+    }
+
+    /**
+     * Called whenever adaptive chunk sizing has chosen a new chunk size for a tus upload, including the initial
+     * chunk size, see {@link Assembly#setAdaptiveUploadChunkSizeEnabled(boolean)}.
+     * @param chunkSize chunk size in bytes used for the following chunks
+     */
+    default void onUploadChunkSize(int chunkSize) {
+    }
+
+    /**
+     * Called whenever the status stream of an Assembly has been reconnected after the connection dropped.
+     */
+    default void onEventStreamReconnect() {
+    }
+}
@@ -0,0 +1,69 @@
+package com.transloadit.sdk;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Generates the random nonces that make every request signature unique.
+ * Each thread draws from its own {@link SecureRandom}, so concurrent requests do not contend on a shared generator
+ * or on the entropy source, and encodes into reused buffers. Nonces have the same format as the Base64 encoded
+ * {@link javax.crypto.SecretKey SecretKeys} used before: 32 random bytes yield 44 characters.
+ */
+final class NonceGenerator {
+    private static final Base64.Encoder ENCODER = Base64.getEncoder();
+
+    private final ThreadLocal<State> state = new ThreadLocal<State>() {
+        @Override
+        protected State initialValue() {
+            return new State(newSecureRandom());
+        }
+    };
+
+    /**
+     * Returns a new nonce.
+     * @param lengthInBytes number of random bytes the nonce is made of
+     * @return Base64 encoded random bytes
+     */
+    String next(int lengthInBytes) {
+        State s = state.get();
+        if (s.raw.length != lengthInBytes) {
+            s.resize(lengthInBytes);
+        }
+        s.random.nextBytes(s.raw);
+        int length = ENCODER.encode(s.raw, s.encoded);
+        return new String(s.encoded, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Creates a generator for one thread. SHA1PRNG keeps its state per instance and only reads the entropy source
+     * once for its seed, unlike the default NativePRNG whose instances all share one lock around the entropy source.
+     * @return {@link SecureRandom}
+     */
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance("SHA1PRNG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * Per thread generator state.
+     */
+    private static final class State {
+        private final SecureRandom random;
+        private byte[] raw = new byte[32];
+        private byte[] encoded = new byte[44];
+
+        State(SecureRandom random) {
+            this.random = random;
+        }
+
+        void resize(int lengthInBytes) {
+            raw = new byte[lengthInBytes];
+            encoded = new byte[4 * ((lengthInBytes + 2) / 3)];
+        }
+    }
+}
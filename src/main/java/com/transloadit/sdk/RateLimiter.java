@@ -0,0 +1,198 @@
+package com.transloadit.sdk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-wide rate limiter shared by all requests of a {@link Transloadit} instance.
+ * <p>
+ * Requests reserve a slot before they are sent. Slots are handed out by a token bucket whose rate follows an
+ * additive-increase / multiplicative-decrease scheme: every rate limited response halves the rate, every other
+ * response raises it by roughly one request per second and second, up to the configured maximum. Once the bucket is
+ * empty, reservations queue up behind each other, so callers wait for their turn instead of all retrying at once.
+ * </p>
+ * <p>
+ * A rate limited response, or any response carrying a "Retry-After" header, pauses all callers until the window
+ * provided by the server has passed. Without a configured maximum, the bucket is only engaged after the first rate
+ * limited response; its initial rate is half the request rate observed at that time. Once the rate has recovered to
+ * the observed rate, but at least to {@value #MIN_RECOVERY_RATE} requests per second, the bucket is disengaged again.
+ * </p>
+ * Instances are thread-safe.
+ */
+final class RateLimiter {
+    /**
+     * Lowest rate in requests per second the limiter backs off to.
+     */
+    static final double MIN_RATE = 1;
+    /**
+     * Lowest rate in requests per second at which the limiter is disengaged again without a configured maximum.
+     */
+    static final double MIN_RECOVERY_RATE = 10;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private double maxRate;
+    private double rate;
+    private double storedPermits;
+    private long nextFreeNanos;
+    private long pausedUntilNanos;
+    private long windowStartNanos;
+    private int windowCount;
+    private double observedRate;
+    private double recoveryRate;
+
+    /**
+     * Creates a new limiter.
+     * @param maxRate maximum number of requests per second, 0 if the rate should only be limited after the server
+     *                has signalled a rate limit
+     */
+    RateLimiter(double maxRate) {
+        this.maxRate = maxRate;
+        this.rate = maxRate;
+        this.storedPermits = maxRate;
+        long now = System.nanoTime();
+        this.nextFreeNanos = now;
+        this.pausedUntilNanos = now;
+        this.windowStartNanos = now;
+    }
+
+    /**
+     * Reserves a slot for one request.
+     * @return time in ms the caller has to wait before the request may be sent
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        observe(now);
+        long start = Math.max(now, pausedUntilNanos);
+        if (rate <= 0) {
+            return toMillis(start - now);
+        }
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        if (start > nextFreeNanos) {
+            double maxPermits = Math.max(1, rate);
+            storedPermits = Math.min(maxPermits, storedPermits + (double) (start - nextFreeNanos) / intervalNanos);
+            nextFreeNanos = start;
+        }
+        long slot = nextFreeNanos;
+        double spent = Math.min(1, storedPermits);
+        storedPermits -= spent;
+        nextFreeNanos += (long) ((1 - spent) * intervalNanos);
+        return toMillis(slot - now);
+    }
+
+    /**
+     * Reserves a slot for one request if it is available right away, e.g. for a hedge request which is only worth
+     * sending without delay.
+     * @return true if a slot has been reserved, false if the caller would have to wait and nothing has been reserved
+     */
+    synchronized boolean tryReserve() {
+        long now = System.nanoTime();
+        if (now - pausedUntilNanos < 0 || (rate > 0 && now - nextFreeNanos < 0)) {
+            return false;
+        }
+        reserve();
+        return true;
+    }
+
+    /**
+     * Records a response which has not been rate limited and raises the rate additively.
+     */
+    synchronized void onSuccess() {
+        if (rate > 0) {
+            rate += 1 / rate;
+            if (maxRate > 0) {
+                rate = Math.min(rate, maxRate);
+            } else if (rate >= recoveryRate) {
+                rate = 0;
+                storedPermits = 0;
+            }
+        }
+    }
+
+    /**
+     * Records a rate limited response: pauses all callers for the given window and halves the rate. Responses to
+     * requests which were already in flight when the pause started do not lower the rate any further.
+     * @param pauseMillis window in ms provided by the server
+     */
+    synchronized void onRateLimited(long pauseMillis) {
+        long now = System.nanoTime();
+        if (now >= pausedUntilNanos) {
+            double base = rate > 0 ? rate : Math.max(observedRate, windowRate(now));
+            if (rate <= 0) {
+                recoveryRate = Math.max(MIN_RECOVERY_RATE, base);
+            }
+            rate = Math.max(MIN_RATE, base / 2);
+            storedPermits = 0;
+        }
+        pause(now, pauseMillis);
+    }
+
+    /**
+     * Pauses all callers for the given window without changing the rate, e.g. for a "Retry-After" header of a
+     * response which did not signal a rate limit.
+     * @param pauseMillis window in ms provided by the server
+     */
+    synchronized void pause(long pauseMillis) {
+        pause(System.nanoTime(), pauseMillis);
+    }
+
+    /**
+     * Changes the maximum rate. A pause and a backoff in progress are kept: a lowered maximum caps the current rate,
+     * a raised one is reached gradually. Removing the maximum disengages the bucket right away unless the rate is
+     * still recovering, in which case it is disengaged once the rate has recovered to the former maximum.
+     * @param maxRate maximum number of requests per second, 0 if the rate should only be limited after the server
+     *                has signalled a rate limit
+     */
+    synchronized void setMaxRate(double maxRate) {
+        if (maxRate > 0) {
+            if (rate <= 0) {
+                rate = maxRate;
+                storedPermits = maxRate;
+            } else {
+                rate = Math.min(rate, maxRate);
+                storedPermits = Math.min(storedPermits, Math.max(1, rate));
+            }
+        } else if (this.maxRate > 0) {
+            if (rate >= this.maxRate) {
+                rate = 0;
+                storedPermits = 0;
+            } else {
+                recoveryRate = Math.max(MIN_RECOVERY_RATE, this.maxRate);
+            }
+        }
+        this.maxRate = maxRate;
+    }
+
+    /**
+     * Returns the current rate.
+     * @return requests per second, 0 if the rate is not limited
+     */
+    synchronized double getRate() {
+        return rate;
+    }
+
+    private void pause(long now, long pauseMillis) {
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, pauseMillis)));
+        nextFreeNanos = Math.max(nextFreeNanos, pausedUntilNanos);
+    }
+
+    /**
+     * Counts a reservation towards the observed request rate.
+     * @param now current time in ns
+     */
+    private void observe(long now) {
+        if (now - windowStartNanos >= WINDOW_NANOS) {
+            observedRate = windowRate(now);
+            windowStartNanos = now;
+            windowCount = 0;
+        }
+        windowCount++;
+    }
+
+    private double windowRate(long now) {
+        return windowCount * (double) WINDOW_NANOS / Math.max(WINDOW_NANOS, now - windowStartNanos);
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos <= 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos + 999999);
+    }
+}
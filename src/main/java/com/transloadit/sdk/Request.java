@@ -1,45 +1,50 @@
 package com.transloadit.sdk;
 
+import com.transloadit.sdk.exceptions.CircuitBreakerOpenException;
 import com.transloadit.sdk.exceptions.LocalOperationException;
 import com.transloadit.sdk.exceptions.RequestException;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import okhttp3.Response;
-import org.apache.commons.codec.binary.Hex;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
 import org.jetbrains.annotations.Nullable;
-import org.joda.time.Instant;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
+import org.json.JSONException;
 import org.json.JSONObject;
 
-import javax.crypto.KeyGenerator;
-import javax.crypto.Mac;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLConnection;
 import java.net.URLEncoder;
-import java.nio.charset.Charset;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 /**
  * Transloadit tailored Http Request class.
  */
 public class Request {
+    private static final NonceGenerator NONCE_GENERATOR = new NonceGenerator();
+    private static final long MAX_PEEKED_BODY_SIZE = 64 * 1024;
     private Transloadit transloadit;
-    private OkHttpClient httpClient = new OkHttpClient();
+    private OkHttpClient httpClient;
     private int retryAttemptsRateLimitLeft;
     protected int retryAttemptsRequestExceptionLeft;
     private ArrayList<String> qualifiedErrorsForRetry;
@@ -52,6 +57,7 @@ public class Request {
      */
     Request(Transloadit transloadit) {
         this.transloadit = transloadit;
+        this.httpClient = transloadit.getHttpClient();
         this.retryAttemptsRateLimitLeft = transloadit.getRetryAttemptsRateLimit();
         this.retryAttemptsRequestExceptionLeft = transloadit.getRetryAttemptsRequestException();
         this.qualifiedErrorsForRetry = transloadit.getQualifiedErrorsForRetry();
@@ -67,24 +73,28 @@ public class Request {
      * @throws RequestException
      * @throws LocalOperationException
      */
-    okhttp3.Response get(String url, Map<String, Object> params)
+    okhttp3.Response get(final String url, final Map<String, Object> params)
             throws RequestException, LocalOperationException {
-        String fullUrl = getFullUrl(url);
-        okhttp3.Request request = new okhttp3.Request.Builder()
-                .url(addUrlParams(fullUrl, toPayload(params)))
-                .addHeader("Transloadit-Client", this.version)
-                .build();
+        return get(url, params, Collections.<String, String>emptyMap());
+    }
 
-        try {
-            return httpClient.newCall(request).execute();
-        } catch (IOException e) {
-            if (qualifiedForRetry(e)) {
-                delayBeforeRetry();
-                return get(url, params);
-            } else {
-                throw new RequestException(e);
+    /**
+     * Makes http GET request with additional headers, e.g. for conditional requests.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @param headers headers to add to the request
+     * @return {@link okhttp3.Response}
+     * @throws RequestException
+     * @throws LocalOperationException
+     */
+    okhttp3.Response get(final String url, final Map<String, Object> params, final Map<String, String> headers)
+            throws RequestException, LocalOperationException {
+        return execute(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildGetRequest(url, params, headers);
             }
-        }
+        });
     }
 
     /**
@@ -109,37 +119,22 @@ public class Request {
      * @throws RequestException
      * @throws LocalOperationException
      */
-    okhttp3.Response post(String url, Map<String, Object> params,
-                          @Nullable Map<String, String> extraData,
-                          @Nullable Map<String, File> files, @Nullable Map<String, InputStream> fileStreams)
+    okhttp3.Response post(final String url, final Map<String, Object> params,
+                          @Nullable final Map<String, String> extraData,
+                          @Nullable final Map<String, File> files,
+                          @Nullable final Map<String, InputStream> fileStreams)
             throws RequestException, LocalOperationException {
+        return execute(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildPostRequest(url, params, extraData, files, fileStreams);
+            }
 
-        Map<String, String> payload = toPayload(params);
-        if (extraData != null) {
-            payload.putAll(extraData);
-        }
-
-        okhttp3.Request request = new okhttp3.Request.Builder().url(getFullUrl(url))
-                .post(getBody(payload, files, fileStreams))
-                .addHeader("Transloadit-Client", this.version)
-                .build();
-
-        try {
-            Response response = httpClient.newCall(request).execute();
-            // Intercept Rate Limit Errors
-                if (response.code() == 413 && retryAttemptsRateLimitLeft > 0) {
-                    return retryRateLimit(response, url, params, extraData, files, fileStreams);
-                }
-
-            return response;
-        } catch (IOException e) {
-            if (qualifiedForRetry(e)) {
-               delayBeforeRetry();
-                return post(url, params, extraData, files, fileStreams);
-            } else {
-                throw new RequestException(e);
+            @Override
+            public boolean isRetryable() {
+                return fileStreams == null || fileStreams.isEmpty();
             }
-        }
+        });
     }
 
     /**
@@ -164,24 +159,14 @@ public class Request {
      * @throws RequestException
      * @throws LocalOperationException
      */
-    okhttp3.Response delete(String url, Map<String, Object> params)
+    okhttp3.Response delete(final String url, final Map<String, Object> params)
             throws RequestException, LocalOperationException {
-        okhttp3.Request request = new okhttp3.Request.Builder()
-                .url(getFullUrl(url))
-                .delete(getBody(toPayload(params), null))
-                .addHeader("Transloadit-Client", this.version)
-                .build();
-
-        try {
-            return httpClient.newCall(request).execute();
-        } catch (IOException e) {
-            if (qualifiedForRetry(e)) {
-             delayBeforeRetry();
-                return delete(url, params);
-            } else {
-                throw new RequestException(e);
+        return execute(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildDeleteRequest(url, params);
             }
-        }
+        });
     }
 
     /**
@@ -193,24 +178,536 @@ public class Request {
      * @throws LocalOperationException
      * @return {@link okhttp3.Response}
      */
-    okhttp3.Response put(String url, Map<String, Object> data)
+    okhttp3.Response put(final String url, final Map<String, Object> data)
             throws RequestException, LocalOperationException {
+        return execute(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildPutRequest(url, data);
+            }
+        });
+    }
+
+    /**
+     * Makes an asynchronous http GET request on the dispatcher of the client's HTTP engine. No thread is blocked
+     * while the request is in flight.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @return {@link CompletableFuture} completed with the {@link okhttp3.Response}, or exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException}
+     */
+    CompletableFuture<okhttp3.Response> getAsync(final String url, final Map<String, Object> params) {
+        return getAsync(url, params, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * Makes an asynchronous http GET request with additional headers, e.g. for conditional requests.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @param headers headers to add to the request
+     * @return {@link CompletableFuture} completed with the {@link okhttp3.Response}, or exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException}
+     */
+    CompletableFuture<okhttp3.Response> getAsync(final String url, final Map<String, Object> params,
+                                                 final Map<String, String> headers) {
+        return enqueue(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildGetRequest(url, params, headers);
+            }
+        });
+    }
+
+    /**
+     * Makes an asynchronous http POST request on the dispatcher of the client's HTTP engine.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @param extraData data to send along with request body, outside of params field.
+     * @param files files to be uploaded along with the request.
+     * @param fileStreams filestreams to be uploaded along with the request.
+     * @return {@link CompletableFuture} completed with the {@link okhttp3.Response}, or exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException}
+     */
+    CompletableFuture<okhttp3.Response> postAsync(final String url, final Map<String, Object> params,
+                                                  @Nullable final Map<String, String> extraData,
+                                                  @Nullable final Map<String, File> files,
+                                                  @Nullable final Map<String, InputStream> fileStreams) {
+        return enqueue(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildPostRequest(url, params, extraData, files, fileStreams);
+            }
+
+            @Override
+            public boolean isRetryable() {
+                return fileStreams == null || fileStreams.isEmpty();
+            }
+        });
+    }
+
+    /**
+     * Makes an asynchronous http DELETE request on the dispatcher of the client's HTTP engine.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @return {@link CompletableFuture} completed with the {@link okhttp3.Response}, or exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException}
+     */
+    CompletableFuture<okhttp3.Response> deleteAsync(final String url, final Map<String, Object> params) {
+        return enqueue(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildDeleteRequest(url, params);
+            }
+        });
+    }
+
+    /**
+     * Makes an asynchronous http PUT request on the dispatcher of the client's HTTP engine.
+     * @param url url to make request to
+     * @param data data to add to params field
+     * @return {@link CompletableFuture} completed with the {@link okhttp3.Response}, or exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException}
+     */
+    CompletableFuture<okhttp3.Response> putAsync(final String url, final Map<String, Object> data) {
+        return enqueue(new RequestFactory() {
+            @Override
+            public okhttp3.Request newRequest() throws LocalOperationException {
+                return buildPutRequest(url, data);
+            }
+        });
+    }
 
-        okhttp3.Request request = new okhttp3.Request.Builder()
+    /**
+     * Builds a GET request, which carries the payload as url parameters.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @param headers headers to add to the request
+     * @return {@link okhttp3.Request}
+     * @throws LocalOperationException if the payload cannot be built
+     */
+    private okhttp3.Request buildGetRequest(String url, Map<String, Object> params, Map<String, String> headers)
+            throws LocalOperationException {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder()
+                .url(addUrlParams(getFullUrl(url), toPayload(params)))
+                .addHeader("Transloadit-Client", this.version)
+                .tag(CallTimingListener.Slot.class, new CallTimingListener.Slot());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds a POST request, which carries the payload and files as multipart body.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @param extraData data to send along with request body, outside of params field.
+     * @param files files to be uploaded along with the request.
+     * @param fileStreams filestreams to be uploaded along with the request.
+     * @return {@link okhttp3.Request}
+     * @throws LocalOperationException if the payload or body cannot be built
+     */
+    private okhttp3.Request buildPostRequest(String url, Map<String, Object> params,
+                                             @Nullable Map<String, String> extraData,
+                                             @Nullable Map<String, File> files,
+                                             @Nullable Map<String, InputStream> fileStreams)
+            throws LocalOperationException {
+        Map<String, String> payload = toPayload(params);
+        if (extraData != null) {
+            payload.putAll(extraData);
+        }
+
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(getFullUrl(url))
+                .addHeader("Transloadit-Client", this.version)
+                .tag(CallTimingListener.Slot.class, new CallTimingListener.Slot());
+        boolean compressible = (files == null || files.isEmpty()) && (fileStreams == null || fileStreams.isEmpty());
+        return setBody(builder, "POST", getBody(payload, files, fileStreams), compressible).build();
+    }
+
+    /**
+     * Builds a DELETE request, which carries the payload as multipart body.
+     * @param url url to make request to
+     * @param params data to add to params field
+     * @return {@link okhttp3.Request}
+     * @throws LocalOperationException if the payload cannot be built
+     */
+    private okhttp3.Request buildDeleteRequest(String url, Map<String, Object> params)
+            throws LocalOperationException {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder()
+                .url(getFullUrl(url))
+                .addHeader("Transloadit-Client", this.version)
+                .tag(CallTimingListener.Slot.class, new CallTimingListener.Slot());
+        return setBody(builder, "DELETE", getBody(toPayload(params), null), true).build();
+    }
+
+    /**
+     * Builds a PUT request, which carries the payload as multipart body.
+     * @param url url to make request to
+     * @param data data to add to params field
+     * @return {@link okhttp3.Request}
+     * @throws LocalOperationException if the payload cannot be built
+     */
+    private okhttp3.Request buildPutRequest(String url, Map<String, Object> data) throws LocalOperationException {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder()
                 .url(getFullUrl(url))
-                .put(getBody(toPayload(data), null))
                 .addHeader("Transloadit-Client", this.version)
-                .build();
+                .tag(CallTimingListener.Slot.class, new CallTimingListener.Slot());
+        return setBody(builder, "PUT", getBody(toPayload(data), null), true).build();
+    }
+
+    /**
+     * Sets the method and body of a request. If request body compression is enabled, a compressible body whose
+     * length reaches the threshold is gzip-compressed and sent with a "Content-Encoding: gzip" header. Bodies carrying
+     * files or streams are never compressed, as they are not buffered and media files rarely shrink.
+     * @param builder builder of the request
+     * @param method HTTP method
+     * @param body body of the request
+     * @param compressible true if the body only consists of form fields
+     * @return the builder
+     * @throws LocalOperationException if the body cannot be compressed
+     */
+    private okhttp3.Request.Builder setBody(okhttp3.Request.Builder builder, String method, RequestBody body,
+                                           boolean compressible) throws LocalOperationException {
+        int threshold = transloadit.getRequestCompressionThreshold();
+        if (compressible && threshold > 0) {
+            try {
+                if (body.contentLength() >= threshold) {
+                    builder.header("Content-Encoding", "gzip");
+                    body = gzip(body);
+                }
+            } catch (IOException e) {
+                throw new LocalOperationException(e);
+            }
+        }
+        return builder.method(method, body);
+    }
+
+    /**
+     * Returns a buffered, gzip-compressed copy of a body with the same content type.
+     * @param body body to compress
+     * @return compressed {@link RequestBody}
+     * @throws IOException if the body cannot be written
+     */
+    static RequestBody gzip(RequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        BufferedSink sink = Okio.buffer(new GzipSink(buffer));
+        body.writeTo(sink);
+        sink.close();
+        return RequestBody.create(buffer.readByteString(), body.contentType());
+    }
+
+    /**
+     * Builds the {@link okhttp3.Request} of a single attempt. Every attempt gets a freshly built request, so each
+     * one carries its own nonce and expiry date.
+     */
+    interface RequestFactory {
+        /**
+         * Builds the request of the next attempt.
+         * @return {@link okhttp3.Request}
+         * @throws LocalOperationException if the payload cannot be built
+         */
+        okhttp3.Request newRequest() throws LocalOperationException;
 
+        /**
+         * Returns whether failed attempts may be retried. Requests uploading {@link InputStream InputStreams} are
+         * not retried, as the first attempt has consumed the streams and a retry would upload truncated files.
+         * @return true if failed attempts may be retried
+         */
+        default boolean isRetryable() {
+            return true;
+        }
+    }
+
+    /**
+     * Retry state, trace span and flight recorder event of a single request.
+     */
+    private static final class RetryState {
+        @Nullable
+        private final RetryPolicy policy;
+        private final RetryBudget budget;
+        private final Span span;
+        @Nullable
+        private final Object jfrEvent;
+        private int attempt = 1;
+        private long previousDelay;
+        private int retries;
+        private int statusCode = -1;
+        @Nullable
+        private String method;
+        @Nullable
+        private String endpoint;
+
+        RetryState(@Nullable RetryPolicy policy, RetryBudget budget, Span span) {
+            this.policy = policy;
+            this.budget = budget;
+            this.span = span;
+            this.jfrEvent = JfrEvents.beginRequest();
+        }
+
+        /**
+         * Ends the span and commits the flight recorder event of the request.
+         */
+        void end() {
+            span.end();
+            JfrEvents.endRequest(jfrEvent, method, endpoint, statusCode, retries);
+        }
+    }
+
+    /**
+     * Starts the retry state of a new request, records the request at the client's {@link RetryBudget} and starts its
+     * span as child of the span active on the calling thread.
+     * @return {@link RetryState}
+     */
+    private RetryState newRetryState() {
+        Span span = transloadit.getTracer().startSpan("transloadit.request", TraceContext.current());
+        RetryState state = new RetryState(transloadit.getRetryPolicy(), transloadit.getRetryBudget(), span);
+        if (state.policy != null) {
+            state.budget.deposit();
+        }
+        return state;
+    }
+
+    /**
+     * Executes a request on the calling thread. Before every attempt a slot is reserved at the client's
+     * {@link RateLimiter}, waiting for it if necessary, and permission is asked from the circuit breaker of the
+     * request's endpoint. Failed attempts are retried with a freshly built request, see
+     * {@link #getRetryDelay(RetryState, String, Response, IOException)}, unless
+     * {@link RequestFactory#isRetryable()} forbids it.
+     * @param factory builds the request of every attempt
+     * @return {@link okhttp3.Response}
+     * @throws RequestException if the request fails
+     * @throws CircuitBreakerOpenException if the circuit breaker of the request's endpoint is open
+     * @throws LocalOperationException if the request cannot be built or the thread is interrupted while waiting
+     */
+    private okhttp3.Response execute(RequestFactory factory) throws RequestException, LocalOperationException {
+        RetryState state = newRetryState();
         try {
-            return httpClient.newCall(request).execute();
-        } catch (IOException e) {
-            if (qualifiedForRetry(e)) {
-                delayBeforeRetry();
-                return put(url, data);
-            } else {
-                throw new RequestException(e);
+            return executeAttempts(factory, state);
+        } catch (RequestException | LocalOperationException e) {
+            state.span.recordException(e);
+            throw e;
+        } finally {
+            state.end();
+        }
+    }
+
+    /**
+     * Sends the attempts of a request on the calling thread until one is not retried.
+     * @param factory builds the request of every attempt
+     * @param state retry state of the request
+     * @return {@link okhttp3.Response}
+     * @throws RequestException if the request fails
+     * @throws LocalOperationException if the request cannot be built or the thread is interrupted while waiting
+     */
+    private okhttp3.Response executeAttempts(RequestFactory factory, RetryState state)
+            throws RequestException, LocalOperationException {
+        while (true) {
+            okhttp3.Request request = factory.newRequest();
+            // Asked before a slot is reserved, so requests failing fast do not use up the rate.
+            CircuitBreaker breaker = acquireCircuitBreaker(request);
+            try {
+                if (awaitRateLimit()) {
+                    // Built again, so the signature of the request is not older than the wait.
+                    request = factory.newRequest();
+                }
+            } catch (LocalOperationException e) {
+                releaseCircuitBreaker(breaker);
+                throw e;
+            }
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = newCall(request, factory).execute();
+            } catch (IOException e) {
+                onCallFinished(state, request, breaker, -1, start);
+                long delay = factory.isRetryable() ? getRetryDelay(state, request.method(), null, e) : -1;
+                if (delay < 0) {
+                    throw new RequestException(e);
+                }
+                onRetry(state, request, delay);
+                sleep(delay);
+                continue;
+            }
+            onCallFinished(state, request, breaker, response.code(), start);
+            reportToRateLimiter(response);
+            long delay = factory.isRetryable() ? getRetryDelay(state, request.method(), response, null) : -1;
+            if (delay < 0) {
+                return response;
+            }
+            response.close();
+            onRetry(state, request, delay);
+            sleep(delay);
+        }
+    }
+
+    /**
+     * Enqueues a request on the dispatcher of the client's HTTP engine. Retry attempts and attempts waiting for the
+     * client's {@link RateLimiter} are scheduled on the client's scheduler instead of letting a thread sleep.
+     * Cancelling the returned future cancels the call in flight.
+     * @param factory builds the request of every attempt
+     * @return {@link CompletableFuture} completed with the {@link okhttp3.Response}
+     */
+    private CompletableFuture<okhttp3.Response> enqueue(RequestFactory factory) {
+        final CompletableFuture<okhttp3.Response> future = new CompletableFuture<okhttp3.Response>();
+        final AtomicReference<Call> currentCall = new AtomicReference<Call>();
+        final RetryState state = newRetryState();
+        future.whenComplete(new BiConsumer<okhttp3.Response, Throwable>() {
+            @Override
+            public void accept(okhttp3.Response response, Throwable throwable) {
+                Call call = currentCall.get();
+                if (future.isCancelled() && call != null) {
+                    call.cancel();
+                }
+                if (throwable != null) {
+                    state.span.recordException(throwable);
+                }
+                state.end();
+            }
+        });
+        enqueueAttempt(factory, state, future, currentCall);
+        return future;
+    }
+
+    /**
+     * Asks the circuit breaker for permission to send a single attempt of an asynchronous request, reserves a slot for
+     * it at the client's {@link RateLimiter} and sends the attempt once the slot is due.
+     * @param factory builds the request of the attempt
+     * @param state retry state of the request
+     * @param future future to complete once the request is done
+     * @param currentCall holds the call in flight, so it can be cancelled
+     */
+    private void enqueueAttempt(final RequestFactory factory, final RetryState state,
+                                final CompletableFuture<okhttp3.Response> future,
+                                final AtomicReference<Call> currentCall) {
+        if (future.isDone()) {
+            return;
+        }
+        final okhttp3.Request request;
+        final CircuitBreaker breaker;
+        try {
+            request = factory.newRequest();
+            // Asked before a slot is reserved, so requests failing fast do not use up the rate.
+            breaker = acquireCircuitBreaker(request);
+        } catch (LocalOperationException | CircuitBreakerOpenException e) {
+            future.completeExceptionally(e);
+            return;
+        }
+        long wait = transloadit.getRateLimiter().reserve();
+        if (wait <= 0) {
+            sendAttempt(factory, state, future, currentCall, request, breaker);
+            return;
+        }
+
+        transloadit.getMetricsRecorder().onRateLimitWait(wait);
+        boolean scheduled = schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (future.isDone()) {
+                    releaseCircuitBreaker(breaker);
+                    return;
+                }
+                okhttp3.Request delayed;
+                try {
+                    // Built again, so the signature of the request is not older than the wait.
+                    delayed = factory.newRequest();
+                } catch (LocalOperationException e) {
+                    releaseCircuitBreaker(breaker);
+                    future.completeExceptionally(e);
+                    return;
+                }
+                sendAttempt(factory, state, future, currentCall, delayed, breaker);
             }
+        }, wait, future);
+        if (!scheduled) {
+            releaseCircuitBreaker(breaker);
+        }
+    }
+
+    /**
+     * Enqueues a single attempt of an asynchronous request.
+     * @param factory builds the request of the next attempt
+     * @param state retry state of the request
+     * @param future future to complete once the request is done
+     * @param currentCall holds the call in flight, so it can be cancelled
+     * @param request request of the attempt
+     * @param breaker circuit breaker which has permitted the attempt, or {@code null} if circuit breakers are disabled
+     */
+    private void sendAttempt(final RequestFactory factory, final RetryState state,
+                             final CompletableFuture<okhttp3.Response> future,
+                             final AtomicReference<Call> currentCall, final okhttp3.Request request,
+                             @Nullable final CircuitBreaker breaker) {
+        if (future.isDone()) {
+            releaseCircuitBreaker(breaker);
+            return;
+        }
+        final long start = System.nanoTime();
+
+        final Runnable retry = new Runnable() {
+            @Override
+            public void run() {
+                enqueueAttempt(factory, state, future, currentCall);
+            }
+        };
+
+        Call call = newCall(request, factory);
+        currentCall.set(call);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (call.isCanceled()) {
+                    releaseCircuitBreaker(breaker);
+                } else {
+                    onCallFinished(state, request, breaker, -1, start);
+                }
+                long delay = call.isCanceled() || !factory.isRetryable()
+                        ? -1 : getRetryDelay(state, request.method(), null, e);
+                if (delay < 0) {
+                    future.completeExceptionally(new RequestException(e));
+                } else {
+                    onRetry(state, request, delay);
+                    schedule(retry, delay, future);
+                }
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                onCallFinished(state, request, breaker, response.code(), start);
+                try {
+                    reportToRateLimiter(response);
+                } catch (RequestException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                long delay = factory.isRetryable() ? getRetryDelay(state, request.method(), response, null) : -1;
+                if (delay < 0) {
+                    future.complete(response);
+                    return;
+                }
+                response.close();
+                onRetry(state, request, delay);
+                if (delay > 0) {
+                    schedule(retry, delay, future);
+                } else {
+                    retry.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Schedules a retry attempt on the client's scheduler.
+     * @param retry the attempt to run
+     * @param delay delay in ms
+     * @param future future of the request, which is completed exceptionally if the attempt cannot be scheduled
+     * @return {@code true} if the attempt has been scheduled
+     */
+    private boolean schedule(Runnable retry, long delay, CompletableFuture<okhttp3.Response> future) {
+        try {
+            transloadit.getScheduler().schedule(retry, delay, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new LocalOperationException(e));
+            return false;
         }
     }
 
@@ -244,7 +741,9 @@ public class Request {
     }
 
     /**
-     * Builds okhttp3 compatible request body with the data passed.
+     * Builds okhttp3 compatible request body with the data passed. InputStreams are streamed to the connection
+     * while the request is sent; if the length of a stream is unknown, the body is sent with chunked transfer
+     * encoding.
      *
      * @param data data to add to request body
      * @param files files to upload
@@ -271,17 +770,13 @@ public class Request {
 
         if (fileStreams != null) {
             for (Map.Entry<String, InputStream> entry : fileStreams.entrySet()) {
-                byte[] bytes;
-                InputStream stream = entry.getValue();
+                RequestBody body;
                 try {
-                    bytes = new byte[stream.available()];
-                    stream.read(bytes);
-
+                    body = new InputStreamRequestBody(MediaType.parse("application/octet-stream"), entry.getValue());
                 } catch (IOException e) {
                     throw new LocalOperationException(e);
                 }
-                builder.addFormDataPart(entry.getKey(), null,
-                        RequestBody.create(MediaType.parse("application/octet-stream"), bytes));
+                builder.addFormDataPart(entry.getKey(), null, body);
             }
         }
 
@@ -353,12 +848,7 @@ public class Request {
         Map<String, String> authData = new LinkedHashMap<String, String>();
         authData.put("key", transloadit.key);
 
-        Instant expiryTime = Instant.now().plus(transloadit.duration * 1000);
-        DateTimeFormatter formatter = DateTimeFormat
-                .forPattern("Y/MM/dd HH:mm:ss+00:00")
-                .withZoneUTC();
-
-        authData.put("expires", formatter.print(expiryTime));
+        authData.put("expires", transloadit.getExpiryClock().expiresIn(transloadit.duration));
 
         return authData;
     }
@@ -369,70 +859,213 @@ public class Request {
      * @return signature generate based on the message passed and the transloadit secret.
      */
     private String getSignature(String message) throws LocalOperationException {
-        if (transloadit.secret == null) {
-            throw new LocalOperationException("Cannot generate signature without a secret or signature provider.");
-        }
-        byte[] kSecret = transloadit.secret.getBytes(Charset.forName("UTF-8"));
-        byte[] rawHmac = hmacSHA384(kSecret, message);
-        byte[] hexBytes = new Hex().encode(rawHmac);
-        String signature = "sha384:" + new String(hexBytes, Charset.forName("UTF-8"));
-        return signature;
+        return transloadit.getRequestSigner().sign(message);
     }
 
-    private byte[] hmacSHA384(byte[] key, String data) throws LocalOperationException {
-        final String algorithm = "HmacSHA384";
-        Mac mac;
+    /**
+     * Generates a strong cryptographic nonce in order to make the request's signature unique.
+     * The nonce consists of {@code lengthInBits / 8} random bytes, formatted like the Base64 encoded key of the given
+     * cipher that was used in former versions.
+     * @param cipher Algorithm the nonce format is derived from; only kept for compatibility
+     * @param lengthInBits Length of the generated key in bits
+     * @return A Key formatted as String
+     */
+    protected String getNonce(String cipher, int lengthInBits) {
+        return NONCE_GENERATOR.next(lengthInBits / 8);
+    }
 
+    /**
+     * Waits for a slot at the client's {@link RateLimiter}.
+     * @return {@code true} if the slot was not due yet and the thread has waited for it
+     * @throws LocalOperationException if the thread is interrupted while waiting
+     */
+    private boolean awaitRateLimit() throws LocalOperationException {
+        long timeToWait = transloadit.getRateLimiter().reserve();
+        if (timeToWait <= 0) {
+            return false;
+        }
+        transloadit.getMetricsRecorder().onRateLimitWait(timeToWait);
         try {
-            mac = Mac.getInstance(algorithm);
-            mac.init(new SecretKeySpec(key, algorithm));
-        } catch (NoSuchAlgorithmException e) {
-            throw new LocalOperationException(e);
-        } catch (InvalidKeyException e) {
+            Thread.sleep(timeToWait);
+        } catch (InterruptedException e) {
             throw new LocalOperationException(e);
         }
-        return mac.doFinal(data.getBytes(Charset.forName("UTF-8")));
+        return true;
     }
 
     /**
-     * Generates a strong cryptographic nonce in order to make the request's signature unique.
-     * @param cipher Algorithm to derive key with
-     * @param lengthInBits Length of the generated key in bits
-     * @return A Key formatted as String
+     * Prepares the call of an attempt, which is hedged if the client has hedging enabled.
+     * @param request request of the attempt
+     * @param factory builds the hedge request of the attempt
+     * @return {@link Call}
      */
-    protected String getNonce(String cipher, int lengthInBits) {
-        KeyGenerator keyGenerator = null;
-        try {
-            keyGenerator = KeyGenerator.getInstance(cipher);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+    private Call newCall(okhttp3.Request request, RequestFactory factory) {
+        RequestHedger hedger = transloadit.getRequestHedger();
+        return hedger == null ? httpClient.newCall(request) : hedger.newCall(httpClient, request, factory);
+    }
+
+    /**
+     * Asks the circuit breaker of the request's host and endpoint class for permission to send the request.
+     * @param request request of an attempt
+     * @return the {@link CircuitBreaker} to report the outcome to, or {@code null} if circuit breakers are disabled
+     * @throws CircuitBreakerOpenException if the circuit breaker is open
+     */
+    @Nullable
+    private CircuitBreaker acquireCircuitBreaker(okhttp3.Request request) throws CircuitBreakerOpenException {
+        CircuitBreaker breaker = transloadit.getCircuitBreaker(request.url().host(), request.url().port(),
+                CircuitBreaker.getEndpointClass(request.url().encodedPath()));
+        if (breaker != null) {
+            breaker.acquire();
         }
-        keyGenerator.init(lengthInBits);
-         SecretKey secKey = keyGenerator.generateKey();
-         String encodedKey = Base64.getEncoder().encodeToString(secKey.getEncoded());
-        return encodedKey;
+        return breaker;
     }
 
     /**
-     * Helper method, which performs a retryRateLimit action if a POST request has hit the servers rate limit.
-     * All parameters of the failed POST request should be provided to this method.
-     * @param response response to retryRateLimit
-     * @param url url to make request to
-     * @param params data to add to params field
-     * @param extraData data to send along with request body, outside of params field.
-     * @param files files to be uploaded along with the request.
-     * @param fileStreams filestreams to be uploaded along with the request.
-     * @return {@link okhttp3.Response}
+     * Hands the permission of an attempt which has not been sent back to its circuit breaker.
+     * @param breaker circuit breaker of the attempt, or {@code null} if circuit breakers are disabled
      */
-    private okhttp3.Response retryRateLimit(Response response, String url, Map<String, Object> params,
-                                            @Nullable Map<String, String> extraData,
-                                            @Nullable Map<String, File> files,
-                                            @Nullable Map<String, InputStream> fileStreams)
-            throws IOException, LocalOperationException, RequestException {
-        retryAttemptsRateLimitLeft--;
+    private static void releaseCircuitBreaker(@Nullable CircuitBreaker breaker) {
+        if (breaker != null) {
+            breaker.release();
+        }
+    }
+
+    /**
+     * Reports the outcome of an attempt to its circuit breaker, the client's {@link MetricsRecorder} and the span and
+     * flight recorder event of the request. Exceptions and server errors count as failures.
+     * @param state retry state of the request
+     * @param request request of the attempt
+     * @param breaker circuit breaker of the attempt, or {@code null} if circuit breakers are disabled
+     * @param statusCode status code of the response, or -1 if the attempt has thrown
+     * @param startNanos start time of the attempt in ns
+     */
+    private void onCallFinished(RetryState state, okhttp3.Request request, @Nullable CircuitBreaker breaker,
+                                int statusCode, long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        if (breaker != null) {
+            breaker.onResult(statusCode < 0 || statusCode >= 500, duration);
+        }
+        String endpoint = CircuitBreaker.getEndpointClass(request.url().encodedPath());
+        transloadit.getMetricsRecorder().onRequest(request.method(), endpoint, statusCode, duration);
+        state.span.setAttribute("http.request.method", request.method());
+        state.span.setAttribute("url.path", request.url().encodedPath());
+        state.span.setAttribute("transloadit.endpoint", endpoint);
+        state.method = request.method();
+        state.endpoint = endpoint;
+        state.statusCode = statusCode;
+        if (statusCode >= 0) {
+            state.span.setAttribute("http.response.status_code", statusCode);
+        }
+    }
+
+    /**
+     * Reports a retry of an attempt to the client's {@link MetricsRecorder} and the span and flight recorder event of
+     * the request.
+     * @param state retry state of the request
+     * @param request request of the failed attempt
+     * @param delay time in ms waited before the next attempt
+     */
+    private void onRetry(RetryState state, okhttp3.Request request, long delay) {
+        state.span.addEvent("retry");
+        state.retries++;
+        transloadit.getMetricsRecorder().onRetry(request.method(),
+                CircuitBreaker.getEndpointClass(request.url().encodedPath()), delay);
+    }
+
+    /**
+     * Waits before a retry attempt.
+     * @param delay time to wait in ms
+     * @throws LocalOperationException if the thread is interrupted while waiting
+     */
+    private void sleep(long delay) throws LocalOperationException {
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                throw new LocalOperationException(e);
+            }
+        }
+    }
+
+    /**
+     * Reports a response to the client's {@link RateLimiter}. A response signalling "RATE_LIMIT_REACHED" lowers the
+     * rate and holds back all requests of the client for the window the server asks for, so a retry of the request
+     * does not need to wait on its own. The response is closed if its body cannot be read.
+     * @param response response of an attempt
+     * @throws RequestException if the body of a rate limited response cannot be read
+     */
+    private void reportToRateLimiter(Response response) throws RequestException {
+        RateLimiter rateLimiter = transloadit.getRateLimiter();
+        long retryAfter = getRetryAfter(response);
+        if (response.code() == 413) {
+            try {
+                rateLimiter.onRateLimited(retryAfter >= 0 ? retryAfter : getRateLimitDelay(response));
+            } catch (IOException e) {
+                response.close();
+                throw new RequestException(e);
+            }
+        } else if (retryAfter >= 0) {
+            rateLimiter.pause(retryAfter);
+        } else {
+            rateLimiter.onSuccess();
+        }
+    }
+
+    /**
+     * Decides whether a failed attempt is retried. With a {@link RetryPolicy} set on the client, the policy decides
+     * about every unsuccessful response and exception, as long as the client's {@link RetryBudget} allows another
+     * retry. Otherwise exceptions qualified by the client's retry settings are retried after the retry delay, and
+     * responses signalling "RATE_LIMIT_REACHED" as often as configured.
+     * @param state retry state of the request
+     * @param method HTTP method of the request
+     * @param response response of the attempt, or {@code null} if it has failed with an exception
+     * @param exception exception the attempt has failed with, or {@code null} if a response has been received
+     * @return time in ms to wait before the next attempt, or -1 if the request is not retried
+     */
+    private long getRetryDelay(RetryState state, String method, @Nullable Response response,
+                               @Nullable IOException exception) {
+        if (state.policy == null) {
+            if (exception != null) {
+                return qualifiedForRetry(exception) ? getRetryDelayMillis() : -1;
+            }
+            if (response.code() == 413 && retryAttemptsRateLimitLeft > 0) {
+                retryAttemptsRateLimitLeft--;
+                return 0;
+            }
+            return -1;
+        }
+
+        if (response != null && response.isSuccessful()) {
+            return -1;
+        }
+        int statusCode = response == null ? -1 : response.code();
+        long delay = state.policy.getRetryDelay(new RetryAttempt(method, state.attempt, state.previousDelay,
+                statusCode, exception));
+        if (delay < 0 || !state.budget.tryWithdraw()) {
+            return -1;
+        }
+        state.attempt++;
+        state.previousDelay = delay;
+        return delay;
+    }
+
+    /**
+     * Determines how long to wait before retrying a request that has hit the servers rate limit. The server provided
+     * "retryIn" value plus a random value from 0 - 1000 ms is used if available, otherwise the default server
+     * cooldown of 60 seconds. The body is read without consuming it, so the response can still be handed out.
+     * @param response response with status code 413
+     * @return Time in ms to wait before the next attempt
+     * @throws IOException if the response body cannot be read
+     */
+    private long getRateLimitDelay(Response response) throws IOException {
         long timeToWait = 60000; // default server cooldown
 
-        JSONObject json = new JSONObject(response.body().string());
+        JSONObject json;
+        try {
+            json = new JSONObject(response.peekBody(MAX_PEEKED_BODY_SIZE).string());
+        } catch (JSONException e) {
+            return timeToWait;
+        }
 
         // Use server provided retryRateLimit time if available
         if (json.has("info") && json.getJSONObject("info").has("retryIn")) {
@@ -442,12 +1075,25 @@ public class Request {
                 timeToWait = Long.parseLong(retryIn) * 1000 + randInt;
             }
         }
+        return timeToWait;
+    }
+
+    /**
+     * Reads the "Retry-After" header of a response, given either in seconds or as HTTP date.
+     * @param response response of an attempt
+     * @return Time in ms to wait, or -1 if the response has no valid "Retry-After" header
+     */
+    private static long getRetryAfter(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return -1;
+        }
         try {
-            Thread.sleep(timeToWait);
-        } catch (InterruptedException e) {
-            throw new LocalOperationException(e);
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return date == null ? -1 : Math.max(0, date.getTime() - System.currentTimeMillis());
         }
-        return this.post(url, params, extraData, files, fileStreams);
     }
 
     /**
@@ -476,7 +1122,7 @@ public class Request {
      * @throws LocalOperationException if something went wrong whilst the Thread slept.
      */
     protected int delayBeforeRetry() throws LocalOperationException {
-        int timeToWait = new Random().nextInt(1000) + retryDelay;
+        int timeToWait = getRetryDelayMillis();
         try {
             Thread.sleep(timeToWait);
         } catch (InterruptedException e) {
@@ -484,4 +1130,12 @@ public class Request {
         }
         return timeToWait;
     }
+
+    /**
+     * Returns the length of the defined retry delay plus a random value from 0 - 1000 ms.
+     * @return Time in ms to wait before the next retry attempt
+     */
+    private int getRetryDelayMillis() {
+        return new Random().nextInt(1000) + retryDelay;
+    }
 }
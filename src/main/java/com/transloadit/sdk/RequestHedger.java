@@ -0,0 +1,509 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.CircuitBreakerOpenException;
+import com.transloadit.sdk.exceptions.LocalOperationException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okio.Timeout;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedges GET requests to cut their tail latency: if a request has not been answered after a delay, derived from a
+ * percentile of the recently observed latencies, the request is built and signed a second time, with its own nonce,
+ * and sent on a separate connection pool. Whichever answers first with a successful response is used, the other one
+ * is cancelled. An error response of one request is only used once the other one has failed as well.
+ * <p>
+ * Only GET requests are hedged, as they are idempotent. No request is hedged before {@value #MIN_SAMPLES} latencies
+ * have been observed, and the delay is never shorter than {@value #MIN_DELAY_MILLIS} ms. Hedge requests are extra
+ * load, so they are only sent if the client's {@link RateLimiter} has a slot available right away and the circuit
+ * breaker of the endpoint permits them.
+ * </p>
+ * Instances are thread-safe.
+ */
+final class RequestHedger {
+    /**
+     * Number of recent latencies the hedge delay is computed from.
+     */
+    static final int SAMPLE_SIZE = 128;
+    /**
+     * Number of latencies which have to be observed before requests are hedged.
+     */
+    static final int MIN_SAMPLES = 20;
+    /**
+     * Shortest hedge delay in ms.
+     */
+    static final long MIN_DELAY_MILLIS = 10;
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final Transloadit transloadit;
+    private final ScheduledExecutorService scheduler;
+    private volatile double percentile;
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private int position;
+    private volatile long delayMillis = -1;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private OkHttpClient primaryClient;
+    private OkHttpClient hedgeClient;
+
+    /**
+     * Creates a new hedger.
+     * @param transloadit client providing the scheduler to time hedge requests, its rate limiter and circuit breakers
+     * @param percentile percentile of the observed latencies after which a request is hedged, e.g. 95
+     */
+    RequestHedger(Transloadit transloadit, double percentile) {
+        this.transloadit = transloadit;
+        this.scheduler = transloadit.getScheduler();
+        this.percentile = percentile;
+    }
+
+    /**
+     * Prepares a call, which is hedged if it is a GET request.
+     * @param client client of the original request
+     * @param request request to send
+     * @param factory builds the hedge request, so it carries its own nonce, signature and timing slot
+     * @return {@link Call}
+     */
+    Call newCall(OkHttpClient client, okhttp3.Request request, Request.RequestFactory factory) {
+        if (!"GET".equals(request.method())) {
+            return client.newCall(request);
+        }
+        return new HedgedCall(client, request, factory);
+    }
+
+    /**
+     * Sets the percentile of the observed latencies after which a request is hedged.
+     * @param percentile percentile, e.g. 95
+     */
+    synchronized void setPercentile(double percentile) {
+        this.percentile = percentile;
+        recomputeDelay();
+    }
+
+    /**
+     * Returns the current counters.
+     * @return {@link HedgeStatistics}
+     */
+    HedgeStatistics getStatistics() {
+        return new HedgeStatistics(requests.get(), hedges.get(), hedgeWins.get(), delayMillis);
+    }
+
+    /**
+     * Records the latency of an answered call.
+     * @param latencyNanos time from sending the original request until the response headers of the original or the
+     *                     hedge request have arrived
+     */
+    synchronized void recordLatency(long latencyNanos) {
+        samples[position] = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        position = (position + 1) % SAMPLE_SIZE;
+        sampleCount++;
+        if (sampleCount >= MIN_SAMPLES && sampleCount % RECOMPUTE_INTERVAL == MIN_SAMPLES % RECOMPUTE_INTERVAL) {
+            recomputeDelay();
+        }
+    }
+
+    private void recomputeDelay() {
+        int count = Math.min(sampleCount, SAMPLE_SIZE);
+        if (count < MIN_SAMPLES) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.ceil(percentile / 100 * count) - 1);
+        delayMillis = Math.max(MIN_DELAY_MILLIS, sorted[Math.max(0, index)]);
+    }
+
+    /**
+     * Closes the idle connections of the hedge requests, e.g. after the client's connection settings have changed.
+     */
+    synchronized void evictConnections() {
+        if (hedgeClient != null) {
+            hedgeClient.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Shuts down the dispatcher threads of the hedge requests and closes their idle connections, once the client is
+     * closed.
+     */
+    synchronized void close() {
+        if (hedgeClient != null) {
+            hedgeClient.dispatcher().executorService().shutdown();
+            hedgeClient.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Returns a client which shares the settings of the original client, but not its connections, so a hedge
+     * request does not wait behind the slow original request. Its connection pool is configured like the one of
+     * the original client.
+     * @param client client of the original request
+     * @return {@link OkHttpClient}
+     */
+    private synchronized OkHttpClient getHedgeClient(OkHttpClient client) {
+        if (client != primaryClient) {
+            evictConnections();
+            Dispatcher dispatcher = new Dispatcher(client.dispatcher().executorService());
+            dispatcher.setMaxRequests(client.dispatcher().getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(client.dispatcher().getMaxRequestsPerHost());
+            hedgeClient = client.newBuilder()
+                    .connectionPool(new ConnectionPool(transloadit.getMaxIdleConnections(),
+                            transloadit.getKeepAliveDuration(), TimeUnit.MILLISECONDS))
+                    .dispatcher(dispatcher)
+                    .build();
+            primaryClient = client;
+        }
+        return hedgeClient;
+    }
+
+    /**
+     * {@link Call} sending the original request and, if it is not answered in time, a hedge request.
+     */
+    private final class HedgedCall implements Call {
+        private final OkHttpClient client;
+        private final okhttp3.Request request;
+        private final Request.RequestFactory factory;
+        private boolean executed;
+        private volatile boolean canceled;
+        private boolean done;
+        private int pending;
+        private Call original;
+        private Call hedge;
+        private ScheduledFuture<?> hedgeTask;
+        private Response errorResponse;
+        private long startNanos;
+
+        HedgedCall(OkHttpClient client, okhttp3.Request request, Request.RequestFactory factory) {
+            this.client = client;
+            this.request = request;
+            this.factory = factory;
+        }
+
+        @Override
+        public okhttp3.Request request() {
+            return request;
+        }
+
+        /**
+         * Sends the original request on the calling thread, like a plain {@link Call#execute()}, so it is not queued
+         * behind the dispatcher's limits. Only the hedge request is sent through the scheduler and the dispatcher;
+         * if it wins, the original request is cancelled.
+         * @return the response
+         * @throws IOException if both requests have failed or the thread is interrupted
+         */
+        @Override
+        public Response execute() throws IOException {
+            BlockingCallback callback = new BlockingCallback();
+            Call call = start(callback);
+            Attempt attempt = new Attempt(callback, false, null);
+            Response response;
+            try {
+                response = call.execute();
+            } catch (IOException e) {
+                attempt.onFailure(call, e);
+                return callback.await();
+            }
+            attempt.onResponse(call, response);
+            return callback.await();
+        }
+
+        @Override
+        public void enqueue(final Callback callback) {
+            start(callback).enqueue(new Attempt(callback, false, null));
+        }
+
+        /**
+         * Prepares the original request and schedules the hedge request.
+         * @param callback callback of the call
+         * @return the call of the original request
+         */
+        private Call start(final Callback callback) {
+            synchronized (this) {
+                if (executed) {
+                    throw new IllegalStateException("Already Executed");
+                }
+                executed = true;
+                startNanos = System.nanoTime();
+                original = client.newCall(request);
+                pending = 1;
+                long delay = delayMillis;
+                if (delay >= 0) {
+                    try {
+                        hedgeTask = scheduler.schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                sendHedge(callback);
+                            }
+                        }, delay, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        hedgeTask = null;
+                    }
+                }
+            }
+            requests.incrementAndGet();
+            return original;
+        }
+
+        /**
+         * Sends the hedge request, unless the original request has been answered in the meantime, or the rate limiter
+         * or the circuit breaker refuse it.
+         * @param callback callback of the call
+         */
+        private void sendHedge(Callback callback) {
+            synchronized (this) {
+                if (done || canceled) {
+                    return;
+                }
+            }
+            okhttp3.Request hedgeRequest;
+            try {
+                hedgeRequest = factory.newRequest();
+            } catch (LocalOperationException e) {
+                // The original request has been built the same way, so this is not expected; it is not hedged then.
+                return;
+            }
+            if (!transloadit.getRateLimiter().tryReserve()) {
+                return;
+            }
+            CircuitBreaker breaker = transloadit.getCircuitBreaker(hedgeRequest.url().host(), hedgeRequest.url().port(),
+                    CircuitBreaker.getEndpointClass(hedgeRequest.url().encodedPath()));
+            if (breaker != null) {
+                try {
+                    breaker.acquire();
+                } catch (CircuitBreakerOpenException e) {
+                    return;
+                }
+            }
+            Call call;
+            synchronized (this) {
+                if (done || canceled) {
+                    if (breaker != null) {
+                        breaker.release();
+                    }
+                    return;
+                }
+                hedge = getHedgeClient(client).newCall(hedgeRequest);
+                pending++;
+                call = hedge;
+            }
+            hedges.incrementAndGet();
+            call.enqueue(new Attempt(callback, true, breaker));
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            Call originalCall;
+            Call hedgeCall;
+            synchronized (this) {
+                originalCall = original;
+                hedgeCall = hedge;
+                if (hedgeTask != null) {
+                    hedgeTask.cancel(false);
+                }
+            }
+            if (originalCall != null) {
+                originalCall.cancel();
+            }
+            if (hedgeCall != null) {
+                hedgeCall.cancel();
+            }
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        @Override
+        public Call clone() {
+            return new HedgedCall(client, request, factory);
+        }
+
+        /**
+         * Callback of a synchronous call, which hands the answer of whichever request has answered the call to the
+         * calling thread.
+         */
+        private final class BlockingCallback implements Callback {
+            private final CountDownLatch latch = new CountDownLatch(1);
+            private Response response;
+            private IOException exception;
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                exception = e;
+                latch.countDown();
+            }
+
+            @Override
+            public void onResponse(Call call, Response r) {
+                response = r;
+                latch.countDown();
+            }
+
+            /**
+             * Waits until the call has been answered.
+             * @return the response
+             * @throws IOException if both requests have failed or the thread is interrupted
+             */
+            Response await() throws IOException {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    cancel();
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted");
+                }
+                if (exception != null) {
+                    throw exception;
+                }
+                return response;
+            }
+        }
+
+        /**
+         * Callback of the original or the hedge request.
+         */
+        private final class Attempt implements Callback {
+            private final Callback callback;
+            private final boolean isHedge;
+            @Nullable
+            private final CircuitBreaker breaker;
+            private final long sentNanos = System.nanoTime();
+
+            /**
+             * Creates the callback of a request.
+             * @param callback callback of the call
+             * @param isHedge true for the hedge request
+             * @param breaker circuit breaker which has permitted the request and is reported its outcome, or
+             *                {@code null} if the outcome is reported by the caller of the call
+             */
+            Attempt(Callback callback, boolean isHedge, @Nullable CircuitBreaker breaker) {
+                this.callback = callback;
+                this.isHedge = isHedge;
+                this.breaker = breaker;
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                if (breaker != null) {
+                    breaker.onResult(response.code() >= 500, System.nanoTime() - sentNanos);
+                }
+                Call loser = null;
+                Response earlierError = null;
+                synchronized (HedgedCall.this) {
+                    pending--;
+                    if (done) {
+                        response.close();
+                        return;
+                    }
+                    if (!response.isSuccessful()) {
+                        // An error response only answers the call once the other request has failed as well.
+                        if (hedgeTask != null) {
+                            hedgeTask.cancel(false);
+                        }
+                        if (errorResponse == null) {
+                            errorResponse = response;
+                        } else {
+                            response.close();
+                        }
+                        if (pending > 0) {
+                            return;
+                        }
+                        done = true;
+                        response = errorResponse;
+                        errorResponse = null;
+                    } else {
+                        done = true;
+                        if (hedgeTask != null) {
+                            hedgeTask.cancel(false);
+                        }
+                        loser = isHedge ? original : hedge;
+                        earlierError = errorResponse;
+                        errorResponse = null;
+                    }
+                }
+                if (earlierError != null) {
+                    earlierError.close();
+                }
+                if (loser != null) {
+                    loser.cancel();
+                }
+                if (response.isSuccessful()) {
+                    // Measured from the original request even if the hedge has won, as the original request has
+                    // taken at least as long; otherwise winning hedges would lower the delay further and further.
+                    recordLatency(System.nanoTime() - startNanos);
+                    if (isHedge) {
+                        hedgeWins.incrementAndGet();
+                    }
+                }
+                callback.onResponse(HedgedCall.this, response);
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (breaker != null) {
+                    if (call.isCanceled()) {
+                        breaker.release();
+                    } else {
+                        breaker.onResult(true, System.nanoTime() - sentNanos);
+                    }
+                }
+                Response error;
+                synchronized (HedgedCall.this) {
+                    pending--;
+                    if (done) {
+                        return;
+                    }
+                    // A hedge request is not sent after the original request has failed, the failure is reported
+                    // right away so retries are left to the retry settings of the client.
+                    if (hedgeTask != null) {
+                        hedgeTask.cancel(false);
+                    }
+                    if (pending > 0) {
+                        return;
+                    }
+                    done = true;
+                    error = errorResponse;
+                    errorResponse = null;
+                }
+                if (error != null) {
+                    try {
+                        callback.onResponse(HedgedCall.this, error);
+                    } catch (IOException callbackException) {
+                        error.close();
+                        callback.onFailure(HedgedCall.this, callbackException);
+                    }
+                    return;
+                }
+                callback.onFailure(HedgedCall.this, e);
+            }
+        }
+    }
+}
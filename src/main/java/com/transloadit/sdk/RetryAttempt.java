@@ -0,0 +1,77 @@
+package com.transloadit.sdk;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Describes a failed attempt of a request, as passed to {@link RetryPolicy#getRetryDelay(RetryAttempt)}.
+ * An attempt has failed either with an exception or with an HTTP status code.
+ *
+ * @since 2.3.0
+ */
+public final class RetryAttempt {
+    private final String method;
+    private final int number;
+    private final long previousDelay;
+    private final int statusCode;
+    @Nullable
+    private final IOException exception;
+
+    /**
+     * Describes a failed attempt.
+     * @param method HTTP method of the request, e.g. "POST"
+     * @param number number of the attempt, starting with 1
+     * @param previousDelay delay in ms before this attempt, 0 for the first attempt
+     * @param statusCode HTTP status code of the response, or -1 if no response has been received
+     * @param exception exception the attempt has failed with, or {@code null} if a response has been received
+     */
+    RetryAttempt(String method, int number, long previousDelay, int statusCode, @Nullable IOException exception) {
+        this.method = method;
+        this.number = number;
+        this.previousDelay = previousDelay;
+        this.statusCode = statusCode;
+        this.exception = exception;
+    }
+
+    /**
+     * Returns the HTTP method of the request.
+     * @return HTTP method, e.g. "POST"
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the number of the attempt.
+     * @return 1 for the first attempt, 2 for the first retry and so on
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the delay applied before this attempt.
+     * @return delay in ms, 0 for the first attempt
+     */
+    public long getPreviousDelay() {
+        return previousDelay;
+    }
+
+    /**
+     * Returns the HTTP status code of the response.
+     * @return status code, or -1 if the attempt has failed with an exception
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns the exception the attempt has failed with.
+     * @return exception, or {@code null} if a response has been received
+     */
+    @Nullable
+    public IOException getException() {
+        return exception;
+    }
+}
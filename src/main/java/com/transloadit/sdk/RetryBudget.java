@@ -0,0 +1,60 @@
+package com.transloadit.sdk;
+
+/**
+ * Limits the retries of all requests of a client to a share of its requests, so a failing server does not
+ * multiply the number of requests sent to it.
+ * Every request deposits the configured ratio into the budget, every retry withdraws one. The balance is capped at a
+ * reserve, which is available from the start and allows occasional retries of a client sending few requests.
+ * Instances are thread-safe.
+ */
+final class RetryBudget {
+    private final double ratio;
+    private final int reserve;
+    private double balance;
+
+    /**
+     * Creates a new budget.
+     * @param ratio share of requests which may be retried, e.g. 0.2 for 20 %
+     * @param reserve maximum balance, available from the start
+     */
+    RetryBudget(double ratio, int reserve) {
+        this.ratio = ratio;
+        this.reserve = reserve;
+        this.balance = reserve;
+    }
+
+    /**
+     * Records a new request.
+     */
+    synchronized void deposit() {
+        balance = Math.min(reserve, balance + ratio);
+    }
+
+    /**
+     * Withdraws one retry from the budget.
+     * @return true if the budget allows the retry
+     */
+    synchronized boolean tryWithdraw() {
+        if (balance >= 1) {
+            balance -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the share of requests which may be retried.
+     * @return ratio
+     */
+    double getRatio() {
+        return ratio;
+    }
+
+    /**
+     * Returns the maximum balance of the budget.
+     * @return reserve
+     */
+    int getReserve() {
+        return reserve;
+    }
+}
@@ -0,0 +1,22 @@
+package com.transloadit.sdk;
+
+/**
+ * Decides whether a failed request to the Transloadit API is retried and how long to wait before the next attempt.
+ * A policy is set with {@link Transloadit#setRetryPolicy(RetryPolicy)} and shared by all requests of the client,
+ * so implementations have to be thread-safe. {@link ExponentialBackoffRetryPolicy} is provided as default
+ * implementation.
+ *
+ * <p>Independent of the policy, the number of retries of a client is limited by its retry budget, see
+ * {@link Transloadit#setRetryBudget(double, int)}. If the server asks to wait, e.g. with a "Retry-After" header, the
+ * client does not send any request before that time has passed, regardless of the delay returned by the policy.</p>
+ *
+ * @since 2.3.0
+ */
+public interface RetryPolicy {
+    /**
+     * Returns the time to wait before the failed attempt is retried.
+     * @param attempt the failed attempt
+     * @return time in ms to wait before the next attempt, or a negative value if the request should not be retried
+     */
+    long getRetryDelay(RetryAttempt attempt);
+}
@@ -0,0 +1,211 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+import com.transloadit.sdk.exceptions.RequestException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Coalesces concurrent loads of the same key into a single call: the first caller loads the value, every caller
+ * arriving while the load is in flight, or within the freshness window after it has succeeded, gets the same value.
+ * Failed loads are shared with the callers waiting for them, but never with later callers.
+ * Instances are thread-safe.
+ * @param <V> type of the loaded values
+ */
+final class SingleFlight<V> {
+    private final ConcurrentMap<String, Flight<V>> flights = new ConcurrentHashMap<String, Flight<V>>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Loads a value on the calling thread.
+     * @param <V> type of the loaded value
+     */
+    interface Loader<V> {
+        /**
+         * Loads the value.
+         * @return the value
+         * @throws RequestException if the request fails
+         * @throws LocalOperationException if something goes wrong while running non-http operations
+         */
+        V load() throws RequestException, LocalOperationException;
+    }
+
+    /**
+     * Loads a value asynchronously.
+     * @param <V> type of the loaded value
+     */
+    interface AsyncLoader<V> {
+        /**
+         * Starts loading the value.
+         * @return future of the value
+         */
+        CompletableFuture<V> load();
+    }
+
+    /**
+     * Creates a new instance.
+     * @param scheduler scheduler to remove values once their freshness window has passed
+     */
+    SingleFlight(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the value of the given key, loading it on the calling thread unless a load is in flight or a fresh
+     * value is available.
+     * @param key key of the value, e.g. the url of a request
+     * @param freshnessMillis time in ms a loaded value is reused, 0 to only share loads in flight
+     * @param loader loads the value
+     * @return the value
+     * @throws RequestException if the request fails
+     * @throws LocalOperationException if something goes wrong while running non-http operations or the thread is
+     * interrupted while waiting for another caller's load
+     */
+    V execute(String key, long freshnessMillis, Loader<V> loader) throws RequestException, LocalOperationException {
+        Flight<V> flight = new Flight<V>();
+        Flight<V> current = join(key, flight);
+        if (current == flight) {
+            try {
+                V value = loader.load();
+                complete(key, flight, value, null, freshnessMillis);
+                return value;
+            } catch (RequestException | LocalOperationException | RuntimeException | Error e) {
+                // Errors complete the flight as well, otherwise waiting callers would block forever.
+                complete(key, flight, null, e, freshnessMillis);
+                throw e;
+            }
+        }
+
+        try {
+            return current.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LocalOperationException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RequestException) {
+                throw (RequestException) cause;
+            } else if (cause instanceof LocalOperationException) {
+                throw (LocalOperationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new LocalOperationException(e);
+        }
+    }
+
+    /**
+     * Returns a future of the value of the given key, which is loaded unless a load is in flight or a fresh value is
+     * available. Every caller gets its own future, so cancelling it does not affect other callers.
+     * @param key key of the value, e.g. the url of a request
+     * @param freshnessMillis time in ms a loaded value is reused, 0 to only share loads in flight
+     * @param loader starts loading the value
+     * @param executor {@link Executor} that completes the returned future
+     * @return future of the value
+     */
+    CompletableFuture<V> executeAsync(final String key, final long freshnessMillis, AsyncLoader<V> loader,
+                                      final Executor executor) {
+        final Flight<V> flight = new Flight<V>();
+        Flight<V> current = join(key, flight);
+        if (current == flight) {
+            CompletableFuture<V> load;
+            try {
+                load = loader.load();
+            } catch (RuntimeException e) {
+                load = new CompletableFuture<V>();
+                load.completeExceptionally(e);
+            }
+            load.whenComplete(new BiConsumer<V, Throwable>() {
+                @Override
+                public void accept(V value, Throwable throwable) {
+                    complete(key, flight, value, throwable, freshnessMillis);
+                }
+            });
+        }
+
+        final CompletableFuture<V> result = new CompletableFuture<V>();
+        current.future.whenComplete(new BiConsumer<V, Throwable>() {
+            @Override
+            public void accept(V value, Throwable throwable) {
+                Transloadit.completeOn(executor, result, value, throwable);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns the flight of the given key, registering the given one if there is no flight in progress and no fresh
+     * value.
+     * @param key key of the value
+     * @param flight flight to register
+     * @return the registered flight, which is the given one if the caller has to load the value
+     */
+    private Flight<V> join(String key, Flight<V> flight) {
+        while (true) {
+            Flight<V> current = flights.get(key);
+            if (current != null && current.isUsable()) {
+                return current;
+            }
+            if (current == null ? flights.putIfAbsent(key, flight) == null : flights.replace(key, current, flight)) {
+                return flight;
+            }
+        }
+    }
+
+    /**
+     * Completes a flight and keeps its value for the freshness window if the load has succeeded.
+     */
+    private void complete(final String key, final Flight<V> flight, V value, Throwable throwable,
+                          long freshnessMillis) {
+        if (throwable == null && freshnessMillis > 0) {
+            flight.expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(freshnessMillis);
+            flight.fresh = true;
+            try {
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flights.remove(key, flight);
+                    }
+                }, freshnessMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                flights.remove(key, flight);
+            }
+        } else {
+            flights.remove(key, flight);
+        }
+
+        if (throwable != null) {
+            flight.future.completeExceptionally(throwable);
+        } else {
+            flight.future.complete(value);
+        }
+    }
+
+    /**
+     * A load in flight, or its value while it is fresh.
+     * @param <V> type of the loaded value
+     */
+    private static final class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<V>();
+        private volatile long expiresAtNanos;
+        private volatile boolean fresh;
+
+        /**
+         * Returns whether the flight can be joined by another caller.
+         * @return true if the load is in flight or its value is fresh
+         */
+        boolean isUsable() {
+            return !future.isDone() || (fresh && System.nanoTime() - expiresAtNanos < 0);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Signs Smart CDN URLs of one workspace and template.
+ * See the <a href="https://transloadit.com/docs/topics/signature-authentication/#smart-cdn">API documentation</a>.
+ * The HMAC key and the encoded workspace and template are prepared once, which makes this class the preferred way
+ * to sign many URLs, e.g. while rendering a page. {@link #signAll(Collection, Map, long)} additionally builds the
+ * query string only once for the whole batch. The URLs are identical to the ones returned by
+ * {@link Transloadit#getSignedSmartCDNUrl(String, String, String, Map, long)}. Instances are thread-safe and can be
+ * obtained with {@link Transloadit#newSmartCdnSigner(String, String)}.
+ * <p>
+ * If {@link Transloadit#setSmartCdnExpiryBucket(long)} is set, the default expiration of 1 hour is rounded up to the
+ * next multiple of the bucket, so URLs stay identical within a bucket and can be cached by browsers and the CDN.
+ * With {@link Transloadit#setSmartCdnUrlCacheSize(int)} signed URLs are kept and returned again for the same input,
+ * parameters and expiration without computing the signature again.
+ * </p>
+ * @since 2.3.0
+ */
+public final class SmartCdnSigner {
+    private static final long DEFAULT_EXPIRY = 60 * 60 * 1000; // 1 hour in ms
+
+    private final String authKey;
+    private final HmacSigner signer;
+    private final String urlPrefix;
+    private final String pathPrefix;
+    private final long expiryBucket;
+    @Nullable
+    private final LruCache<List<String>, String> cache;
+    private volatile QueryString lastQueryString;
+
+    /**
+     * Creates a new signer.
+     * @param authKey Transloadit key added to every URL as "auth_key"
+     * @param signer HMAC signer keyed with the Transloadit secret, producing URL encoded "sha256:" signatures
+     * @param workspace Workspace slug
+     * @param template Template slug or template ID
+     * @param expiryBucket window in ms the default expiration is rounded up to, 0 disables rounding
+     * @param cache cache of signed URLs keyed by path prefix, input and query string, or {@code null}
+     * @throws LocalOperationException if URL encoding fails
+     */
+    SmartCdnSigner(String authKey, HmacSigner signer, @NotNull String workspace, @NotNull String template,
+                   long expiryBucket, @Nullable LruCache<List<String>, String> cache) throws LocalOperationException {
+        this.authKey = authKey;
+        this.signer = signer;
+        this.expiryBucket = expiryBucket;
+        this.cache = cache;
+        String workspaceSlug = encode(workspace);
+        String templateSlug = encode(template);
+        this.pathPrefix = workspaceSlug + "/" + templateSlug + "/";
+        this.urlPrefix = "https://" + workspaceSlug + ".tlcdn.com/" + templateSlug + "/";
+    }
+
+    /**
+     * Construct a signed Smart CDN URL, which expires in 1 hour, rounded up to the expiry bucket if one is set.
+     * @param input Input value that is provided as ${fields.input} in the template
+     * @return The signed Smart CDN URL
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public String sign(@NotNull String input) throws LocalOperationException {
+        return sign(input, null);
+    }
+
+    /**
+     * Construct a signed Smart CDN URL, which expires in 1 hour, rounded up to the expiry bucket if one is set.
+     * @param input Input value that is provided as ${fields.input} in the template
+     * @param urlParams Additional parameters for the URL query string (optional)
+     * @return The signed Smart CDN URL
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public String sign(@NotNull String input, @Nullable Map<String, List<String>> urlParams)
+            throws LocalOperationException {
+        return sign(input, urlParams, getDefaultExpiry());
+    }
+
+    /**
+     * Construct a signed Smart CDN URL.
+     * @param input Input value that is provided as ${fields.input} in the template
+     * @param urlParams Additional parameters for the URL query string (optional)
+     * @param expiresAt Expiration timestamp of the signature in milliseconds since the UNIX epoch.
+     * @return The signed Smart CDN URL
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public String sign(@NotNull String input, @Nullable Map<String, List<String>> urlParams, long expiresAt)
+            throws LocalOperationException {
+        return sign(input, getQueryString(urlParams, expiresAt), new StringBuilder());
+    }
+
+    /**
+     * Construct signed Smart CDN URLs for several inputs, which expire in 1 hour, rounded up to the expiry bucket if
+     * one is set.
+     * @param inputs Input values that are provided as ${fields.input} in the template
+     * @return The signed Smart CDN URLs, in the iteration order of the inputs
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public List<String> signAll(@NotNull Collection<String> inputs) throws LocalOperationException {
+        return signAll(inputs, null);
+    }
+
+    /**
+     * Construct signed Smart CDN URLs for several inputs, which expire in 1 hour, rounded up to the expiry bucket if
+     * one is set.
+     * @param inputs Input values that are provided as ${fields.input} in the template
+     * @param urlParams Additional parameters for the URL query string of every URL (optional)
+     * @return The signed Smart CDN URLs, in the iteration order of the inputs
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public List<String> signAll(@NotNull Collection<String> inputs, @Nullable Map<String, List<String>> urlParams)
+            throws LocalOperationException {
+        return signAll(inputs, urlParams, getDefaultExpiry());
+    }
+
+    /**
+     * Construct signed Smart CDN URLs for several inputs. All URLs share the same parameters and expiration.
+     * @param inputs Input values that are provided as ${fields.input} in the template
+     * @param urlParams Additional parameters for the URL query string of every URL (optional)
+     * @param expiresAt Expiration timestamp of the signatures in milliseconds since the UNIX epoch.
+     * @return The signed Smart CDN URLs, in the iteration order of the inputs
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public List<String> signAll(@NotNull Collection<String> inputs, @Nullable Map<String, List<String>> urlParams,
+                                long expiresAt) throws LocalOperationException {
+        String queryString = getQueryString(urlParams, expiresAt);
+        StringBuilder builder = new StringBuilder();
+        List<String> urls = new ArrayList<String>(inputs.size());
+        for (String input : inputs) {
+            urls.add(sign(input, queryString, builder));
+        }
+        return urls;
+    }
+
+    /**
+     * Signs one input.
+     * @param input Input value that is provided as ${fields.input} in the template
+     * @param queryString encoded and sorted query string, without signature
+     * @param builder builder reused for the string to sign and the URL
+     * @return The signed Smart CDN URL
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    private String sign(String input, String queryString, StringBuilder builder) throws LocalOperationException {
+        List<String> key = null;
+        if (cache != null) {
+            // Workspace, template, input, parameters and expiration identify the URL.
+            key = Arrays.asList(pathPrefix, input, queryString);
+            String url = cache.get(key);
+            if (url != null) {
+                return url;
+            }
+        }
+        String inputField = encode(input);
+        builder.setLength(0);
+        builder.append(pathPrefix).append(inputField).append('?').append(queryString);
+        String signature = signer.sign(builder);
+
+        builder.setLength(0);
+        String url = builder.append(urlPrefix).append(inputField).append('?').append(queryString)
+                .append("&sig=").append(signature).toString();
+        if (key != null) {
+            cache.put(key, url);
+        }
+        return url;
+    }
+
+    /**
+     * Returns the default expiration of 1 hour from now, rounded up to the next multiple of the expiry bucket.
+     * @return expiration timestamp in milliseconds since the UNIX epoch
+     */
+    private long getDefaultExpiry() {
+        long expiresAt = Instant.now().toEpochMilli() + DEFAULT_EXPIRY;
+        if (expiryBucket > 0) {
+            long remainder = expiresAt % expiryBucket;
+            if (remainder != 0) {
+                expiresAt += expiryBucket - remainder;
+            }
+        }
+        return expiresAt;
+    }
+
+    /**
+     * Builds the query string with the parameters sorted by key, as required for the signature.
+     * @param urlParams Additional parameters for the URL query string (optional)
+     * @param expiresAt Expiration timestamp of the signature in milliseconds since the UNIX epoch.
+     * @return encoded query string
+     * @throws LocalOperationException if URL encoding fails
+     */
+    private String getQueryString(@Nullable Map<String, List<String>> urlParams, long expiresAt)
+            throws LocalOperationException {
+        // Consecutive calls mostly share parameters and expiration, e.g. while rendering a page.
+        QueryString last = lastQueryString;
+        if (last != null && last.matches(urlParams, expiresAt)) {
+            return last.value;
+        }
+        // Use TreeMap to ensure keys in URL params are sorted.
+        SortedMap<String, List<String>> params = new TreeMap<String, List<String>>();
+        if (urlParams != null) {
+            params.putAll(urlParams);
+        }
+        params.put("auth_key", Collections.singletonList(authKey));
+        params.put("exp", Collections.singletonList(String.valueOf(expiresAt)));
+
+        StringBuilder queryString = new StringBuilder();
+        for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+            String key = encode(entry.getKey());
+            for (String value : entry.getValue()) {
+                if (queryString.length() > 0) {
+                    queryString.append('&');
+                }
+                queryString.append(key).append('=').append(encode(value));
+            }
+        }
+        lastQueryString = new QueryString(urlParams, expiresAt, queryString.toString());
+        return lastQueryString.value;
+    }
+
+    private static String encode(String value) throws LocalOperationException {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new LocalOperationException("Failed to create signature: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encoded query string of one combination of parameters and expiration.
+     */
+    private static final class QueryString {
+        @Nullable
+        private final Map<String, List<String>> params;
+        private final long expiresAt;
+        private final String value;
+
+        QueryString(@Nullable Map<String, List<String>> params, long expiresAt, String value) {
+            this.expiresAt = expiresAt;
+            this.value = value;
+            if (params == null) {
+                this.params = null;
+            } else {
+                // Copy the parameters, the caller may change its map later on.
+                Map<String, List<String>> copy = new HashMap<String, List<String>>();
+                for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+                    copy.put(entry.getKey(), new ArrayList<String>(entry.getValue()));
+                }
+                this.params = copy;
+            }
+        }
+
+        boolean matches(@Nullable Map<String, List<String>> otherParams, long otherExpiresAt) {
+            if (expiresAt != otherExpiresAt) {
+                return false;
+            }
+            if (params == null || otherParams == null) {
+                return params == null && otherParams == null;
+            }
+            return params.equals(otherParams);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.transloadit.sdk;
+
+/**
+ * A timed operation of the SDK reported to a {@link Tracer}, e.g. saving an Assembly or a single API request.
+ * All methods do nothing by default. Spans are started by {@link Tracer#startSpan(String, Span)} and ended exactly
+ * once by the SDK; they may be ended on a different thread than they have been started on.
+ *
+ * @since 2.3.0
+ */
+public interface Span {
+    /**
+     * Span which ignores all calls.
+     */
+    Span NOOP = new Span() {
+    };
+
+    /**
+     * Sets a text attribute, e.g. "http.request.method".
+     * @param key name of the attribute
+     * @param value value of the attribute
+     */
+    default void setAttribute(String key, String value) {
+    }
+
+    /**
+     * Sets a numeric attribute, e.g. "http.response.status_code".
+     * @param key name of the attribute
+     * @param value value of the attribute
+     */
+    default void setAttribute(String key, long value) {
+    }
+
+    /**
+     * Records a point in time within the span, e.g. "retry" or "reconnected".
+     * @param name name of the event
+     */
+    default void addEvent(String name) {
+    }
+
+    /**
+     * Records an exception the operation has failed with.
+     * @param exception the exception
+     */
+    default void recordException(Throwable exception) {
+    }
+
+    /**
+     * Ends the span.
+     */
+    default void end() {
+    }
+}
@@ -67,6 +67,10 @@ public class Template extends OptionsBuilder {
 
         templateData.put("template", options);
         Request request = new Request(transloadit);
-        return new Response(request.post("/templates", templateData));
+        try {
+            return new Response(request.post("/templates", templateData));
+        } finally {
+            transloadit.invalidateTemplateCache(null);
+        }
     }
 }
@@ -0,0 +1,225 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+import com.transloadit.sdk.response.Response;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded cache of template responses, for single templates and for template lists.
+ * <p>
+ * Responses are served from the cache until their time to live has passed. Expired responses carrying an "ETag" or
+ * "Last-Modified" header are revalidated with a conditional request; if the server answers "304 Not Modified" the
+ * cached response is served and lives for another time to live. Changes made through the client invalidate the
+ * affected entries, see {@link #invalidate(String)}. Responses fetched concurrently to an invalidation are not
+ * cached, so they cannot bring back outdated content.
+ * </p>
+ * Every caller receives its own copy of a cached response, so changes made to its parsed JSON do not alter the
+ * cache. Instances are thread-safe.
+ */
+final class TemplateCache {
+    private final long ttlNanos;
+    private final LruCache<String, Entry> templates;
+    private final LruCache<String, Entry> lists;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+
+    /**
+     * Creates a new, empty cache.
+     * @param maxSize maximum number of single templates and of template lists, each
+     * @param ttlMillis time in ms a response is served without revalidation
+     */
+    TemplateCache(int maxSize, long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.templates = new LruCache<String, Entry>(maxSize);
+        this.lists = new LruCache<String, Entry>(maxSize);
+    }
+
+    /**
+     * Looks up a single template.
+     * @param id id of the template
+     * @param converter converts the raw response
+     * @param <T> the response type
+     * @return {@link Lookup} of the template
+     */
+    <T extends Response> Lookup<T> lookupTemplate(String id, Transloadit.ResponseConverter<T> converter) {
+        return new Lookup<T>(templates, id, converter);
+    }
+
+    /**
+     * Looks up a list of templates.
+     * @param key key of the list options
+     * @param converter converts the raw response
+     * @param <T> the response type
+     * @return {@link Lookup} of the list
+     */
+    <T extends Response> Lookup<T> lookupList(String key, Transloadit.ResponseConverter<T> converter) {
+        return new Lookup<T>(lists, key, converter);
+    }
+
+    /**
+     * Removes a changed template and all template lists, which may contain it.
+     * @param id id of the changed template, or {@code null} if a template has been created
+     */
+    void invalidate(@Nullable String id) {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            if (id != null) {
+                templates.remove(id);
+            }
+            lists.clear();
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        synchronized (generation) {
+            generation.incrementAndGet();
+            templates.clear();
+            lists.clear();
+        }
+    }
+
+    /**
+     * Returns the current counters.
+     * @return {@link TemplateCacheStatistics}
+     */
+    TemplateCacheStatistics getStatistics() {
+        return new TemplateCacheStatistics(hits.get(), misses.get(), revalidations.get(),
+                templates.size() + lists.size());
+    }
+
+    /**
+     * Caches a successful response, unless the cache has been invalidated since its request was sent.
+     */
+    private void store(LruCache<String, Entry> cache, String key, okhttp3.Response raw, Response response,
+                       long requestGeneration) {
+        if (raw.code() == 200) {
+            Entry entry = new Entry(response, raw.header("ETag"), raw.header("Last-Modified"),
+                    System.nanoTime() + ttlNanos);
+            putIfCurrent(cache, key, entry, requestGeneration);
+        }
+    }
+
+    private void putIfCurrent(LruCache<String, Entry> cache, String key, Entry entry, long requestGeneration) {
+        synchronized (generation) {
+            if (generation.get() == requestGeneration) {
+                cache.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Lookup of a single template or template list, shared by the synchronous and asynchronous requests: a fresh
+     * cached response is served directly, otherwise the request is sent with the validators of the expired entry, and
+     * its response is converted by this lookup. "304 Not Modified" renews the expired entry and serves it, other
+     * successful responses are cached.
+     * @param <T> the response type
+     */
+    final class Lookup<T extends Response> implements Transloadit.ResponseConverter<T> {
+        private final LruCache<String, Entry> cache;
+        private final String key;
+        private final Transloadit.ResponseConverter<T> converter;
+        @Nullable
+        private final Entry entry;
+        private final long requestGeneration;
+
+        private Lookup(LruCache<String, Entry> cache, String key, Transloadit.ResponseConverter<T> converter) {
+            this.cache = cache;
+            this.key = key;
+            this.converter = converter;
+            this.requestGeneration = generation.get();
+            this.entry = cache.get(key);
+        }
+
+        /**
+         * Returns the cached response if it has not expired.
+         * @return a copy of the response, or {@code null} if it has to be requested
+         */
+        @SuppressWarnings("unchecked")
+        @Nullable
+        T getFresh() {
+            if (entry != null && entry.isFresh(System.nanoTime())) {
+                hits.incrementAndGet();
+                return converter.copy((T) entry.response);
+            }
+            return null;
+        }
+
+        /**
+         * Returns the headers of the request: conditional ones revalidating the expired entry, if there is one.
+         * @return request headers, empty for a cache miss
+         */
+        Map<String, String> getValidators() {
+            return entry == null ? Collections.<String, String>emptyMap() : entry.getValidators();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T convert(okhttp3.Response response) throws LocalOperationException {
+            if (response.code() == 304 && entry != null) {
+                response.close();
+                revalidations.incrementAndGet();
+                Entry renewed = new Entry(entry.response, entry.etag, entry.lastModified, System.nanoTime() + ttlNanos);
+                putIfCurrent(cache, key, renewed, requestGeneration);
+                return converter.copy((T) entry.response);
+            }
+            misses.incrementAndGet();
+            T converted = converter.convert(response);
+            store(cache, key, response, converted, requestGeneration);
+            return converter.copy(converted);
+        }
+
+        @Override
+        public T copy(T response) {
+            return converter.copy(response);
+        }
+    }
+
+    /**
+     * Cached response together with its validators.
+     */
+    private static final class Entry {
+        private final Response response;
+        @Nullable
+        private final String etag;
+        @Nullable
+        private final String lastModified;
+        private final long expiresAtNanos;
+
+        Entry(Response response, @Nullable String etag, @Nullable String lastModified, long expiresAtNanos) {
+            this.response = response;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isFresh(long now) {
+            return now - expiresAtNanos < 0;
+        }
+
+        /**
+         * Returns the headers of a conditional request revalidating this entry.
+         * @return conditional request headers, empty if the response carried no validators
+         */
+        Map<String, String> getValidators() {
+            Map<String, String> headers = new HashMap<String, String>();
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.transloadit.sdk;
+
+/**
+ * Snapshot of the counters of a {@link Transloadit} client's template cache, see
+ * {@link Transloadit#setTemplateCacheSize(int)}.
+ *
+ * @since 2.3.0
+ */
+public final class TemplateCacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long revalidations;
+    private final int size;
+
+    /**
+     * Creates a new snapshot.
+     * @param hits number of responses served from the cache without a request
+     * @param misses number of responses which had to be fetched completely
+     * @param revalidations number of cached responses confirmed by a conditional request
+     * @param size number of cached responses
+     */
+    TemplateCacheStatistics(long hits, long misses, long revalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.revalidations = revalidations;
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of responses served from the cache without sending a request.
+     * @return number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of responses which had to be fetched completely.
+     * @return number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of expired responses which the server confirmed to be unchanged with a "304 Not Modified"
+     * answer to a conditional request.
+     * @return number of revalidations
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * Returns the number of cached responses.
+     * @return number of entries
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "TemplateCacheStatistics{hits=" + hits + ", misses=" + misses + ", revalidations=" + revalidations
+                + ", size=" + size + "}";
+    }
+}
@@ -0,0 +1,48 @@
+package com.transloadit.sdk;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps track of the {@link Span} active on the current thread, so spans of nested operations get the right parent.
+ * Work handed to other threads, e.g. tus uploads and the SSE listener, captures the active span when it is created
+ * and starts its own span as child of it.
+ */
+final class TraceContext {
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<Span>();
+
+    private TraceContext() {
+    }
+
+    /**
+     * Returns the span active on the current thread.
+     * @return {@link Span}, or {@code null} if no SDK operation is active
+     */
+    @Nullable
+    static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes a span the active span of the current thread.
+     * @param span span to activate, or {@code null}
+     * @return the previously active span, to be passed to {@link #restore(Span)}
+     */
+    @Nullable
+    static Span activate(@Nullable Span span) {
+        Span previous = CURRENT.get();
+        restore(span);
+        return previous;
+    }
+
+    /**
+     * Restores the previously active span of the current thread.
+     * @param previous span returned by {@link #activate(Span)}
+     */
+    static void restore(@Nullable Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
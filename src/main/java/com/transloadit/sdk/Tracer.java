@@ -0,0 +1,48 @@
+package com.transloadit.sdk;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the {@link Span Spans} of an Assembly's lifecycle, so distributed tracing can show where its wall-clock
+ * time goes. A tracer is set with {@link Transloadit#setTracer(Tracer)} and shared by all threads of the client, so
+ * implementations have to be thread-safe.
+ *
+ * <p>The SDK starts the following spans, each one as child of the span active on the calling thread when the
+ * operation started:</p>
+ * <ul>
+ *     <li>"transloadit.assembly.save" around {@link Assembly#save(boolean)} and
+ *     {@link Assembly#saveAsync(boolean, java.util.concurrent.Executor)}</li>
+ *     <li>"transloadit.request" around every API request including its retries</li>
+ *     <li>"transloadit.tus.upload" around the upload of every file, on the upload thread</li>
+ *     <li>"transloadit.assembly.events" around the Assembly status stream, on the SSE thread, with an event per
+ *     (re)connect</li>
+ *     <li>"transloadit.assembly.wait" around polling for the Assembly to complete, with an event per poll</li>
+ * </ul>
+ *
+ * <p>The interface mirrors OpenTelemetry without depending on it. An adapter starts an OpenTelemetry span with
+ * {@code tracer.spanBuilder(name).setParent(Context.current().with(parentSpan)).startSpan()} and forwards the calls
+ * of the returned {@link Span}; to join a trace started by the application, the adapter uses the application's
+ * current span if {@code parent} is {@code null}.</p>
+ *
+ * @since 2.3.0
+ */
+public interface Tracer {
+    /**
+     * Tracer which does not create any spans.
+     */
+    Tracer NOOP = new Tracer() {
+        @Override
+        public Span startSpan(String name, @Nullable Span parent) {
+            return Span.NOOP;
+        }
+    };
+
+    /**
+     * Starts a new span.
+     * @param name name of the operation, e.g. "transloadit.request"
+     * @param parent span of the enclosing SDK operation, or {@code null} if the operation has been called directly
+     *               by the application
+     * @return the started {@link Span}
+     */
+    Span startSpan(String name, @Nullable Span parent);
+}
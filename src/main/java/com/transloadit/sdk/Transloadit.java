@@ -5,20 +5,17 @@ import com.transloadit.sdk.exceptions.LocalOperationException;
 import com.transloadit.sdk.response.AssemblyResponse;
 import com.transloadit.sdk.response.ListResponse;
 import com.transloadit.sdk.response.Response;
-import org.apache.commons.codec.binary.Hex;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.json.JSONObject;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.time.Instant;
+import java.net.Proxy;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -26,13 +23,26 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 /**
  * This class serves as a client interface to the Transloadit API.
  */
-public class Transloadit {
+public class Transloadit implements Closeable {
     /**
      * Default url of the Transloadit API.
      */
@@ -48,6 +58,99 @@ public class Transloadit {
     protected int retryDelay = 0; // default value
     protected String versionInfo;
     private SignatureProvider signatureProvider;
+    protected int maxIdleConnections = 5; // default value
+    protected long keepAliveDuration = 5 * 60 * 1000; // default value in ms
+    protected int maxRequests = 64; // default value
+    protected int maxRequestsPerHost = 5; // default value
+    protected long connectTimeout = 10 * 1000; // default value in ms
+    protected long readTimeout = 10 * 1000; // default value in ms
+    protected long writeTimeout = 10 * 1000; // default value in ms
+    protected long smartCdnExpiryBucket = 0; // default value in ms, rounding disabled
+    protected double maxRequestsPerSecond = 0; // default value, only limited after the server signals a rate limit
+    protected int requestCompressionThreshold = 0; // default value in bytes, compression disabled
+    private final RateLimiter rateLimiter = new RateLimiter(0);
+    private volatile RetryPolicy retryPolicy;
+    private volatile RetryBudget retryBudget = new RetryBudget(0.2, 10);
+    private volatile MetricsRecorder metricsRecorder = MetricsRecorder.NOOP;
+    private volatile Tracer tracer = Tracer.NOOP;
+    protected boolean circuitBreakerEnabled = false; // default value
+    protected double circuitBreakerFailureRateThreshold = 0.5; // default value
+    protected long circuitBreakerSlowCallThreshold = 5 * 1000; // default value in ms
+    protected long circuitBreakerOpenDuration = 30 * 1000; // default value in ms
+    protected boolean hedgingEnabled = false; // default value
+    protected double hedgeDelayPercentile = 95; // default value
+    private volatile RequestHedger requestHedger;
+    protected boolean requestCoalescingEnabled = false; // default value
+    protected long requestCoalescingFreshness = 0; // default value in ms, only requests in flight are shared
+    private SingleFlight<AssemblyResponse> assemblyFlights;
+    private SingleFlight<Response> templateFlights;
+    protected int templateCacheSize = 0; // default value, caching disabled
+    protected long templateCacheTtl = 60 * 1000; // default value in ms
+    private volatile TemplateCache templateCache;
+    protected int warmUpConnections = 2; // default value
+    protected long keepAlivePingInterval = 0; // default value in ms, pings disabled
+    private final ConnectionWarmer connectionWarmer = new ConnectionWarmer();
+    private final ConcurrentMap<String, Proxy> uploadUrls = new ConcurrentHashMap<String, Proxy>();
+    private boolean warmedUp;
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+    private volatile LruCache<List<String>, String> smartCdnUrlCache;
+    private volatile OkHttpClient httpClient;
+    private ScheduledExecutorService scheduler;
+    protected int maxConcurrentUploads = 16; // default value
+    protected int maxEventStreams = 64; // default value
+    protected boolean virtualThreadsEnabled = false; // default value
+    private ExecutorService uploadExecutor;
+    private ExecutorService uploadPool;
+    private ExecutorService eventStreamExecutor;
+    private ExecutorService eventStreamPool;
+    private ExecutorService discoveryPool;
+    private volatile HmacSigner requestSigner;
+    private volatile HmacSigner smartCdnSigner;
+    private final ExpiryClock expiryClock = new ExpiryClock();
+
+    private static final ResponseConverter<Response> RESPONSE = new ResponseConverter<Response>() {
+        @Override
+        public Response convert(okhttp3.Response response) throws LocalOperationException {
+            return new Response(response);
+        }
+
+        @Override
+        public Response copy(Response response) {
+            return new Response(response);
+        }
+    };
+
+    private static final ResponseConverter<AssemblyResponse> ASSEMBLY_RESPONSE =
+            new ResponseConverter<AssemblyResponse>() {
+        @Override
+        public AssemblyResponse convert(okhttp3.Response response) throws LocalOperationException {
+            return new AssemblyResponse(response);
+        }
+
+        @Override
+        public AssemblyResponse copy(AssemblyResponse response) {
+            return new AssemblyResponse(response);
+        }
+    };
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final ResponseConverter<ListResponse> LIST_RESPONSE = new ResponseConverter<ListResponse>() {
+        @Override
+        public ListResponse convert(okhttp3.Response response) throws LocalOperationException {
+            return new ListResponse(response);
+        }
+
+        @Override
+        public ListResponse copy(ListResponse response) {
+            return new ListResponse(response);
+        }
+    };
 
     /**
      * A new instance to transloadit client.
@@ -328,8 +431,7 @@ public class Transloadit {
      * @throws LocalOperationException if something goes wrong while running non-http operations.
      */
     public AssemblyResponse getAssembly(String id) throws RequestException, LocalOperationException {
-        Request request = new Request(this);
-        return new AssemblyResponse(request.get("/assemblies/" + id));
+        return get("/assemblies/" + id, ASSEMBLY_RESPONSE, getAssemblyFlights());
     }
 
     /**
@@ -342,8 +444,7 @@ public class Transloadit {
      */
     public AssemblyResponse getAssemblyByUrl(String url)
             throws RequestException, LocalOperationException {
-        Request request = new Request(this);
-        return new AssemblyResponse(request.get(url));
+        return get(url, ASSEMBLY_RESPONSE, getAssemblyFlights());
     }
 
     /**
@@ -384,6 +485,113 @@ public class Transloadit {
         return listAssemblies(new HashMap<String, Object>());
     }
 
+    /**
+     * Asynchronously returns a single assembly. The request is executed on the dispatcher of the client's HTTP engine,
+     * so no thread is blocked while it is in flight.
+     * Same as {@link #getAssemblyAsync(String, Executor)}, but completes on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param id id of the Assembly to retrieve.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse}
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> getAssemblyAsync(String id) {
+        return getAssemblyAsync(id, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously returns a single assembly. The request is executed on the dispatcher of the client's HTTP engine,
+     * so no thread is blocked while it is in flight.
+     *
+     * @param id id of the Assembly to retrieve.
+     * @param executor {@link Executor} that completes the returned future and therefore runs dependent callbacks.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse}, completed exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException} if the request fails.
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> getAssemblyAsync(String id, Executor executor) {
+        return getAsync("/assemblies/" + id, ASSEMBLY_RESPONSE, getAssemblyFlights(), executor);
+    }
+
+    /**
+     * Asynchronously returns a single assembly.
+     * Same as {@link #getAssemblyByUrlAsync(String, Executor)}, but completes on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param url full url of the Assembly.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse}
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> getAssemblyByUrlAsync(String url) {
+        return getAssemblyByUrlAsync(url, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously returns a single assembly. The request is executed on the dispatcher of the client's HTTP engine,
+     * so no thread is blocked while it is in flight.
+     *
+     * @param url full url of the Assembly.
+     * @param executor {@link Executor} that completes the returned future and therefore runs dependent callbacks.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse}, completed exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException} if the request fails.
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> getAssemblyByUrlAsync(String url, Executor executor) {
+        return getAsync(url, ASSEMBLY_RESPONSE, getAssemblyFlights(), executor);
+    }
+
+    /**
+     * Asynchronously cancels a running assembly.
+     * Same as {@link #cancelAssemblyAsync(String, Executor)}, but completes on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param url full url of the Assembly.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse}
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> cancelAssemblyAsync(String url) {
+        return cancelAssemblyAsync(url, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously cancels a running assembly. The request is executed on the dispatcher of the client's HTTP
+     * engine, so no thread is blocked while it is in flight.
+     *
+     * @param url full url of the Assembly.
+     * @param executor {@link Executor} that completes the returned future and therefore runs dependent callbacks.
+     * @return {@link CompletableFuture} of the {@link AssemblyResponse}, completed exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException} if the request fails.
+     * @since 2.3.0
+     */
+    public CompletableFuture<AssemblyResponse> cancelAssemblyAsync(String url, Executor executor) {
+        Request request = new Request(this);
+        return convertAsync(request.deleteAsync(url, new HashMap<String, Object>()), ASSEMBLY_RESPONSE, executor);
+    }
+
+    /**
+     * Asynchronously returns a list of all assemblies under the user account.
+     * Same as {@link #listAssembliesAsync(Map, Executor)}, but completes on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param options {@link Map} extra options to send along with the request.
+     * @return {@link CompletableFuture} of the {@link ListResponse}
+     * @since 2.3.0
+     */
+    public CompletableFuture<ListResponse> listAssembliesAsync(Map<String, Object> options) {
+        return listAssembliesAsync(options, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously returns a list of all assemblies under the user account. The request is executed on the
+     * dispatcher of the client's HTTP engine, so no thread is blocked while it is in flight.
+     *
+     * @param options {@link Map} extra options to send along with the request.
+     * @param executor {@link Executor} that completes the returned future and therefore runs dependent callbacks.
+     * @return {@link CompletableFuture} of the {@link ListResponse}, completed exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException} if the request fails.
+     * @since 2.3.0
+     */
+    public CompletableFuture<ListResponse> listAssembliesAsync(Map<String, Object> options, Executor executor) {
+        Request request = new Request(this);
+        return convertAsync(request.getAsync("/assemblies", options), LIST_RESPONSE, executor);
+    }
+
     /**
      * Returns a Template instance that can be used to create a new template.
      * @param name name of the template.
@@ -404,8 +612,53 @@ public class Transloadit {
      * @throws LocalOperationException if something goes wrong while running non-http operations.
      */
     public Response getTemplate(String id) throws RequestException, LocalOperationException {
-        Request request = new Request(this);
-        return new Response(request.get("/templates/" + id));
+        TemplateCache cache = templateCache;
+        if (cache == null) {
+            return get("/templates/" + id, RESPONSE, getTemplateFlights());
+        }
+        TemplateCache.Lookup<Response> lookup = cache.lookupTemplate(id, RESPONSE);
+        Response cached = lookup.getFresh();
+        if (cached != null) {
+            return cached;
+        }
+        return get("/templates/" + id, lookup.getValidators(), lookup, getTemplateFlights());
+    }
+
+    /**
+     * Asynchronously returns a single template.
+     * Same as {@link #getTemplateAsync(String, Executor)}, but completes on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param id id of the template to retrieve.
+     * @return {@link CompletableFuture} of the {@link Response}
+     * @since 2.3.0
+     */
+    public CompletableFuture<Response> getTemplateAsync(String id) {
+        return getTemplateAsync(id, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously returns a single template. The request is executed on the dispatcher of the client's HTTP
+     * engine, so no thread is blocked while it is in flight.
+     *
+     * @param id id of the template to retrieve.
+     * @param executor {@link Executor} that completes the returned future and therefore runs dependent callbacks.
+     * @return {@link CompletableFuture} of the {@link Response}, completed exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException} if the request fails.
+     * @since 2.3.0
+     */
+    public CompletableFuture<Response> getTemplateAsync(String id, Executor executor) {
+        TemplateCache cache = templateCache;
+        if (cache == null) {
+            return getAsync("/templates/" + id, RESPONSE, getTemplateFlights(), executor);
+        }
+        TemplateCache.Lookup<Response> lookup = cache.lookupTemplate(id, RESPONSE);
+        Response cached = lookup.getFresh();
+        if (cached != null) {
+            CompletableFuture<Response> result = new CompletableFuture<Response>();
+            completeOn(executor, result, cached, null);
+            return result;
+        }
+        return getAsync("/templates/" + id, lookup.getValidators(), lookup, getTemplateFlights(), executor);
     }
 
     /**
@@ -421,7 +674,11 @@ public class Transloadit {
     public Response updateTemplate(String id, Map<String, Object> options)
             throws RequestException, LocalOperationException {
         Request request = new Request(this);
-        return new Response(request.put("/templates/" + id, options));
+        try {
+            return new Response(request.put("/templates/" + id, options));
+        } finally {
+            invalidateTemplateCache(id);
+        }
     }
 
     /**
@@ -436,7 +693,11 @@ public class Transloadit {
     public Response deleteTemplate(String id)
             throws RequestException, LocalOperationException {
         Request request = new Request(this);
-        return new Response(request.delete("/templates/" + id, new HashMap<String, Object>()));
+        try {
+            return new Response(request.delete("/templates/" + id, new HashMap<String, Object>()));
+        } finally {
+            invalidateTemplateCache(id);
+        }
     }
 
     /**
@@ -450,8 +711,18 @@ public class Transloadit {
      */
     public ListResponse listTemplates(Map<String, Object> options)
             throws RequestException, LocalOperationException {
+        TemplateCache cache = templateCache;
+        if (cache == null) {
+            Request request = new Request(this);
+            return new ListResponse(request.get("/templates", options));
+        }
+        TemplateCache.Lookup<ListResponse> lookup = cache.lookupList(new JSONObject(options).toString(), LIST_RESPONSE);
+        ListResponse cached = lookup.getFresh();
+        if (cached != null) {
+            return cached;
+        }
         Request request = new Request(this);
-        return new ListResponse(request.get("/templates", options));
+        return lookup.convert(request.get("/templates", options, lookup.getValidators()));
     }
 
     /**
@@ -467,6 +738,45 @@ public class Transloadit {
         return listTemplates(new HashMap<String, Object>());
     }
 
+    /**
+     * Asynchronously returns a list of all templates under the user account.
+     * Same as {@link #listTemplatesAsync(Map, Executor)}, but completes on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param options {@link Map} extra options to send along with the request.
+     * @return {@link CompletableFuture} of the {@link ListResponse}
+     * @since 2.3.0
+     */
+    public CompletableFuture<ListResponse> listTemplatesAsync(Map<String, Object> options) {
+        return listTemplatesAsync(options, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Asynchronously returns a list of all templates under the user account. The request is executed on the
+     * dispatcher of the client's HTTP engine, so no thread is blocked while it is in flight.
+     *
+     * @param options {@link Map} extra options to send along with the request.
+     * @param executor {@link Executor} that completes the returned future and therefore runs dependent callbacks.
+     * @return {@link CompletableFuture} of the {@link ListResponse}, completed exceptionally with a
+     * {@link RequestException} or {@link LocalOperationException} if the request fails.
+     * @since 2.3.0
+     */
+    public CompletableFuture<ListResponse> listTemplatesAsync(Map<String, Object> options, Executor executor) {
+        TemplateCache cache = templateCache;
+        if (cache == null) {
+            Request request = new Request(this);
+            return convertAsync(request.getAsync("/templates", options), LIST_RESPONSE, executor);
+        }
+        TemplateCache.Lookup<ListResponse> lookup = cache.lookupList(new JSONObject(options).toString(), LIST_RESPONSE);
+        ListResponse cached = lookup.getFresh();
+        if (cached != null) {
+            CompletableFuture<ListResponse> result = new CompletableFuture<ListResponse>();
+            completeOn(executor, result, cached, null);
+            return result;
+        }
+        Request request = new Request(this);
+        return convertAsync(request.getAsync("/templates", options, lookup.getValidators()), lookup, executor);
+    }
+
     /**
      * Returns the bill for the month specified.
      *
@@ -526,81 +836,1489 @@ public class Transloadit {
     }
 
     /**
-     * Construct a signed Smart CDN URL.
-     * See the <a href="https://transloadit.com/docs/topics/signature-authentication/#smart-cdn">API documentation</a>.
-     * Same as {@link Transloadit#getSignedSmartCDNUrl(String, String, String, Map, long)}, but with an expiration in 1 hour.
-     *
-     * @param workspace Workspace slug
-     * @param template Template slug or template ID
-     * @param input Input value that is provided as ${fields.input} in the template
-     * @param urlParams Additional parameters for the URL query string (optional)
-     * @return The signed Smart CDN URL
-     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     * Returns the maximum number of idle connections kept in the connection pool shared by all requests of this
+     * client.
+     * @return maximum number of idle connections
+     * @since 2.3.0
      */
-    public String getSignedSmartCDNUrl(@NotNull String workspace, @NotNull String template, @NotNull String input,
-                                       @Nullable Map<String, List<String>> urlParams) throws LocalOperationException {
-        // 1 hours default expiration
-        long expiresAt = Instant.now().toEpochMilli() + 60 * 60 * 1000;
-        return getSignedSmartCDNUrl(workspace, template, input, urlParams, expiresAt);
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
     }
 
     /**
-     * Construct a signed Smart CDN URL.
-     * See the <a href="https://transloadit.com/docs/topics/signature-authentication/#smart-cdn">API documentation</a>.
-     *
-     * @param workspace Workspace slug
-     * @param template Template slug or template ID
-     * @param input Input value that is provided as ${fields.input} in the template
-     * @param urlParams Additional parameters for the URL query string (optional)
-     * @param expiresAt Expiration timestamp of the signature in milliseconds since the UNIX epoch.
-     * @return The signed Smart CDN URL
-     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     * Sets the maximum number of idle connections kept in the connection pool shared by all requests of this client.
+     * Default value is 5 connections.
+     * @param maxIdleConnections maximum number of idle connections
+     * @throws LocalOperationException if provided number is negative
+     * @since 2.3.0
      */
-    public String getSignedSmartCDNUrl(@NotNull String workspace, @NotNull String template, @NotNull String input,
-                                       @Nullable Map<String, List<String>> urlParams, long expiresAt) throws LocalOperationException {
+    public void setMaxIdleConnections(int maxIdleConnections) throws LocalOperationException {
+        if (maxIdleConnections < 0) {
+            throw new LocalOperationException("No negative number of idle connections possible.");
+        }
+        this.maxIdleConnections = maxIdleConnections;
+        resetHttpClient();
+    }
 
-        try {
-            if (this.secret == null) {
-                throw new LocalOperationException("Cannot sign Smart CDN URLs without a secret");
-            }
+    /**
+     * Returns the time in milliseconds an idle connection is kept alive in the connection pool.
+     * @return keep-alive duration in ms
+     * @since 2.3.0
+     */
+    public long getKeepAliveDuration() {
+        return keepAliveDuration;
+    }
 
-            String workspaceSlug = URLEncoder.encode(workspace, StandardCharsets.UTF_8.name());
-            String templateSlug = URLEncoder.encode(template, StandardCharsets.UTF_8.name());
-            String inputField = URLEncoder.encode(input, StandardCharsets.UTF_8.name());
+    /**
+     * Sets the time in milliseconds an idle connection is kept alive in the connection pool.
+     * Default value is 5 minutes.
+     * @param keepAliveDuration keep-alive duration in ms
+     * @throws LocalOperationException if provided duration is not greater than 0
+     * @since 2.3.0
+     */
+    public void setKeepAliveDuration(long keepAliveDuration) throws LocalOperationException {
+        if (keepAliveDuration <= 0) {
+            throw new LocalOperationException("Keep-alive duration invalid. Values > 0 are expected");
+        }
+        this.keepAliveDuration = keepAliveDuration;
+        resetHttpClient();
+    }
 
-            // Use TreeMap to ensure keys in URL params are sorted.
-            SortedMap<String, List<String>> params = new TreeMap<>();
-            if (urlParams != null) {
-                params.putAll(urlParams);
-            }
-            params.put("auth_key", Collections.singletonList(this.key));
-            params.put("exp", Collections.singletonList(String.valueOf(expiresAt)));
-
-            List<String> queryParts = new ArrayList<>(params.size());
-            for (Map.Entry<String, List<String>> entry : params.entrySet()) {
-                String key = entry.getKey();
-                for (String value : entry.getValue()) {
-                    queryParts.add(URLEncoder.encode(key, StandardCharsets.UTF_8.name()) + "=" + URLEncoder.encode(
-                            value, StandardCharsets.UTF_8.name()));
-                }
-            }
+    /**
+     * Returns the maximum number of requests the dispatcher of this client executes concurrently.
+     * @return maximum number of concurrent requests
+     * @since 2.3.0
+     */
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * Sets the maximum number of requests the dispatcher of this client executes concurrently.
+     * Default value is 64 requests.
+     * @param maxRequests maximum number of concurrent requests
+     * @throws LocalOperationException if provided number is smaller than 1
+     * @since 2.3.0
+     */
+    public void setMaxRequests(int maxRequests) throws LocalOperationException {
+        if (maxRequests < 1) {
+            throw new LocalOperationException("Maximum number of requests invalid. Values > 0 are expected");
+        }
+        this.maxRequests = maxRequests;
+        resetHttpClient();
+    }
+
+    /**
+     * Returns the maximum number of requests the dispatcher of this client executes concurrently per host.
+     * @return maximum number of concurrent requests per host
+     * @since 2.3.0
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * Sets the maximum number of requests the dispatcher of this client executes concurrently per host.
+     * Default value is 5 requests.
+     * @param maxRequestsPerHost maximum number of concurrent requests per host
+     * @throws LocalOperationException if provided number is smaller than 1
+     * @since 2.3.0
+     */
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) throws LocalOperationException {
+        if (maxRequestsPerHost < 1) {
+            throw new LocalOperationException("Maximum number of requests per host invalid. Values > 0 are expected");
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        resetHttpClient();
+    }
+
+    /**
+     * Returns the connect timeout in milliseconds applied to requests of this client.
+     * @return connect timeout in ms
+     * @since 2.3.0
+     */
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the connect timeout in milliseconds applied to requests of this client. A value of 0 means no timeout.
+     * Default value is 10 seconds.
+     * @param connectTimeout connect timeout in ms
+     * @throws LocalOperationException if provided timeout is smaller than 0
+     * @since 2.3.0
+     */
+    public void setConnectTimeout(long connectTimeout) throws LocalOperationException {
+        if (connectTimeout < 0) {
+            throw new LocalOperationException("Timeout invalid. Values >= 0 are expected");
+        }
+        this.connectTimeout = connectTimeout;
+        resetHttpClient();
+    }
+
+    /**
+     * Returns the read timeout in milliseconds applied to requests of this client.
+     * @return read timeout in ms
+     * @since 2.3.0
+     */
+    public long getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the read timeout in milliseconds applied to requests of this client. A value of 0 means no timeout.
+     * Default value is 10 seconds.
+     * @param readTimeout read timeout in ms
+     * @throws LocalOperationException if provided timeout is smaller than 0
+     * @since 2.3.0
+     */
+    public void setReadTimeout(long readTimeout) throws LocalOperationException {
+        if (readTimeout < 0) {
+            throw new LocalOperationException("Timeout invalid. Values >= 0 are expected");
+        }
+        this.readTimeout = readTimeout;
+        resetHttpClient();
+    }
+
+    /**
+     * Returns the write timeout in milliseconds applied to requests of this client.
+     * @return write timeout in ms
+     * @since 2.3.0
+     */
+    public long getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    /**
+     * Sets the write timeout in milliseconds applied to requests of this client. A value of 0 means no timeout.
+     * Default value is 10 seconds.
+     * @param writeTimeout write timeout in ms
+     * @throws LocalOperationException if provided timeout is smaller than 0
+     * @since 2.3.0
+     */
+    public void setWriteTimeout(long writeTimeout) throws LocalOperationException {
+        if (writeTimeout < 0) {
+            throw new LocalOperationException("Timeout invalid. Values >= 0 are expected");
+        }
+        this.writeTimeout = writeTimeout;
+        resetHttpClient();
+    }
+
+    /**
+     * Returns the maximum number of requests per second this client sends to the API.
+     * @return requests per second, 0 if the rate is only limited after the server signals a rate limit
+     * @since 2.3.0
+     */
+    public double getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of requests per second this client sends to the API, shared by all threads.
+     * Requests exceeding the rate wait for their turn. Independent of this setting, the rate is halved whenever the
+     * server responds with "RATE_LIMIT_REACHED", and all requests of the client are held back for the window the
+     * server asks for; afterwards the rate recovers gradually. A value of 0, the default, does not limit the rate
+     * until the server signals a rate limit. Changing the value keeps a pause or backoff in progress.
+     * @param maxRequestsPerSecond requests per second
+     * @throws LocalOperationException if provided value is smaller than 0
+     * @since 2.3.0
+     */
+    public void setMaxRequestsPerSecond(double maxRequestsPerSecond) throws LocalOperationException {
+        if (maxRequestsPerSecond < 0 || Double.isNaN(maxRequestsPerSecond)) {
+            throw new LocalOperationException("Rate invalid. Values >= 0 are expected");
+        }
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        rateLimiter.setMaxRate(maxRequestsPerSecond);
+    }
+
+    /**
+     * Returns the rate limiter shared by all {@link Request Requests} of this Transloadit instance.
+     * @return {@link RateLimiter}
+     */
+    RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the policy deciding about retries of failed requests.
+     * @return {@link RetryPolicy}, or {@code null} if the retry settings of this client are used
+     * @since 2.3.0
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the policy deciding about retries of failed requests, e.g. an {@link ExponentialBackoffRetryPolicy}.
+     * A policy replaces the retry settings {@link #setRetryAttemptsRateLimit(int)},
+     * {@link #setRetryAttemptsRequestException(int)}, {@link #setQualifiedErrorsForRetry(ArrayList)} and
+     * {@link #setRetryDelay(int)}, and its retries are limited by the retry budget of this client, see
+     * {@link #setRetryBudget(double, int)}. Default value is {@code null}, which keeps the retry settings in effect.
+     * @param retryPolicy {@link RetryPolicy}, or {@code null}
+     * @since 2.3.0
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the share of requests which may be retried according to the {@link RetryPolicy}.
+     * @return ratio of retries to requests
+     * @since 2.3.0
+     */
+    public double getRetryBudgetRatio() {
+        return retryBudget.getRatio();
+    }
+
+    /**
+     * Returns the number of retries which are available to the {@link RetryPolicy} independent of the number of
+     * requests sent.
+     * @return number of retries
+     * @since 2.3.0
+     */
+    public int getRetryBudgetReserve() {
+        return retryBudget.getReserve();
+    }
+
+    /**
+     * Limits the retries made according to the {@link RetryPolicy}, shared by all threads. Every request adds the
+     * given ratio to the budget and every retry takes one from it, so a failing server receives at most that share of
+     * additional requests. The balance is capped at the reserve, which is available from the start.
+     * Default values are a ratio of 0.2 and a reserve of 10 retries.
+     * @param ratio share of requests which may be retried, e.g. 0.2 for 20 %
+     * @param reserve maximum number of retries available at once
+     * @throws LocalOperationException if provided ratio or reserve is smaller than 0
+     * @since 2.3.0
+     */
+    public void setRetryBudget(double ratio, int reserve) throws LocalOperationException {
+        if (ratio < 0 || Double.isNaN(ratio) || reserve < 0) {
+            throw new LocalOperationException("Retry budget invalid. Values >= 0 are expected");
+        }
+        this.retryBudget = new RetryBudget(ratio, reserve);
+    }
+
+    /**
+     * Returns the retry budget shared by all {@link Request Requests} of this Transloadit instance.
+     * @return {@link RetryBudget}
+     */
+    RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Returns whether requests of this client are guarded by circuit breakers.
+     * @return true if circuit breakers are enabled
+     * @since 2.3.0
+     */
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    /**
+     * Enables circuit breakers, which stop sending requests to the API while it keeps failing. Every host and
+     * endpoint class (Assemblies, Templates, tus uploads) gets its own breaker. Once too many of the recent requests
+     * have failed with an exception or a server error, or have been too slow, the breaker opens and requests fail
+     * immediately with a {@link com.transloadit.sdk.exceptions.CircuitBreakerOpenException}. After the open
+     * duration a few trial requests are let through, which close the breaker again if they succeed.
+     * Default value is false.
+     * @param circuitBreakerEnabled true to enable circuit breakers
+     * @since 2.3.0
+     */
+    public void setCircuitBreakerEnabled(boolean circuitBreakerEnabled) {
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+        circuitBreakers.clear();
+    }
+
+    /**
+     * Returns the share of failed requests which opens a circuit breaker.
+     * @return failure rate between 0 and 1
+     * @since 2.3.0
+     */
+    public double getCircuitBreakerFailureRateThreshold() {
+        return circuitBreakerFailureRateThreshold;
+    }
 
-            String queryString = String.join("&", queryParts);
-            String stringToSign = workspaceSlug + "/" + templateSlug + "/" + inputField + "?" + queryString;
+    /**
+     * Sets the share of failed requests among the recent requests which opens a circuit breaker.
+     * Default value is 0.5.
+     * @param failureRateThreshold failure rate greater than 0 and at most 1
+     * @throws LocalOperationException if provided value is not within that range
+     * @since 2.3.0
+     */
+    public void setCircuitBreakerFailureRateThreshold(double failureRateThreshold) throws LocalOperationException {
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new LocalOperationException("Failure rate invalid. Values > 0 and <= 1 are expected");
+        }
+        this.circuitBreakerFailureRateThreshold = failureRateThreshold;
+        circuitBreakers.clear();
+    }
 
-            Mac hmac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKey = new SecretKeySpec(
-                this.secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            hmac.init(secretKey);
-            byte[] signatureBytes = hmac.doFinal(stringToSign.getBytes());
-            byte[] signatureHexBytes = new Hex().encode((signatureBytes));
-            String signature = "sha256:" + new String(signatureHexBytes, StandardCharsets.UTF_8);
-            String signatureEncoded = URLEncoder.encode(signature, StandardCharsets.UTF_8.name());
+    /**
+     * Returns the duration in milliseconds after which a request counts as failed for the circuit breaker.
+     * @return duration in ms, 0 if the duration of requests is not considered
+     * @since 2.3.0
+     */
+    public long getCircuitBreakerSlowCallThreshold() {
+        return circuitBreakerSlowCallThreshold;
+    }
 
-            return "https://" + workspaceSlug + ".tlcdn.com/" + templateSlug + "/"
-                    + inputField + "?" + queryString + "&sig=" + signatureEncoded;
-        } catch (UnsupportedEncodingException | NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new LocalOperationException("Failed to create signature: " + e.getMessage());
+    /**
+     * Sets the duration in milliseconds after which a request counts as failed for the circuit breaker, even if it
+     * succeeds eventually. A value of 0 does not consider the duration of requests. Default value is 5 seconds.
+     * @param slowCallThreshold duration in ms
+     * @throws LocalOperationException if provided duration is smaller than 0
+     * @since 2.3.0
+     */
+    public void setCircuitBreakerSlowCallThreshold(long slowCallThreshold) throws LocalOperationException {
+        if (slowCallThreshold < 0) {
+            throw new LocalOperationException("Duration invalid. Values >= 0 are expected");
         }
+        this.circuitBreakerSlowCallThreshold = slowCallThreshold;
+        circuitBreakers.clear();
+    }
+
+    /**
+     * Returns the duration in milliseconds an open circuit breaker rejects requests.
+     * @return duration in ms
+     * @since 2.3.0
+     */
+    public long getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * Sets the duration in milliseconds an open circuit breaker rejects requests before it lets trial requests
+     * through. Default value is 30 seconds.
+     * @param openDuration duration in ms
+     * @throws LocalOperationException if provided duration is smaller than 0
+     * @since 2.3.0
+     */
+    public void setCircuitBreakerOpenDuration(long openDuration) throws LocalOperationException {
+        if (openDuration < 0) {
+            throw new LocalOperationException("Duration invalid. Values >= 0 are expected");
+        }
+        this.circuitBreakerOpenDuration = openDuration;
+        circuitBreakers.clear();
+    }
+
+    /**
+     * Returns the circuit breaker guarding requests to an endpoint class of a host.
+     * @param host host of the request
+     * @param port port of the request
+     * @param endpointClass endpoint class, see {@link CircuitBreaker#getEndpointClass(String)}
+     * @return {@link CircuitBreaker}, or {@code null} if circuit breakers are disabled
+     */
+    @Nullable
+    CircuitBreaker getCircuitBreaker(String host, int port, String endpointClass) {
+        if (!circuitBreakerEnabled) {
+            return null;
+        }
+        String name = host + ":" + port + "/" + endpointClass;
+        CircuitBreaker breaker = circuitBreakers.get(name);
+        if (breaker == null) {
+            breaker = new CircuitBreaker(name, circuitBreakerFailureRateThreshold, circuitBreakerSlowCallThreshold,
+                    circuitBreakerOpenDuration);
+            CircuitBreaker existing = circuitBreakers.putIfAbsent(name, breaker);
+            if (existing != null) {
+                breaker = existing;
+            }
+        }
+        return breaker;
+    }
+
+    /**
+     * Returns whether concurrent identical requests for an Assembly or Template share a single call.
+     * @return true if request coalescing is enabled
+     * @since 2.3.0
+     */
+    public boolean isRequestCoalescingEnabled() {
+        return requestCoalescingEnabled;
+    }
+
+    /**
+     * Enables request coalescing: concurrent calls of {@link #getAssembly(String)},
+     * {@link #getAssemblyByUrl(String)} and {@link #getTemplate(String)} (and their asynchronous variants) for the
+     * same resource share one request. Every caller receives its own copy of the response, so changes made to its
+     * parsed JSON are not visible to the others. Callers arriving within the freshness window after the request has succeeded, see
+     * {@link #setRequestCoalescingFreshness(long)}, receive its response too. Failed requests are only shared with
+     * the callers already waiting for them. Default value is false.
+     * @param requestCoalescingEnabled true to enable request coalescing
+     * @since 2.3.0
+     */
+    public synchronized void setRequestCoalescingEnabled(boolean requestCoalescingEnabled) {
+        this.requestCoalescingEnabled = requestCoalescingEnabled;
+    }
+
+    /**
+     * Returns the time in milliseconds the response of a coalesced request is reused.
+     * @return freshness window in ms
+     * @since 2.3.0
+     */
+    public long getRequestCoalescingFreshness() {
+        return requestCoalescingFreshness;
+    }
+
+    /**
+     * Sets the time in milliseconds the response of a coalesced request is reused for identical requests after it
+     * has arrived. A value of 0, the default, only shares requests which are in flight.
+     * @param requestCoalescingFreshness freshness window in ms
+     * @throws LocalOperationException if provided value is smaller than 0
+     * @since 2.3.0
+     */
+    public void setRequestCoalescingFreshness(long requestCoalescingFreshness) throws LocalOperationException {
+        if (requestCoalescingFreshness < 0) {
+            throw new LocalOperationException("Freshness invalid. Values >= 0 are expected");
+        }
+        this.requestCoalescingFreshness = requestCoalescingFreshness;
+    }
+
+    /**
+     * Returns the maximum number of cached template responses.
+     * @return maximum number of single templates and of template lists, each; 0 if the cache is disabled
+     * @since 2.3.0
+     */
+    public int getTemplateCacheSize() {
+        return templateCacheSize;
+    }
+
+    /**
+     * Enables a cache for {@link #getTemplate(String)} and {@link #listTemplates(Map)} (and their asynchronous
+     * variants), holding up to the given number of single templates and of template lists. Cached responses are
+     * served until the time to live set with {@link #setTemplateCacheTtl(long)} has passed; afterwards they are
+     * revalidated with a conditional request if the server has provided an "ETag" or "Last-Modified" header.
+     * Templates changed through this client, with {@link #updateTemplate(String, Map)},
+     * {@link #deleteTemplate(String)} or {@link Template#save()}, are removed from the cache, changes made elsewhere
+     * become visible once the time to live has passed. Changing the size empties the cache.
+     * A value of 0, the default, disables the cache.
+     * @param templateCacheSize maximum number of entries
+     * @throws LocalOperationException if provided size is smaller than 0
+     * @since 2.3.0
+     */
+    public synchronized void setTemplateCacheSize(int templateCacheSize) throws LocalOperationException {
+        if (templateCacheSize < 0) {
+            throw new LocalOperationException("Cache size invalid. Values >= 0 are expected");
+        }
+        this.templateCacheSize = templateCacheSize;
+        this.templateCache = templateCacheSize == 0 ? null : new TemplateCache(templateCacheSize, templateCacheTtl);
+    }
+
+    /**
+     * Returns the time in milliseconds a cached template response is served without revalidation.
+     * @return time to live in ms
+     * @since 2.3.0
+     */
+    public long getTemplateCacheTtl() {
+        return templateCacheTtl;
+    }
+
+    /**
+     * Sets the time in milliseconds a cached template response is served without revalidation.
+     * Changing the time to live empties the cache. Default value is 60 seconds.
+     * @param templateCacheTtl time to live in ms
+     * @throws LocalOperationException if provided value is smaller than 1
+     * @since 2.3.0
+     */
+    public synchronized void setTemplateCacheTtl(long templateCacheTtl) throws LocalOperationException {
+        if (templateCacheTtl < 1) {
+            throw new LocalOperationException("Time to live invalid. Values >= 1 are expected");
+        }
+        this.templateCacheTtl = templateCacheTtl;
+        if (templateCacheSize > 0) {
+            this.templateCache = new TemplateCache(templateCacheSize, templateCacheTtl);
+        }
+    }
+
+    /**
+     * Returns the hit, miss and revalidation counters of the template cache.
+     * @return {@link TemplateCacheStatistics}, all zero if the cache is disabled
+     * @since 2.3.0
+     */
+    public TemplateCacheStatistics getTemplateCacheStatistics() {
+        TemplateCache cache = templateCache;
+        return cache == null ? new TemplateCacheStatistics(0, 0, 0, 0) : cache.getStatistics();
+    }
+
+    /**
+     * Removes all responses from the template cache, e.g. after templates have been changed outside of this client.
+     * @since 2.3.0
+     */
+    public void clearTemplateCache() {
+        TemplateCache cache = templateCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Removes a template changed through this client and all template lists from the template cache.
+     * @param id id of the changed template, or {@code null} if a template has been created
+     */
+    void invalidateTemplateCache(@Nullable String id) {
+        TemplateCache cache = templateCache;
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Returns whether GET requests of this client are hedged.
+     * @return true if hedging is enabled
+     * @since 2.3.0
+     */
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    /**
+     * Enables hedging of GET requests, e.g. of {@link #getAssemblyByUrl(String)} while waiting for an Assembly to
+     * complete. If a GET request has not been answered within the hedge delay, the same request is sent again on a
+     * separate connection; whichever answers first is used and the other one is cancelled. The hedge delay is the
+     * latency percentile set with {@link #setHedgeDelayPercentile(double)}, so only the slowest requests are sent
+     * twice. See {@link #getHedgeStatistics()} for how often hedge requests are sent and win.
+     * Default value is false.
+     * @param hedgingEnabled true to enable hedging
+     * @since 2.3.0
+     */
+    public void setHedgingEnabled(boolean hedgingEnabled) {
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    /**
+     * Returns the percentile of recent GET latencies after which a hedge request is sent.
+     * @return percentile
+     * @since 2.3.0
+     */
+    public double getHedgeDelayPercentile() {
+        return hedgeDelayPercentile;
+    }
+
+    /**
+     * Sets the percentile of recent GET latencies after which a hedge request is sent. With the default value of 95,
+     * about one in twenty GET requests is sent twice.
+     * @param hedgeDelayPercentile percentile greater than 0 and smaller than 100
+     * @throws LocalOperationException if provided value is not within that range
+     * @since 2.3.0
+     */
+    public void setHedgeDelayPercentile(double hedgeDelayPercentile) throws LocalOperationException {
+        if (!(hedgeDelayPercentile > 0 && hedgeDelayPercentile < 100)) {
+            throw new LocalOperationException("Percentile invalid. Values > 0 and < 100 are expected");
+        }
+        synchronized (this) {
+            this.hedgeDelayPercentile = hedgeDelayPercentile;
+            if (requestHedger != null) {
+                requestHedger.setPercentile(hedgeDelayPercentile);
+            }
+        }
+    }
+
+    /**
+     * Returns how many GET requests have been hedged and how often the hedge request has answered first.
+     * @return {@link HedgeStatistics}
+     * @since 2.3.0
+     */
+    public synchronized HedgeStatistics getHedgeStatistics() {
+        return requestHedger == null ? new HedgeStatistics(0, 0, 0, -1) : requestHedger.getStatistics();
+    }
+
+    /**
+     * Returns the hedger of GET requests of this Transloadit instance.
+     * @return {@link RequestHedger}, or {@code null} if hedging is disabled
+     */
+    @Nullable
+    RequestHedger getRequestHedger() {
+        if (!hedgingEnabled) {
+            return null;
+        }
+        RequestHedger hedger = requestHedger;
+        if (hedger == null) {
+            synchronized (this) {
+                hedger = requestHedger;
+                if (hedger == null) {
+                    hedger = new RequestHedger(this, hedgeDelayPercentile);
+                    requestHedger = hedger;
+                }
+            }
+        }
+        return hedger;
+    }
+
+    /**
+     * Prepares the connections of this client ahead of the first request. The host names of the API and of the
+     * upload hosts are resolved, and {@link #getWarmUpConnections()} connections are opened to each of them, so the
+     * first requests and tus uploads skip the DNS lookup and the TCP and TLS handshakes. Upload hosts handed out by
+     * Assemblies of this client are remembered and warmed up as well. If a keep-alive ping interval is set, the
+     * connections are kept alive with lightweight requests afterwards.
+     * The method blocks until all connections are opened or the connect and read timeout have passed; failures are
+     * not thrown but counted in {@link #getConnectionStatistics()}.
+     * @param uploadUrls additional tus endpoints to warm up, e.g. from {@link AssemblyResponse#getTusUrl()}
+     * @throws LocalOperationException if the thread is interrupted while waiting
+     * @since 2.3.0
+     */
+    public void warmUp(String... uploadUrls) throws LocalOperationException {
+        for (String uploadUrl : uploadUrls) {
+            this.uploadUrls.putIfAbsent(uploadUrl, Proxy.NO_PROXY);
+        }
+        if (this.uploadUrls.isEmpty()) {
+            this.uploadUrls.putIfAbsent(getHostUrl() + "/resumable/files/", Proxy.NO_PROXY);
+        }
+        connectionWarmer.warmUp(getHttpClient(), getDiscoveryExecutor(), getHostUrl(), this.uploadUrls,
+                getWarmUpConnectionsPerHost(), connectTimeout + readTimeout);
+        synchronized (this) {
+            warmedUp = true;
+            schedulePings();
+        }
+    }
+
+    /**
+     * Returns the number of connections {@link #warmUp(String...)} opens per host.
+     * @return number of connections
+     * @since 2.3.0
+     */
+    public int getWarmUpConnections() {
+        return warmUpConnections;
+    }
+
+    /**
+     * Sets the number of connections {@link #warmUp(String...)} opens per host. It is capped by
+     * {@link #setMaxRequestsPerHost(int)} and {@link #setMaxIdleConnections(int)}. Default value is 2 connections.
+     * @param warmUpConnections number of connections
+     * @throws LocalOperationException if provided number is smaller than 1
+     * @since 2.3.0
+     */
+    public void setWarmUpConnections(int warmUpConnections) throws LocalOperationException {
+        if (warmUpConnections < 1) {
+            throw new LocalOperationException("Number of warm-up connections invalid. Values > 0 are expected");
+        }
+        this.warmUpConnections = warmUpConnections;
+    }
+
+    /**
+     * Returns the time in milliseconds between two keep-alive pings of warmed up connections.
+     * @return ping interval in ms, 0 if pings are disabled
+     * @since 2.3.0
+     */
+    public long getKeepAlivePingInterval() {
+        return keepAlivePingInterval;
+    }
+
+    /**
+     * Sets the time in milliseconds between two keep-alive pings of the connections opened by
+     * {@link #warmUp(String...)}. A ping repeats the warm-up requests without waiting for them, so idle connections
+     * are used before the connection pool or the server closes them. Choose an interval below
+     * {@link #getKeepAliveDuration()} and the server's idle timeout. A value of 0, the default, disables pings.
+     * @param keepAlivePingInterval ping interval in ms
+     * @throws LocalOperationException if provided value is smaller than 0
+     * @since 2.3.0
+     */
+    public synchronized void setKeepAlivePingInterval(long keepAlivePingInterval) throws LocalOperationException {
+        if (keepAlivePingInterval < 0) {
+            throw new LocalOperationException("Ping interval invalid. Values >= 0 are expected");
+        }
+        this.keepAlivePingInterval = keepAlivePingInterval;
+        if (warmedUp) {
+            schedulePings();
+        }
+    }
+
+    /**
+     * Returns the counters of {@link #warmUp(String...)} and the keep-alive pings, together with the current size of
+     * the connection pool.
+     * @return {@link ConnectionStatistics}
+     * @since 2.3.0
+     */
+    public ConnectionStatistics getConnectionStatistics() {
+        return connectionWarmer.getStatistics(getHttpClient());
+    }
+
+    /**
+     * Returns the maximum number of tus uploads the built-in upload executor runs at the same time, across all
+     * Assemblies of this client.
+     * @return maximum number of concurrent uploads
+     * @since 2.3.0
+     */
+    public synchronized int getMaxConcurrentUploads() {
+        return maxConcurrentUploads;
+    }
+
+    /**
+     * Sets the maximum number of tus uploads the built-in upload executor runs at the same time, across all
+     * Assemblies of this client. Further uploads are queued until a running one has finished; the limit of each
+     * Assembly set by {@link Assembly#setMaxParallelUploads(int)} still applies. Paused uploads keep their slot.
+     * Has no effect while an upload executor is set by {@link #setUploadExecutor(ExecutorService)} or virtual threads
+     * are used, see {@link #setVirtualThreadsEnabled(boolean)}. Default value is 16 uploads.
+     * @param maxConcurrentUploads maximum number of concurrent uploads
+     * @throws LocalOperationException if provided number is smaller than 1
+     * @since 2.3.0
+     */
+    public synchronized void setMaxConcurrentUploads(int maxConcurrentUploads) throws LocalOperationException {
+        if (maxConcurrentUploads < 1) {
+            throw new LocalOperationException("Number of concurrent uploads invalid. Values > 0 are expected");
+        }
+        this.maxConcurrentUploads = maxConcurrentUploads;
+        if (uploadPool != null) {
+            resizePool(uploadPool, maxConcurrentUploads);
+        }
+    }
+
+    /**
+     * Returns the maximum number of Assembly status streams (SSE) the built-in event stream executor listens to at
+     * the same time.
+     * @return maximum number of concurrent status streams
+     * @since 2.3.0
+     */
+    public synchronized int getMaxEventStreams() {
+        return maxEventStreams;
+    }
+
+    /**
+     * Sets the maximum number of Assembly status streams (SSE) the built-in event stream executor listens to at the
+     * same time, across all Assemblies of this client. Each stream occupies a thread until its Assembly has finished,
+     * further streams are queued until then. Has no effect while an executor is set by
+     * {@link #setEventStreamExecutor(ExecutorService)} or virtual threads are used, see
+     * {@link #setVirtualThreadsEnabled(boolean)}. Default value is 64 streams.
+     * @param maxEventStreams maximum number of concurrent status streams
+     * @throws LocalOperationException if provided number is smaller than 1
+     * @since 2.3.0
+     */
+    public synchronized void setMaxEventStreams(int maxEventStreams) throws LocalOperationException {
+        if (maxEventStreams < 1) {
+            throw new LocalOperationException("Number of event streams invalid. Values > 0 are expected");
+        }
+        this.maxEventStreams = maxEventStreams;
+        if (eventStreamPool != null) {
+            resizePool(eventStreamPool, maxEventStreams);
+        }
+    }
+
+    /**
+     * Returns whether the built-in upload and event stream executors use virtual threads on Java 21 and newer.
+     * @return {@code true} if virtual threads are enabled
+     * @since 2.3.0
+     */
+    public synchronized boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * Lets the built-in upload and event stream executors run every tus upload worker and Assembly status stream
+     * (SSE) on a new virtual thread. While blocked on I/O, virtual threads release their carrier thread, so
+     * thousands of concurrent Assemblies only occupy as many platform threads as the JDK's virtual thread scheduler
+     * has carriers ({@code jdk.virtualThreadScheduler.parallelism}). {@link #setMaxConcurrentUploads(int)} and
+     * {@link #setMaxEventStreams(int)} do not apply to virtual threads; {@link Assembly#setMaxParallelUploads(int)}
+     * still does. Only has an effect on Java 21 and newer, older versions keep using platform threads.
+     * Built-in executors created before are shut down after their running and queued tasks. Default value is
+     * {@code false}.
+     * @param virtualThreadsEnabled {@code true} to use virtual threads
+     * @since 2.3.0
+     */
+    public synchronized void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+        if (this.virtualThreadsEnabled == virtualThreadsEnabled) {
+            return;
+        }
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        if (uploadPool != null) {
+            uploadPool.shutdown();
+            uploadPool = null;
+        }
+        if (eventStreamPool != null) {
+            eventStreamPool.shutdown();
+            eventStreamPool = null;
+        }
+        if (discoveryPool != null) {
+            discoveryPool.shutdown();
+            discoveryPool = null;
+        }
+    }
+
+    /**
+     * Returns the executor running the tus uploads of all Assemblies of this client.
+     * @return the executor set by {@link #setUploadExecutor(ExecutorService)}, or the built-in upload executor
+     * @since 2.3.0
+     */
+    public synchronized ExecutorService getUploadExecutor() {
+        if (uploadExecutor != null) {
+            return uploadExecutor;
+        }
+        if (uploadPool == null) {
+            uploadPool = newPool("transloadit-upload-", maxConcurrentUploads);
+        }
+        return uploadPool;
+    }
+
+    /**
+     * Sets the executor running the tus uploads of all Assemblies of this client, instead of the built-in upload
+     * executor. Its threads bound the number of concurrent uploads; it is not shut down by the SDK.
+     * @param uploadExecutor executor, or {@code null} to use the built-in upload executor
+     * @since 2.3.0
+     */
+    public synchronized void setUploadExecutor(@Nullable ExecutorService uploadExecutor) {
+        this.uploadExecutor = uploadExecutor;
+    }
+
+    /**
+     * Returns the executor listening to the Assembly status streams (SSE) of all Assemblies of this client.
+     * @return the executor set by {@link #setEventStreamExecutor(ExecutorService)}, or the built-in executor
+     * @since 2.3.0
+     */
+    public synchronized ExecutorService getEventStreamExecutor() {
+        if (eventStreamExecutor != null) {
+            return eventStreamExecutor;
+        }
+        if (eventStreamPool == null) {
+            eventStreamPool = newPool("transloadit-events-", maxEventStreams);
+        }
+        return eventStreamPool;
+    }
+
+    /**
+     * Sets the executor listening to the Assembly status streams (SSE) of all Assemblies of this client, instead of
+     * the built-in executor. Each stream blocks a thread until its Assembly has finished; the executor is not shut
+     * down by the SDK.
+     * @param eventStreamExecutor executor, or {@code null} to use the built-in executor
+     * @since 2.3.0
+     */
+    public synchronized void setEventStreamExecutor(@Nullable ExecutorService eventStreamExecutor) {
+        this.eventStreamExecutor = eventStreamExecutor;
+    }
+
+    /**
+     * Creates a built-in executor. With virtual threads enabled and available it starts a virtual thread for every
+     * task, otherwise it has up to the given number of daemon threads, which end after being idle for a minute, and
+     * queues the tasks exceeding them.
+     * @param namePrefix prefix of the thread names
+     * @param threads maximum number of threads
+     * @return {@link ExecutorService}
+     */
+    private ExecutorService newPool(final String namePrefix, int threads) {
+        if (virtualThreadsEnabled && VirtualThreads.isSupported()) {
+            return VirtualThreads.newExecutor(namePrefix);
+        }
+        final AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Changes the number of threads of a built-in executor, unless it uses virtual threads. Running tasks are not
+     * affected.
+     * @param pool built-in executor
+     * @param threads maximum number of threads
+     */
+    private static void resizePool(ExecutorService pool, int threads) {
+        if (!(pool instanceof ThreadPoolExecutor)) {
+            return;
+        }
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) pool;
+        if (threads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(threads);
+            executor.setCorePoolSize(threads);
+        } else {
+            executor.setCorePoolSize(threads);
+            executor.setMaximumPoolSize(threads);
+        }
+    }
+
+    /**
+     * Returns the built-in executor sending the tus discovery requests of warm-ups and keep-alive pings. It has as
+     * many threads as connections are warmed up per host.
+     * @return {@link ExecutorService}
+     */
+    synchronized ExecutorService getDiscoveryExecutor() {
+        if (discoveryPool == null) {
+            discoveryPool = newPool("transloadit-warmup-", getWarmUpConnectionsPerHost());
+        } else {
+            resizePool(discoveryPool, getWarmUpConnectionsPerHost());
+        }
+        return discoveryPool;
+    }
+
+    /**
+     * Remembers the tus endpoint of an Assembly, so it is included in warm-ups and keep-alive pings.
+     * @param uploadUrl tus endpoint
+     * @param proxy proxy of the Assembly's tus client, {@code null} if it has none
+     */
+    void addUploadUrl(@Nullable String uploadUrl, @Nullable Proxy proxy) {
+        if (uploadUrl != null && !uploadUrl.isEmpty()) {
+            uploadUrls.put(uploadUrl, proxy == null ? Proxy.NO_PROXY : proxy);
+        }
+    }
+
+    /**
+     * Returns the number of warm-up connections per host, capped by the dispatcher and connection pool settings.
+     * @return number of connections
+     */
+    private int getWarmUpConnectionsPerHost() {
+        return Math.min(warmUpConnections, Math.min(maxRequestsPerHost, Math.max(1, maxIdleConnections)));
+    }
+
+    /**
+     * (Re)starts or stops the keep-alive pings according to the current interval.
+     */
+    private synchronized void schedulePings() {
+        if (keepAlivePingInterval > 0) {
+            connectionWarmer.startPings(getScheduler(), this, getHostUrl(), uploadUrls, getWarmUpConnectionsPerHost(),
+                    keepAlivePingInterval);
+        } else {
+            connectionWarmer.stopPings();
+        }
+    }
+
+    /**
+     * Returns the recorder receiving the measurements of this client.
+     * @return {@link MetricsRecorder}, {@link MetricsRecorder#NOOP} if none has been set
+     * @since 2.3.0
+     */
+    public MetricsRecorder getMetricsRecorder() {
+        return metricsRecorder;
+    }
+
+    /**
+     * Sets the recorder receiving the latency and status code of every API request, retries, rate limit waits, tus
+     * upload chunks and reconnects of Assembly status streams, e.g. a {@link HistogramMetricsRecorder}.
+     * Default value is {@link MetricsRecorder#NOOP}, which ignores all measurements.
+     * @param metricsRecorder {@link MetricsRecorder}, or {@code null} to stop recording
+     * @since 2.3.0
+     */
+    public void setMetricsRecorder(@Nullable MetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder == null ? MetricsRecorder.NOOP : metricsRecorder;
+    }
+
+    /**
+     * Returns the tracer creating the spans of this client.
+     * @return {@link Tracer}, {@link Tracer#NOOP} if none has been set
+     * @since 2.3.0
+     */
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Sets the tracer creating spans around saving Assemblies, API requests, tus uploads, the Assembly status stream
+     * and polling for Assembly completion, see {@link Tracer} for the list of spans. Spans of work running on upload
+     * and SSE threads are children of the span of the Assembly they belong to.
+     * Default value is {@link Tracer#NOOP}, which does not create any spans.
+     * @param tracer {@link Tracer}, or {@code null} to stop tracing
+     * @since 2.3.0
+     */
+    public void setTracer(@Nullable Tracer tracer) {
+        this.tracer = tracer == null ? Tracer.NOOP : tracer;
+    }
+
+    /**
+     * Returns the size in bytes from which request bodies are gzip-compressed.
+     * @return threshold in bytes, 0 if compression is disabled
+     * @since 2.3.0
+     */
+    public int getRequestCompressionThreshold() {
+        return requestCompressionThreshold;
+    }
+
+    /**
+     * Gzip-compresses the bodies of POST, PUT and DELETE requests whose size reaches the given threshold, e.g. of
+     * Assemblies with many steps or large fields. Compressed bodies are sent with a "Content-Encoding: gzip" header;
+     * only enable this if the API endpoint you are talking to accepts compressed requests. Requests uploading files
+     * are never compressed. A value of 0, the default, disables compression.
+     * @param requestCompressionThreshold threshold in bytes
+     * @throws LocalOperationException if provided value is smaller than 0
+     * @since 2.3.0
+     */
+    public void setRequestCompressionThreshold(int requestCompressionThreshold) throws LocalOperationException {
+        if (requestCompressionThreshold < 0) {
+            throw new LocalOperationException("Compression threshold invalid. Values >= 0 are expected");
+        }
+        this.requestCompressionThreshold = requestCompressionThreshold;
+    }
+
+    /**
+     * Returns the window in milliseconds the default expiration of Smart CDN URLs is rounded up to.
+     * @return expiry bucket in ms, 0 if rounding is disabled
+     * @since 2.3.0
+     */
+    public long getSmartCdnExpiryBucket() {
+        return smartCdnExpiryBucket;
+    }
+
+    /**
+     * Rounds the default expiration (1 hour) of signed Smart CDN URLs up to the next multiple of the given window.
+     * URLs of the same input then stay identical within the window, so browsers and the CDN can cache them across
+     * page renders; they remain valid for up to 1 hour plus the window. A value of 0 disables rounding, which is the
+     * default. Applies to {@link SmartCdnSigner SmartCdnSigners} created afterwards.
+     * @param expiryBucket window in ms, e.g. 5 * 60 * 1000 for 5 minutes
+     * @throws LocalOperationException if provided window is smaller than 0
+     * @since 2.3.0
+     */
+    public void setSmartCdnExpiryBucket(long expiryBucket) throws LocalOperationException {
+        if (expiryBucket < 0) {
+            throw new LocalOperationException("Expiry bucket invalid. Values >= 0 are expected");
+        }
+        this.smartCdnExpiryBucket = expiryBucket;
+    }
+
+    /**
+     * Returns the maximum number of signed Smart CDN URLs kept by this client.
+     * @return cache size, 0 if caching is disabled
+     * @since 2.3.0
+     */
+    public int getSmartCdnUrlCacheSize() {
+        LruCache<List<String>, String> cache = smartCdnUrlCache;
+        return cache == null ? 0 : cache.getMaxSize();
+    }
+
+    /**
+     * Keeps up to the given number of signed Smart CDN URLs, so signing the same input with the same parameters and
+     * expiration again returns the cached URL instead of computing the signature. Most useful together with
+     * {@link #setSmartCdnExpiryBucket(long)}. The least recently used URLs are evicted first. A value of 0 disables
+     * the cache, which is the default. Applies to {@link SmartCdnSigner SmartCdnSigners} created afterwards.
+     * @param size maximum number of cached URLs
+     * @throws LocalOperationException if provided size is smaller than 0
+     * @since 2.3.0
+     */
+    public void setSmartCdnUrlCacheSize(int size) throws LocalOperationException {
+        if (size < 0) {
+            throw new LocalOperationException("Cache size invalid. Values >= 0 are expected");
+        }
+        this.smartCdnUrlCache = size == 0 ? null : new LruCache<List<String>, String>(size);
+    }
+
+    /**
+     * Returns the HTTP client shared by all {@link Request Requests} of this Transloadit instance.
+     * The client, its connection pool and its dispatcher are built lazily from the configured settings, so
+     * connections to the API are reused across calls instead of being opened for every request.
+     * @return {@link OkHttpClient}
+     */
+    OkHttpClient getHttpClient() {
+        OkHttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    client = buildHttpClient();
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * Builds a new {@link OkHttpClient} from the current connection pool, dispatcher and timeout settings.
+     * @return {@link OkHttpClient}
+     */
+    private OkHttpClient buildHttpClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveDuration, TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .eventListenerFactory(CallTimingListener.factory(this))
+                .connectTimeout(connectTimeout, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeout, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Discards the current HTTP client after a setting has changed, so the next {@link Request} picks up a client
+     * built with the new settings. Idle connections of the discarded pool and of hedge requests are closed, running
+     * calls are not affected.
+     */
+    private synchronized void resetHttpClient() {
+        OkHttpClient client = httpClient;
+        httpClient = null;
+        if (client != null) {
+            client.connectionPool().evictAll();
+        }
+        RequestHedger hedger = requestHedger;
+        if (hedger != null) {
+            hedger.evictConnections();
+        }
+    }
+
+    /**
+     * Releases the threads and idle connections of this client: keep-alive pings are stopped, and the scheduler of
+     * delayed work, the dispatcher threads of the HTTP engine and the built-in upload, event stream and warm-up
+     * executors are shut down once their running and queued tasks, including scheduled retry attempts, have finished.
+     * Executors set by {@link #setUploadExecutor(ExecutorService)} and {@link #setEventStreamExecutor(ExecutorService)}
+     * are not shut down. The client must not be used after it has been closed.
+     * @since 2.3.0
+     */
+    @Override
+    public synchronized void close() {
+        connectionWarmer.stopPings();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (uploadPool != null) {
+            uploadPool.shutdown();
+            uploadPool = null;
+        }
+        if (eventStreamPool != null) {
+            eventStreamPool.shutdown();
+            eventStreamPool = null;
+        }
+        if (discoveryPool != null) {
+            discoveryPool.shutdown();
+            discoveryPool = null;
+        }
+        // The dispatcher threads are not daemon threads and would keep the JVM alive while idle.
+        OkHttpClient client = httpClient;
+        if (client != null) {
+            client.dispatcher().executorService().shutdown();
+        }
+        RequestHedger hedger = requestHedger;
+        if (hedger != null) {
+            hedger.close();
+        }
+        resetHttpClient();
+    }
+
+    /**
+     * Returns the scheduler used to time delayed work of this client, e.g. retry attempts of asynchronous requests.
+     * It runs on a single daemon thread, scheduled tasks are expected to hand off quickly.
+     * @return {@link ScheduledExecutorService}
+     */
+    synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "transloadit-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            scheduler = executor;
+        }
+        return scheduler;
+    }
+
+    /**
+     * Returns the clock formatting the expiry time of the authentication data of this instance's requests.
+     * @return {@link ExpiryClock}
+     */
+    ExpiryClock getExpiryClock() {
+        return expiryClock;
+    }
+
+    /**
+     * Returns the signer for API request parameters, keyed with the secret of this instance.
+     * @return {@link HmacSigner} producing "sha384:" prefixed signatures
+     * @throws LocalOperationException if no secret is configured or the signer cannot be created
+     */
+    HmacSigner getRequestSigner() throws LocalOperationException {
+        HmacSigner signer = requestSigner;
+        if (signer == null) {
+            if (secret == null) {
+                throw new LocalOperationException("Cannot generate signature without a secret or signature provider.");
+            }
+            // Concurrent first calls may create more than one signer, they are interchangeable.
+            signer = new HmacSigner("HmacSHA384", "sha384:", secret);
+            requestSigner = signer;
+        }
+        return signer;
+    }
+
+    /**
+     * Returns the signer for Smart CDN URLs, keyed with the secret of this instance.
+     * @return {@link HmacSigner} producing signatures with a URL encoded "sha256:" prefix
+     * @throws LocalOperationException if no secret is configured or the signer cannot be created
+     */
+    HmacSigner getSmartCdnHmacSigner() throws LocalOperationException {
+        HmacSigner signer = smartCdnSigner;
+        if (signer == null) {
+            if (secret == null) {
+                throw new LocalOperationException("Cannot sign Smart CDN URLs without a secret");
+            }
+            // Concurrent first calls may create more than one signer, they are interchangeable.
+            signer = new HmacSigner("HmacSHA256", "sha256%3A", secret);
+            smartCdnSigner = signer;
+        }
+        return signer;
+    }
+
+    /**
+     * Converts a raw {@link okhttp3.Response} into one of the SDK's response types.
+     * @param <T> the response type
+     */
+    interface ResponseConverter<T> {
+        /**
+         * Converts the raw response. Reads and closes the response body.
+         * @param response {@link okhttp3.Response}
+         * @return the converted response
+         * @throws LocalOperationException if the response body cannot be read
+         */
+        T convert(okhttp3.Response response) throws LocalOperationException;
+
+        /**
+         * Copies a converted response, so a response shared by several callers is never handed out twice and
+         * changes one caller makes to its parsed JSON are not visible to the others.
+         * @param response the converted response
+         * @return a copy with the same status and body
+         */
+        T copy(T response);
+    }
+
+    /**
+     * Sends a GET request for a single resource, sharing the call with concurrent identical requests if request
+     * coalescing is enabled.
+     * @param url url or path of the resource
+     * @param converter converts the raw response
+     * @param flights calls in flight of the resource type, or {@code null} if request coalescing is disabled
+     * @param <T> the response type
+     * @return the converted response
+     * @throws RequestException if request to transloadit server fails.
+     * @throws LocalOperationException if something goes wrong while running non-http operations.
+     */
+    private <T> T get(String url, ResponseConverter<T> converter, @Nullable SingleFlight<T> flights)
+            throws RequestException, LocalOperationException {
+        return get(url, Collections.<String, String>emptyMap(), converter, flights);
+    }
+
+    /**
+     * Sends a GET request for a single resource with additional headers, e.g. to revalidate a cached response,
+     * sharing the call with concurrent identical requests if request coalescing is enabled. The headers of the
+     * caller sending the shared call apply.
+     * @param url url or path of the resource
+     * @param headers headers to add to the request
+     * @param converter converts the raw response
+     * @param flights calls in flight of the resource type, or {@code null} if request coalescing is disabled
+     * @param <T> the response type
+     * @return the converted response
+     * @throws RequestException if request to transloadit server fails.
+     * @throws LocalOperationException if something goes wrong while running non-http operations.
+     */
+    private <T> T get(final String url, final Map<String, String> headers, final ResponseConverter<T> converter,
+                      @Nullable SingleFlight<T> flights) throws RequestException, LocalOperationException {
+        SingleFlight.Loader<T> loader = new SingleFlight.Loader<T>() {
+            @Override
+            public T load() throws RequestException, LocalOperationException {
+                return converter.convert(new Request(Transloadit.this).get(url, new HashMap<String, Object>(),
+                        headers));
+            }
+        };
+        return flights == null ? loader.load() : converter.copy(flights.execute(getCoalescingKey(url),
+                requestCoalescingFreshness, loader));
+    }
+
+    /**
+     * Asynchronously sends a GET request for a single resource, sharing the call with concurrent identical requests
+     * if request coalescing is enabled.
+     * @param url url or path of the resource
+     * @param converter converts the raw response
+     * @param flights calls in flight of the resource type, or {@code null} if request coalescing is disabled
+     * @param executor {@link Executor} that completes the returned future
+     * @param <T> the response type
+     * @return {@link CompletableFuture} of the converted response
+     */
+    private <T> CompletableFuture<T> getAsync(String url, ResponseConverter<T> converter,
+                                              @Nullable SingleFlight<T> flights, Executor executor) {
+        return getAsync(url, Collections.<String, String>emptyMap(), converter, flights, executor);
+    }
+
+    /**
+     * Asynchronously sends a GET request for a single resource with additional headers, e.g. to revalidate a cached
+     * response, sharing the call with concurrent identical requests if request coalescing is enabled. The headers of
+     * the caller sending the shared call apply.
+     * @param url url or path of the resource
+     * @param headers headers to add to the request
+     * @param converter converts the raw response
+     * @param flights calls in flight of the resource type, or {@code null} if request coalescing is disabled
+     * @param executor {@link Executor} that completes the returned future
+     * @param <T> the response type
+     * @return {@link CompletableFuture} of the converted response
+     */
+    private <T> CompletableFuture<T> getAsync(final String url, final Map<String, String> headers,
+                                              final ResponseConverter<T> converter,
+                                              @Nullable SingleFlight<T> flights, Executor executor) {
+        if (flights == null) {
+            Request request = new Request(this);
+            return convertAsync(request.getAsync(url, new HashMap<String, Object>(), headers), converter, executor);
+        }
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        flights.executeAsync(getCoalescingKey(url), requestCoalescingFreshness,
+                new SingleFlight.AsyncLoader<T>() {
+                    @Override
+                    public CompletableFuture<T> load() {
+                        Request request = new Request(Transloadit.this);
+                        return convertAsync(request.getAsync(url, new HashMap<String, Object>(), headers), converter,
+                                DIRECT_EXECUTOR);
+                    }
+                }, DIRECT_EXECUTOR).whenComplete(new BiConsumer<T, Throwable>() {
+                    @Override
+                    public void accept(T response, Throwable throwable) {
+                        completeOn(executor, result, response == null ? null : converter.copy(response), throwable);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Returns the key identical GET requests are coalesced by.
+     * @param url url or path of the resource
+     * @return full url of the resource
+     */
+    private String getCoalescingKey(String url) {
+        return url.startsWith("https://") || url.startsWith("http://") ? url : hostUrl + url;
+    }
+
+    /**
+     * Returns the Assembly requests in flight.
+     * @return {@link SingleFlight}, or {@code null} if request coalescing is disabled
+     */
+    @Nullable
+    private synchronized SingleFlight<AssemblyResponse> getAssemblyFlights() {
+        if (!requestCoalescingEnabled) {
+            return null;
+        }
+        if (assemblyFlights == null) {
+            assemblyFlights = new SingleFlight<AssemblyResponse>(getScheduler());
+        }
+        return assemblyFlights;
+    }
+
+    /**
+     * Returns the Template requests in flight.
+     * @return {@link SingleFlight}, or {@code null} if request coalescing is disabled
+     */
+    @Nullable
+    private synchronized SingleFlight<Response> getTemplateFlights() {
+        if (!requestCoalescingEnabled) {
+            return null;
+        }
+        if (templateFlights == null) {
+            templateFlights = new SingleFlight<Response>(getScheduler());
+        }
+        return templateFlights;
+    }
+
+    /**
+     * Converts the raw response of an asynchronous request and completes the returned future on the given executor.
+     * The response body is read on the thread that received the response, so callbacks never wait for I/O.
+     * Cancelling the returned future cancels the request.
+     * @param call future of the raw response
+     * @param converter converts the raw response
+     * @param executor {@link Executor} that completes the returned future
+     * @param <T> the response type
+     * @return {@link CompletableFuture} of the converted response
+     */
+    <T> CompletableFuture<T> convertAsync(final CompletableFuture<okhttp3.Response> call,
+                                          final ResponseConverter<T> converter, final Executor executor) {
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        result.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T response, Throwable throwable) {
+                if (result.isCancelled()) {
+                    call.cancel(false);
+                }
+            }
+        });
+        call.whenComplete(new BiConsumer<okhttp3.Response, Throwable>() {
+            @Override
+            public void accept(okhttp3.Response response, Throwable throwable) {
+                if (throwable != null) {
+                    completeOn(executor, result, null, throwable);
+                    return;
+                }
+                try {
+                    completeOn(executor, result, converter.convert(response), null);
+                } catch (LocalOperationException e) {
+                    completeOn(executor, result, null, e);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Completes a future on the given executor. If the executor rejects the task, the future is completed on the
+     * calling thread instead, so it can never be left uncompleted.
+     * @param executor {@link Executor} to complete the future on
+     * @param future future to complete
+     * @param value value to complete the future with
+     * @param throwable exception to complete the future with, or {@code null} to complete it normally
+     * @param <T> the value type
+     */
+    static <T> void completeOn(Executor executor, final CompletableFuture<T> future, @Nullable final T value,
+                               @Nullable final Throwable throwable) {
+        Runnable completion = new Runnable() {
+            @Override
+            public void run() {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(value);
+                }
+            }
+        };
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    /**
+     * Construct a signed Smart CDN URL.
+     * See the <a href="https://transloadit.com/docs/topics/signature-authentication/#smart-cdn">API documentation</a>.
+     * Same as {@link Transloadit#getSignedSmartCDNUrl(String, String, String, Map, long)}, but with an expiration in 1 hour.
+     * The expiration is rounded up if {@link #setSmartCdnExpiryBucket(long)} is set.
+     *
+     * @param workspace Workspace slug
+     * @param template Template slug or template ID
+     * @param input Input value that is provided as ${fields.input} in the template
+     * @param urlParams Additional parameters for the URL query string (optional)
+     * @return The signed Smart CDN URL
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public String getSignedSmartCDNUrl(@NotNull String workspace, @NotNull String template, @NotNull String input,
+                                       @Nullable Map<String, List<String>> urlParams) throws LocalOperationException {
+        // 1 hours default expiration, rounded up to the expiry bucket if one is set
+        return newSmartCdnSigner(workspace, template).sign(input, urlParams);
+    }
+
+    /**
+     * Construct a signed Smart CDN URL.
+     * See the <a href="https://transloadit.com/docs/topics/signature-authentication/#smart-cdn">API documentation</a>.
+     *
+     * @param workspace Workspace slug
+     * @param template Template slug or template ID
+     * @param input Input value that is provided as ${fields.input} in the template
+     * @param urlParams Additional parameters for the URL query string (optional)
+     * @param expiresAt Expiration timestamp of the signature in milliseconds since the UNIX epoch.
+     * @return The signed Smart CDN URL
+     * @throws LocalOperationException if URL encoding fails or signing cannot be performed
+     */
+    public String getSignedSmartCDNUrl(@NotNull String workspace, @NotNull String template, @NotNull String input,
+                                       @Nullable Map<String, List<String>> urlParams, long expiresAt) throws LocalOperationException {
+        return newSmartCdnSigner(workspace, template).sign(input, urlParams, expiresAt);
+    }
+
+    /**
+     * Creates a signer for Smart CDN URLs of one workspace and template. Prefer it over
+     * {@link #getSignedSmartCDNUrl(String, String, String, Map, long)} when many URLs have to be signed, the signer
+     * can be kept and shared between threads.
+     *
+     * @param workspace Workspace slug
+     * @param template Template slug or template ID
+     * @return {@link SmartCdnSigner}
+     * @throws LocalOperationException if URL encoding fails or no secret is configured
+     * @since 2.3.0
+     */
+    public SmartCdnSigner newSmartCdnSigner(@NotNull String workspace, @NotNull String template)
+            throws LocalOperationException {
+        return new SmartCdnSigner(key, getSmartCdnHmacSigner(), workspace, template, smartCdnExpiryBucket,
+                smartCdnUrlCache);
     }
 }
@@ -1,5 +1,6 @@
 package com.transloadit.sdk;
 
+import com.transloadit.sdk.exceptions.CircuitBreakerOpenException;
 import com.transloadit.sdk.exceptions.LocalOperationException;
 import com.transloadit.sdk.exceptions.RequestException;
 import io.tus.java.client.FingerprintNotFoundException;
@@ -11,6 +12,9 @@ import io.tus.java.client.TusUpload;
 import io.tus.java.client.TusUploader;
 
 import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 /**
@@ -31,7 +35,12 @@ class TusUploadRunnable implements Runnable {
     protected volatile boolean isUploading = false;
     protected volatile boolean isPaused = false;
     protected volatile boolean isFinishedPermanently = false;
-    protected final Object lock;
+    protected final ReentrantLock lock;
+    private final Condition unpaused;
+    private final Span parentSpan;
+    private final AdaptiveChunkSizer chunkSizer;
+    private volatile Span span;
+    private int reportedChunkSize;
 
 
     /**
@@ -47,35 +56,157 @@ class TusUploadRunnable implements Runnable {
         this.assembly = assembly;
         this.uploadChunkSize = uploadChunkSize;
         this.tusExecutor = getTusExecutor();
-        this.lock = new Object();
+        // Paused uploads wait on a Condition rather than a monitor, which would pin a virtual thread to its carrier.
+        this.lock = new ReentrantLock();
+        this.unpaused = lock.newCondition();
+        this.parentSpan = TraceContext.current();
+        this.chunkSizer = assembly.isAdaptiveUploadChunkSizeEnabled()
+                ? new AdaptiveChunkSizer(uploadChunkSize, assembly.getMinUploadChunkSize(),
+                        assembly.getMaxUploadChunkSize()) : null;
 
         this.name = "Upload - " + tusUpload.getMetadata().get("filename");
     }
 
     /**
-     * The method to be started by the Task Executor.
+     * The method to be started by the Task Executor. The upload is traced as child of the span which was active when
+     * this runnable was created, e.g. the span of {@link Assembly#save(boolean)}.
      */
     public void run() {
+        Tracer tracer = assembly.getClient() == null ? Tracer.NOOP : assembly.getClient().getTracer();
+        Span span = tracer.startSpan("transloadit.tus.upload", parentSpan);
+        this.span = span;
+        span.setAttribute("transloadit.upload.name", name);
+        Span previous = TraceContext.activate(span);
+        try {
+            upload(span);
+        } finally {
+            TraceContext.restore(previous);
+            span.end();
+        }
+    }
+
+    /**
+     * Uploads the file, reporting failures to the given span.
+     * @param span span of the upload
+     */
+    private void upload(Span span) {
+        CircuitBreaker breaker;
+        try {
+            breaker = acquireCircuitBreaker();
+        } catch (CircuitBreakerOpenException e) {
+            span.recordException(e);
+            assembly.threadThrowsRequestException(this.name, e);
+            return;
+        }
         try {
             this.tusUploader = tusClient.resumeOrCreateUpload(tusUpload);
             this.uploadHasBeenStarted = true;
-            if (uploadChunkSize > 0) {
-                tusUploader.setChunkSize(uploadChunkSize);
-            }
+            applyChunkSize();
         } catch (ProtocolException | IOException e) {
+            onUploadFinished(breaker, true);
+            span.recordException(e);
             assembly.threadThrowsRequestException(this.name, e);
             return;
         }
         this.isUploading = true;
         try {
             tusExecutor.makeAttempts();
+            if (tusUploader.getOffset() >= tusUpload.getSize()) {
+                onUploadCompleted();
+            }
+            onUploadFinished(breaker, false);
         } catch (ProtocolException | IOException e) {
+            onUploadFinished(breaker, true);
+            span.recordException(e);
             assembly.threadThrowsRequestException(this.name, e);
         } finally {
             assembly.removeThreadFromList(this);
         }
     }
 
+    /**
+     * Called on the upload thread once the whole file has been uploaded. Exceptions are handled like failures of
+     * the upload itself.
+     * @throws ProtocolException if the server rejects a follow-up request
+     * @throws IOException if a follow-up request fails
+     */
+    protected void onUploadCompleted() throws ProtocolException, IOException {
+    }
+
+    /**
+     * Asks the circuit breaker of the tus endpoint for permission to start the upload.
+     * @return the {@link CircuitBreaker} to report the outcome to, or {@code null} if circuit breakers are disabled
+     * @throws CircuitBreakerOpenException if the circuit breaker is open
+     */
+    private CircuitBreaker acquireCircuitBreaker() throws CircuitBreakerOpenException {
+        URL url = tusClient.getUploadCreationURL();
+        if (url == null || assembly.getClient() == null) {
+            return null;
+        }
+        CircuitBreaker breaker = assembly.getClient().getCircuitBreaker(url.getHost(),
+                url.getPort() < 0 ? url.getDefaultPort() : url.getPort(), "tus");
+        if (breaker != null) {
+            breaker.acquire();
+        }
+        return breaker;
+    }
+
+    /**
+     * Reports the outcome of the upload to the circuit breaker of the tus endpoint. The duration of an upload
+     * depends on the size of the file, so uploads never count as slow.
+     * @param breaker circuit breaker of the upload, or {@code null} if circuit breakers are disabled
+     * @param failed true if the upload has failed
+     */
+    private static void onUploadFinished(CircuitBreaker breaker, boolean failed) {
+        if (breaker != null) {
+            breaker.onResult(failed, 0);
+        }
+    }
+
+    /**
+     * Reports an uploaded chunk to the {@link MetricsRecorder} of the client.
+     * @param bytes number of bytes uploaded with the chunk
+     * @param durationNanos time in ns the chunk took to upload
+     */
+    private void onChunkUploaded(long bytes, long durationNanos) {
+        if (assembly.getClient() != null) {
+            assembly.getClient().getMetricsRecorder().onUploadChunk(bytes, durationNanos);
+        }
+    }
+
+    /**
+     * Applies the chunk size to the current {@link TusUploader}. With adaptive chunk sizing every chunk is sent as a
+     * request of its own, whose size can only be changed between requests; while a request is in progress, the
+     * chunk size is kept until the next chunk.
+     */
+    private void applyChunkSize() {
+        if (chunkSizer == null) {
+            if (uploadChunkSize > 0) {
+                tusUploader.setChunkSize(uploadChunkSize);
+            }
+            return;
+        }
+        int chunkSize = chunkSizer.getChunkSize();
+        if (chunkSize != tusUploader.getChunkSize() || chunkSize != tusUploader.getRequestPayloadSize()) {
+            try {
+                tusUploader.setRequestPayloadSize(chunkSize);
+            } catch (IllegalStateException e) {
+                return;
+            }
+            tusUploader.setChunkSize(chunkSize);
+        }
+        if (chunkSize != reportedChunkSize) {
+            reportedChunkSize = chunkSize;
+            Span current = span;
+            if (current != null) {
+                current.setAttribute("transloadit.upload.chunk_size", chunkSize);
+            }
+            if (assembly.getClient() != null) {
+                assembly.getClient().getMetricsRecorder().onUploadChunkSize(chunkSize);
+            }
+        }
+    }
+
     /**
      * Returns a {@link TusExecutor} instance, which handles upload coordination.
      * This Executor also handles pause States if it's calling thread is paused.
@@ -98,23 +229,45 @@ class TusUploadRunnable implements Runnable {
 
                         if (!isPaused) {
                             isUploading = true;
-                            uploadedChunk = tusUploader.uploadChunk();
+                            if (chunkSizer != null) {
+                                applyChunkSize();
+                            }
+                            int chunkSize = tusUploader.getChunkSize();
+                            long start = System.nanoTime();
+                            Object jfrEvent = JfrEvents.beginChunk();
+                            try {
+                                uploadedChunk = tusUploader.uploadChunk();
+                            } catch (ProtocolException | IOException e) {
+                                if (chunkSizer != null) {
+                                    chunkSizer.onChunkFailed();
+                                }
+                                throw e;
+                            }
                             if (uploadedChunk > -1) {
+                                long duration = System.nanoTime() - start;
+                                JfrEvents.endChunk(jfrEvent, name, uploadedChunk, tusUploader.getOffset(), chunkSize);
+                                onChunkUploaded(uploadedChunk, duration);
+                                if (chunkSizer != null) {
+                                    chunkSizer.onChunkUploaded(uploadedChunk, duration);
+                                }
                                 assembly.updateUploadProgress(uploadedChunk);
                             }
                         } else {
-                            if (uploadHasBeenStarted) {
-                                //Upload pausing works different if the upload has already benn started
-                                synchronized (lock) {
+                            lock.lock();
+                            try {
+                                if (uploadHasBeenStarted) {
+                                    //Upload pausing works different if the upload has already benn started
                                     tusUploader.finish(false);
                                     isUploading = false;
-                                    assembly.getRunnableAssemblyListener().onFileUploadPaused(name);
-                                    lock.wait();
                                 }
-                            } else {
                                 // pauses the Thread even if it has not started the upload.
+                                JfrEvents.uploadPaused(name);
                                 assembly.getRunnableAssemblyListener().onFileUploadPaused(name);
-                                lock.wait();
+                                while (isPaused) {
+                                    unpaused.await();
+                                }
+                            } finally {
+                                lock.unlock();
                             }
                         }
                     }
@@ -129,6 +282,19 @@ class TusUploadRunnable implements Runnable {
         };
     }
 
+    /**
+     * Sets {@link #isPaused} {@code = false} and wakes up the paused upload.
+     */
+    private void signalUnpaused() {
+        lock.lock();
+        try {
+            this.isPaused = false;
+            unpaused.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Sets {@link #isPaused} {@code = true}.
      * This results in pausing the thread after uploading the current chunk.
@@ -151,25 +317,19 @@ class TusUploadRunnable implements Runnable {
         if (uploadHasBeenStarted && !isFinishedPermanently) {  // prohibits an attempt of resuming a finished upload.
             try {
                 this.tusUploader = this.tusClient.resumeUpload(tusUpload);
-                if (uploadChunkSize > 0) {
-                    tusUploader.setChunkSize(uploadChunkSize);
-                }
+                applyChunkSize();
             } catch (FingerprintNotFoundException | ResumingNotEnabledException e) {
                 throw new LocalOperationException(e);
             } catch (ProtocolException | IOException e) {
                 throw new RequestException(name + " " + e.getMessage());
             }
-            this.isPaused = false;
-            synchronized (lock) {
-                lock.notify();
-            }
+            signalUnpaused();
+            JfrEvents.uploadResumed(this.name);
             assembly.getRunnableAssemblyListener().onFileUploadResumed(this.name);
         }
         if (!isFinishedPermanently && isPaused) {
-            this.isPaused = false;
-            synchronized (lock) {
-                lock.notify();
-            }
+            signalUnpaused();
+            JfrEvents.uploadResumed(this.name);
             assembly.getRunnableAssemblyListener().onFileUploadResumed(this.name);
         }
     }
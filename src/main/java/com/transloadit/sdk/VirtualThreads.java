@@ -0,0 +1,34 @@
+package com.transloadit.sdk;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates executors which run every task on a new virtual thread.
+ * <p>
+ * This is the Java 8 variant: virtual threads are not available, {@link #isSupported()} is false. The SDK jar is a
+ * multi-release jar: on Java 21 and newer this class is replaced by the variant in {@code src/main/java21}. Both
+ * variants have to keep the same methods.
+ * </p>
+ */
+final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns whether virtual threads are available on the running JVM.
+     * @return {@code true} on Java 21 and newer
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for every task.
+     * @param namePrefix prefix of the thread names
+     * @return {@link ExecutorService}
+     * @throws UnsupportedOperationException if virtual threads are not available, see {@link #isSupported()}
+     */
+    static ExecutorService newExecutor(String namePrefix) {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+    }
+}
@@ -0,0 +1,28 @@
+package com.transloadit.sdk.exceptions;
+
+/**
+ * Exception thrown instead of sending a request while the circuit breaker of its host and endpoint is open, because
+ * too many of the preceding requests have failed or have been too slow.
+ * @since 2.3.0
+ */
+public class CircuitBreakerOpenException extends RequestException {
+    private final long remainingOpenMillis;
+
+    /**
+     * Constructs a new CircuitBreakerOpenException.
+     * @param msg Detail message
+     * @param remainingOpenMillis time in ms until the circuit breaker lets trial requests pass again
+     */
+    public CircuitBreakerOpenException(String msg, long remainingOpenMillis) {
+        super(msg);
+        this.remainingOpenMillis = remainingOpenMillis;
+    }
+
+    /**
+     * Returns the time until the circuit breaker lets trial requests pass again.
+     * @return time in ms, 0 if trial requests are already being sent
+     */
+    public long getRemainingOpenMillis() {
+        return remainingOpenMillis;
+    }
+}
@@ -2,6 +2,7 @@ package com.transloadit.sdk.response;
 
 import com.transloadit.sdk.exceptions.LocalOperationException;
 import org.json.JSONArray;
+import org.json.JSONObject;
 
 /**
  * An AssemblyApi tailored Http Response.
@@ -26,6 +27,16 @@ public class AssemblyResponse extends Response {
         this(response, false);
     }
 
+    /**
+     * Initializes a new AssemblyResponse object with the status and body of another one, see
+     * {@link Response#Response(Response)}.
+     * @param response the response to copy
+     * @since 2.3.0
+     */
+    public AssemblyResponse(AssemblyResponse response) {
+        super(response);
+    }
+
     /**
      * Returns the ID of the current Assembly.
      * @return assembly id
@@ -90,7 +101,7 @@ public class AssemblyResponse extends Response {
      * @return {@link Boolean} indicating the assembly has completed.
      */
     public Boolean isCompleted() {
-        return json().has("ok") && json().getString("ok").equals("ASSEMBLY_COMPLETED");
+        return "ASSEMBLY_COMPLETED".equals(getStatus());
     }
 
     /**
@@ -98,7 +109,7 @@ public class AssemblyResponse extends Response {
      * @return {@link Boolean} indicating the assembly has aborted.
      */
     public Boolean isAborted() {
-        return json().has("ok") && json().getString("ok").equals("REQUEST_ABORTED");
+        return "REQUEST_ABORTED".equals(getStatus());
     }
 
     /**
@@ -106,7 +117,7 @@ public class AssemblyResponse extends Response {
      * @return {@link Boolean} indicating the assembly has canceled.
      */
     public Boolean isCanceled() {
-        return json().has("ok") && json().getString("ok").equals("ASSEMBLY_CANCELED");
+        return "ASSEMBLY_CANCELED".equals(getStatus());
     }
 
     /**
@@ -114,7 +125,7 @@ public class AssemblyResponse extends Response {
      * @return {@link Boolean} indicating the assembly is still executing.
      */
     public Boolean isExecuting() {
-        return json().has("ok") && json().getString("ok").equals("ASSEMBLY_EXECUTING");
+        return "ASSEMBLY_EXECUTING".equals(getStatus());
     }
 
     /**
@@ -122,7 +133,7 @@ public class AssemblyResponse extends Response {
      * @return {@link Boolean} indicating the assembly is uploading.
      */
     public Boolean isUploading() {
-        return json().has("ok") && json().getString("ok").equals("ASSEMBLY_UPLOADING");
+        return "ASSEMBLY_UPLOADING".equals(getStatus());
     }
 
     /**
@@ -138,6 +149,16 @@ public class AssemblyResponse extends Response {
      * @return {@link Boolean} indicating the assembly has stopped executing.
      */
     public Boolean isFinished() {
-        return !isUploading() && !isExecuting();
+        String status = getStatus();
+        return !"ASSEMBLY_UPLOADING".equals(status) && !"ASSEMBLY_EXECUTING".equals(status);
+    }
+
+    /**
+     * Returns the execution status of the current Assembly as reported in its "ok" field.
+     * @return the status, or {@code null} if the response has no "ok" field
+     */
+    private String getStatus() {
+        JSONObject json = json();
+        return json.has("ok") ? json.getString("ok") : null;
     }
 }
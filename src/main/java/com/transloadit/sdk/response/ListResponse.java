@@ -16,6 +16,16 @@ public class ListResponse extends Response {
         super(response);
     }
 
+    /**
+     * Initializes a new ListResponse object with the status and body of another one, see
+     * {@link Response#Response(Response)}.
+     * @param response the response to copy
+     * @since 2.3.0
+     */
+    public ListResponse(ListResponse response) {
+        super(response);
+    }
+
     /**
      *
      * @return {@link JSONArray} iterable of items on the list
@@ -1,6 +1,8 @@
 package com.transloadit.sdk.response;
 
+import com.transloadit.sdk.CallTimings;
 import com.transloadit.sdk.exceptions.LocalOperationException;
+import org.jetbrains.annotations.Nullable;
 import org.json.JSONObject;
 
 import java.io.IOException;
@@ -11,6 +13,7 @@ import java.io.IOException;
 public class Response {
     private okhttp3.Response httpResponse;
     private String stringBody;
+    private volatile JSONObject json;
 
     /**
      * Initializes a new Response object for a Http Response from the Transloadit Api.
@@ -27,11 +30,34 @@ public class Response {
     }
 
     /**
-     *
+     * Initializes a new Response object with the status and body of another one. The copy parses the body on its
+     * own, so changes made to the json content of one of them are not visible to the other.
+     * @param response the response to copy
+     * @since 2.3.0
+     */
+    public Response(Response response) {
+        httpResponse = response.httpResponse;
+        stringBody = response.stringBody;
+    }
+
+    /**
+     * Returns the json content of the response. The body is parsed lazily on the first call, every later call
+     * returns the same {@link JSONObject} instance. Changes made to the returned object are therefore visible to
+     * all callers of this method on this response object.
      * @return the json content of the response as an instance of ({@link JSONObject})
      */
     public JSONObject json() {
-        return new JSONObject(stringBody);
+        JSONObject result = json;
+        if (result == null) {
+            synchronized (this) {
+                result = json;
+                if (result == null) {
+                    result = new JSONObject(stringBody);
+                    json = result;
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -41,4 +67,16 @@ public class Response {
     public int status() {
         return httpResponse.code();
     }
+
+    /**
+     * Returns the time the HTTP call of this response has spent in each phase, from the host name lookup to reading
+     * the body.
+     * @return {@link CallTimings}, or {@code null} if the response has not been received by a {@link
+     * com.transloadit.sdk.Transloadit} client
+     * @since 2.3.0
+     */
+    @Nullable
+    public CallTimings getCallTimings() {
+        return CallTimings.of(httpResponse);
+    }
 }
@@ -0,0 +1,230 @@
+package com.transloadit.sdk;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Emits Java Flight Recorder events for API requests, tus uploads, Assembly status streams and status polls.
+ * <p>
+ * This is the Java 11 variant packaged in {@code META-INF/versions/11} of the SDK jar; it replaces the no-op
+ * variant in {@code src/main/java} and has to keep the same methods. Events are only allocated and filled in while a
+ * recording has them enabled; otherwise {@link Event#isEnabled()} is false and the JIT removes the allocation.
+ * Stack traces are not recorded, as they would point at the SDK's internals.
+ * </p>
+ */
+final class JfrEvents {
+    private JfrEvents() {
+    }
+
+    @Nullable
+    static Object beginRequest() {
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endRequest(@Nullable Object event, @Nullable String method, @Nullable String endpoint, int statusCode,
+                           int retries) {
+        if (event == null) {
+            return;
+        }
+        RequestEvent request = (RequestEvent) event;
+        request.end();
+        if (request.shouldCommit()) {
+            request.method = method;
+            request.endpoint = endpoint;
+            request.statusCode = statusCode;
+            request.retries = retries;
+            request.commit();
+        }
+    }
+
+    @Nullable
+    static Object beginChunk() {
+        ChunkEvent event = new ChunkEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endChunk(@Nullable Object event, String upload, long bytes, long offset, int chunkSize) {
+        if (event == null) {
+            return;
+        }
+        ChunkEvent chunk = (ChunkEvent) event;
+        chunk.end();
+        if (chunk.shouldCommit()) {
+            chunk.upload = upload;
+            chunk.bytes = bytes;
+            chunk.offset = offset;
+            chunk.chunkSize = chunkSize;
+            chunk.commit();
+        }
+    }
+
+    static void uploadPaused(String upload) {
+        UploadStateEvent event = new UploadStateEvent();
+        if (event.isEnabled()) {
+            event.upload = upload;
+            event.paused = true;
+            event.commit();
+        }
+    }
+
+    static void uploadResumed(String upload) {
+        UploadStateEvent event = new UploadStateEvent();
+        if (event.isEnabled()) {
+            event.upload = upload;
+            event.paused = false;
+            event.commit();
+        }
+    }
+
+    static void streamConnected(@Nullable String assemblyId, boolean reconnect) {
+        StreamEvent event = new StreamEvent();
+        if (event.isEnabled()) {
+            event.assemblyId = assemblyId;
+            event.type = reconnect ? "reconnected" : "connected";
+            event.commit();
+        }
+    }
+
+    static void streamFault(@Nullable String assemblyId, String message) {
+        StreamEvent event = new StreamEvent();
+        if (event.isEnabled()) {
+            event.assemblyId = assemblyId;
+            event.type = "fault";
+            event.message = message;
+            event.commit();
+        }
+    }
+
+    static void streamMessage(@Nullable String assemblyId, String name) {
+        StreamEvent event = new StreamEvent();
+        if (event.isEnabled()) {
+            event.assemblyId = assemblyId;
+            event.type = "message";
+            event.message = name;
+            event.commit();
+        }
+    }
+
+    @Nullable
+    static Object beginPoll() {
+        PollEvent event = new PollEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endPoll(@Nullable Object event, @Nullable String assemblyId, @Nullable String status) {
+        if (event == null) {
+            return;
+        }
+        PollEvent poll = (PollEvent) event;
+        poll.end();
+        if (poll.shouldCommit()) {
+            poll.assemblyId = assemblyId;
+            poll.status = status;
+            poll.commit();
+        }
+    }
+
+    @Name("com.transloadit.Request")
+    @Label("Transloadit API Request")
+    @Description("API request including its retries")
+    @Category("Transloadit")
+    @StackTrace(false)
+    static final class RequestEvent extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("Endpoint")
+        String endpoint;
+
+        @Label("Status Code")
+        @Description("Status code of the last response, -1 if no response has been received")
+        int statusCode;
+
+        @Label("Retries")
+        int retries;
+    }
+
+    @Name("com.transloadit.UploadChunk")
+    @Label("Transloadit Upload Chunk")
+    @Description("Upload of a single tus chunk")
+    @Category("Transloadit")
+    @StackTrace(false)
+    static final class ChunkEvent extends Event {
+        @Label("Upload")
+        String upload;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Offset")
+        @Description("Offset of the upload after the chunk")
+        @DataAmount
+        long offset;
+
+        @Label("Chunk Size")
+        @Description("Chunk size the chunk was uploaded with")
+        @DataAmount
+        int chunkSize;
+    }
+
+    @Name("com.transloadit.UploadState")
+    @Label("Transloadit Upload Paused/Resumed")
+    @Category("Transloadit")
+    @StackTrace(false)
+    static final class UploadStateEvent extends Event {
+        @Label("Upload")
+        String upload;
+
+        @Label("Paused")
+        @Description("True if the upload has been paused, false if it has been resumed")
+        boolean paused;
+    }
+
+    @Name("com.transloadit.AssemblyStream")
+    @Label("Transloadit Assembly Status Stream")
+    @Description("Connect, reconnect, fault or message of an Assembly status stream (SSE)")
+    @Category("Transloadit")
+    @StackTrace(false)
+    static final class StreamEvent extends Event {
+        @Label("Assembly ID")
+        String assemblyId;
+
+        @Label("Type")
+        String type;
+
+        @Label("Message")
+        String message;
+    }
+
+    @Name("com.transloadit.AssemblyPoll")
+    @Label("Transloadit Assembly Status Poll")
+    @Category("Transloadit")
+    @StackTrace(false)
+    static final class PollEvent extends Event {
+        @Label("Assembly ID")
+        String assemblyId;
+
+        @Label("Status")
+        String status;
+    }
+}
@@ -0,0 +1,35 @@
+package com.transloadit.sdk;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors which run every task on a new virtual thread.
+ * <p>
+ * This is the Java 21 variant packaged in {@code META-INF/versions/21} of the SDK jar; it replaces the variant in
+ * {@code src/main/java} and has to keep the same methods. Virtual threads blocked on I/O or sleeping release their
+ * carrier thread, so the number of platform threads is bounded by the JDK's scheduler
+ * ({@code jdk.virtualThreadScheduler.parallelism}) rather than by the number of blocking tasks.
+ * </p>
+ */
+final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns whether virtual threads are available on the running JVM.
+     * @return {@code true}
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for every task.
+     * @param namePrefix prefix of the thread names
+     * @return {@link ExecutorService}
+     */
+    static ExecutorService newExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+    }
+}
@@ -0,0 +1,75 @@
+package com.transloadit.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for {@link AdaptiveChunkSizer}.
+ */
+public class AdaptiveChunkSizerTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(AdaptiveChunkSizer.TARGET_CHUNK_MILLIS);
+
+    /**
+     * Uploads start at the lower bound if no initial chunk size is given and double the chunk size with every fast
+     * chunk until the upper bound is reached.
+     */
+    @Test
+    public void growsFastChunksUpToUpperBound() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(0, 1000, 8000);
+        Assertions.assertEquals(1000, sizer.getChunkSize());
+        Assertions.assertEquals(2000, sizer.onChunkUploaded(1000, FAST));
+        Assertions.assertEquals(4000, sizer.onChunkUploaded(2000, FAST));
+        Assertions.assertEquals(8000, sizer.onChunkUploaded(4000, FAST));
+        Assertions.assertEquals(8000, sizer.onChunkUploaded(8000, FAST));
+    }
+
+    /**
+     * Chunks which take longer than the target duration shrink the chunk size to what the measured throughput
+     * uploads in the target duration, but not below the lower bound.
+     */
+    @Test
+    public void shrinksSlowChunksToTargetDuration() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(8000, 1000, 8000);
+        Assertions.assertEquals(2000, sizer.onChunkUploaded(8000, 4 * TARGET));
+        Assertions.assertEquals(1000, sizer.onChunkUploaded(2000, 100 * TARGET));
+    }
+
+    /**
+     * A failed chunk halves the chunk size, which only grows again once the failure rate has decayed.
+     */
+    @Test
+    public void failedChunksShrinkAndPauseGrowth() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(4000, 1000, 8000);
+        Assertions.assertEquals(2000, sizer.onChunkFailed());
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(2000, sizer.onChunkUploaded(2000, FAST));
+        }
+        Assertions.assertEquals(4000, sizer.onChunkUploaded(2000, FAST));
+        Assertions.assertEquals(2000, sizer.onChunkFailed());
+        Assertions.assertEquals(1000, sizer.onChunkFailed());
+        Assertions.assertEquals(1000, sizer.onChunkFailed());
+    }
+
+    /**
+     * The chunk size stops growing if a larger chunk size has not kept up the throughput of the smaller one.
+     */
+    @Test
+    public void stopsGrowingWhenThroughputDrops() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(1000, 1000, 8000);
+        Assertions.assertEquals(2000, sizer.onChunkUploaded(1000, FAST));
+        Assertions.assertEquals(2000, sizer.onChunkUploaded(2000, 10 * FAST));
+    }
+
+    /**
+     * Chunks smaller than the chunk size, e.g. the last chunk of a file, do not change the chunk size.
+     */
+    @Test
+    public void ignoresShortChunks() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(1000, 1000, 8000);
+        Assertions.assertEquals(1000, sizer.onChunkUploaded(500, FAST));
+        Assertions.assertEquals(1000, sizer.onChunkUploaded(500, 100 * TARGET));
+    }
+}
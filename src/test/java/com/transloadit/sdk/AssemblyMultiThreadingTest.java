@@ -23,7 +23,16 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockserver.model.BinaryBody.binary;
 import static org.mockserver.model.RegexBody.regex;
 
 /**
@@ -66,9 +75,13 @@ public class AssemblyMultiThreadingTest extends MockHttpService {
      * @throws IOException - Thrown if an I/O error occurs while loading test resources.
      * @throws LocalOperationException - If a local non-http operation fails.
      * @throws RequestException -  If a request to Transloadit server fails.
+     * @throws InterruptedException - If the test is interrupted while waiting for the uploads.
      */
     @Test
-    public void saveMultiThreadedUpload() throws IOException, LocalOperationException, RequestException {
+    public void saveMultiThreadedUpload() throws IOException, LocalOperationException, RequestException,
+            InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        transloadit.setUploadExecutor(executor);
         MockTusAssemblyMultiThreading assembly = new MockTusAssemblyMultiThreading(transloadit);
         assembly.wipeAssemblyID();
         assembly.setRunnableAssemblyListener(new AssemblyListener() {
@@ -189,6 +202,8 @@ public class AssemblyMultiThreadingTest extends MockHttpService {
                         .withHeader("Upload-Offset", uploadSize));
 
         AssemblyResponse response = assembly.save(true);
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
         mockServerClient.verify(HttpRequest.request()
                 .withPath("/resumable/files").withMethod("POST"), VerificationTimes.atLeast(3));
 
@@ -298,6 +313,218 @@ public class AssemblyMultiThreadingTest extends MockHttpService {
         Assertions.assertEquals(errorMessage, exceptionMessage);
     }
 
+    /**
+     * Verifies that uploads run on the upload executor of the client, with at most
+     * {@link Assembly#setMaxParallelUploads(int)} workers per Assembly which run the uploads one after another.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void uploadsRunOnClientExecutor() throws Exception {
+        AtomicInteger workers = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>()) {
+            @Override
+            public void execute(Runnable command) {
+                workers.incrementAndGet();
+                super.execute(command);
+            }
+        };
+        transloadit.setUploadExecutor(executor);
+
+        assembly = new MockTusAssemblyMultiThreading(transloadit);
+        assembly.wipeAssemblyID();
+        assembly.setMaxParallelUploads(2);
+        assembly.addFile(new File("LICENSE"), "file_name1");
+        assembly.addFile(new File("LICENSE"), "file_name2");
+        assembly.addFile(new File("LICENSE"), "file_name3");
+        mockTusUploads();
+
+        assembly.save(true);
+        Assertions.assertEquals(2, workers.get());
+
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        mockServerClient.verify(HttpRequest.request()
+                .withPath("/resumable/files/a").withMethod("POST"), VerificationTimes.exactly(3));
+    }
+
+    /**
+     * Verifies that {@link Assembly#abortUploads()} cancels uploads which are still queued at the upload executor.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void abortUploadsCancelsQueuedUploads() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        transloadit.setUploadExecutor(executor);
+        mockTusUploads();
+
+        assembly.save(true);
+        assembly.abortUploads();
+        blocked.countDown();
+
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        mockServerClient.verify(HttpRequest.request()
+                .withPath("/resumable/files").withMethod("POST"), VerificationTimes.never());
+    }
+
+    /**
+     * Verifies that a file above {@link Assembly#setPartialUploadThreshold(long)} is uploaded as partial tus uploads
+     * of its byte ranges, which are joined by a final upload carrying the metadata of the file.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void uploadsLargeFilesInParts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        transloadit.setUploadExecutor(executor);
+        File file = new File("LICENSE");
+        byte[] content = Files.readAllBytes(file.toPath());
+        int half = content.length / 2;
+
+        assembly = new Assembly(transloadit);
+        assembly.wipeAssemblyID();
+        assembly.setMaxParallelUploads(2);
+        assembly.setPartialUploadThreshold(content.length);
+        assembly.setPartialUploadCount(2);
+        assembly.addFile(file, "file");
+
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/assemblies")
+                        .withMethod("POST"))
+                .respond(HttpResponse.response().withBody(getJson("resumable_assembly.json")));
+        byte[][] parts = {Arrays.copyOfRange(content, 0, half), Arrays.copyOfRange(content, half, content.length)};
+        for (int i = 0; i < parts.length; i++) {
+            mockServerClient.when(HttpRequest.request()
+                    .withPath("/resumable/files").withMethod("POST")
+                    .withHeader("Upload-Concat", "partial")
+                    .withHeader("Upload-Length", "" + parts[i].length)).respond(
+                    new HttpResponse()
+                            .withStatusCode(201)
+                            .withHeader("Tus-Resumable", "1.0.0")
+                            .withHeader("Location", "/resumable/files/part" + (i + 1)));
+            mockServerClient.when(HttpRequest.request()
+                    .withPath("/resumable/files/part" + (i + 1)).withMethod("POST")).respond(
+                    new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", "1.0.0")
+                            .withHeader("Upload-Offset", "" + parts[i].length));
+        }
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/resumable/files").withMethod("POST")
+                .withHeader("Upload-Concat", "final;.*")).respond(
+                new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", "1.0.0")
+                        .withHeader("Location", "/resumable/files/final"));
+
+        assembly.save(true);
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < parts.length; i++) {
+            mockServerClient.verify(HttpRequest.request()
+                    .withPath("/resumable/files/part" + (i + 1)).withMethod("POST")
+                    .withBody(binary(parts[i])), VerificationTimes.exactly(1));
+        }
+        mockServerClient.verify(HttpRequest.request()
+                .withPath("/resumable/files").withMethod("POST")
+                .withHeader("Upload-Concat", "partial"), VerificationTimes.exactly(2));
+        mockServerClient.verify(HttpRequest.request()
+                .withPath("/resumable/files").withMethod("POST")
+                .withHeader("Upload-Concat", "final;http://localhost:" + PORT + "/resumable/files/part1 "
+                        + "http://localhost:" + PORT + "/resumable/files/part2")
+                .withHeader("Upload-Metadata", ".*assembly_url .*"), VerificationTimes.exactly(1));
+    }
+
+    /**
+     * Verifies that adaptive chunk sizing sends every chunk as a request of its own and grows the chunk size of fast
+     * chunks up to the upper bound, reporting the chosen sizes to the {@link MetricsRecorder}.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void adaptsUploadChunkSize() throws Exception {
+        HistogramMetricsRecorder metrics = new HistogramMetricsRecorder();
+        transloadit.setMetricsRecorder(metrics);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        transloadit.setUploadExecutor(executor);
+        byte[] content = Files.readAllBytes(Paths.get("LICENSE"));
+
+        assembly = new MockTusAssemblyMultiThreading(transloadit);
+        assembly.wipeAssemblyID();
+        assembly.setAdaptiveUploadChunkSizeEnabled(true);
+        assembly.setUploadChunkSizeBounds(100, 400);
+        assembly.addFile(new File("LICENSE"), "file_name");
+
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/assemblies")
+                        .withMethod("POST"))
+                .respond(HttpResponse.response().withBody(getJson("resumable_assembly.json")));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/resumable/files").withMethod("POST")).respond(
+                new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", "1.0.0")
+                        .withHeader("Location", "/resumable/files/adaptive"));
+        int[] offsets = {0, 100, 300, 700, content.length};
+        for (int i = 0; i < offsets.length - 1; i++) {
+            mockServerClient.when(HttpRequest.request()
+                    .withPath("/resumable/files/adaptive").withMethod("POST")
+                    .withHeader("Upload-Offset", "" + offsets[i])).respond(
+                    new HttpResponse()
+                            .withStatusCode(204)
+                            .withHeader("Tus-Resumable", "1.0.0")
+                            .withHeader("Upload-Offset", "" + offsets[i + 1]));
+        }
+
+        assembly.save(true);
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < offsets.length - 1; i++) {
+            mockServerClient.verify(HttpRequest.request()
+                    .withPath("/resumable/files/adaptive").withMethod("POST")
+                    .withHeader("Upload-Offset", "" + offsets[i])
+                    .withBody(binary(Arrays.copyOfRange(content, offsets[i], offsets[i + 1]))),
+                    VerificationTimes.exactly(1));
+        }
+        Assertions.assertEquals(400, metrics.getLastUploadChunkSize());
+        Assertions.assertEquals(3, metrics.getUploadChunkSizeChanges());
+    }
+
+    /**
+     * Mocks the creation of an Assembly and of tus uploads, which are all uploaded to "/resumable/files/a" in one
+     * request.
+     * @throws IOException if the Assembly response cannot be loaded
+     */
+    private void mockTusUploads() throws IOException {
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/assemblies")
+                        .withMethod("POST"))
+                .respond(HttpResponse.response().withBody(getJson("resumable_assembly.json")));
+
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/resumable/files").withMethod("POST")).respond(
+                new HttpResponse()
+                        .withStatusCode(201)
+                        .withHeader("Tus-Resumable", "1.0.0")
+                        .withHeader("Location", "/resumable/files/a"));
+
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/resumable/files/a").withMethod("POST")).respond(
+                new HttpResponse()
+                        .withStatusCode(204)
+                        .withHeader("Tus-Resumable", "1.0.0")
+                        .withHeader("Upload-Offset", "" + new File("LICENSE").length()));
+    }
+
     /**
      * Checks, if uploading threads are getting paused by {@link Assembly#pauseUploads()}.
      * @throws IOException - Thrown if an I/O error occurs while loading test resources.
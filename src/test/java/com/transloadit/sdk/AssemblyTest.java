@@ -26,8 +26,16 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.RegexBody.regex;
@@ -207,6 +215,122 @@ public class AssemblyTest extends MockHttpService {
         Assertions.assertEquals("ASSEMBLY_COMPLETED", savedAssembly.json().get("ok"));
     }
 
+    /**
+     * Checks that {@link Assembly#save(boolean)} reports a span tree to the client's {@link Tracer}: the requests and
+     * the wait for completion are children of the save span, the polls are children of the wait span.
+     * @throws Exception if communication with the server goes wrong, if building the request goes wrong or
+     * if Test resources  "assembly_executing.json" or "resumable_assembly_complete.json" are missing.
+     */
+    @Test
+    public void saveIsTraced() throws Exception {
+        mockServerClient.when(request()
+                .withPath("/assemblies").withMethod("POST"))
+                .respond(HttpResponse.response().withBody(getJson("assembly_executing.json")));
+        mockServerClient.when(request()
+                .withPath("/assemblies/76fe5df1c93a0a530f3e583805cf98b4").withMethod("GET"))
+                .respond(HttpResponse.response().withBody(getJson("resumable_assembly_complete.json")));
+        final List<RecordingSpan> ended = new CopyOnWriteArrayList<RecordingSpan>();
+        transloadit.setTracer((name, parent) -> new RecordingSpan(name, (RecordingSpan) parent, ended));
+
+        assembly.addFile(new File("LICENSE"), "file_name");
+        assembly.setShouldWaitForCompletion(true);
+        assembly.save(false);
+
+        Assertions.assertEquals(4, ended.size(), ended.toString());
+        RecordingSpan post = ended.get(0);
+        RecordingSpan poll = ended.get(1);
+        RecordingSpan wait = ended.get(2);
+        RecordingSpan save = ended.get(3);
+        Assertions.assertEquals("transloadit.assembly.save", save.name);
+        Assertions.assertNull(save.parent);
+        Assertions.assertEquals("76fe5df1c93a0a530f3e583805cf98b4", save.attributes.get("transloadit.assembly_id"));
+        Assertions.assertEquals("transloadit.request", post.name);
+        Assertions.assertSame(save, post.parent);
+        Assertions.assertEquals("POST", post.attributes.get("http.request.method"));
+        Assertions.assertEquals(200L, post.attributes.get("http.response.status_code"));
+        Assertions.assertEquals("transloadit.assembly.wait", wait.name);
+        Assertions.assertSame(save, wait.parent);
+        Assertions.assertEquals(Collections.singletonList("poll"), wait.events);
+        Assertions.assertSame(wait, poll.parent);
+        Assertions.assertEquals("GET", poll.attributes.get("http.request.method"));
+    }
+
+    /**
+     * {@link Span} recording its attributes and events, added to a list once it has been ended.
+     */
+    private static final class RecordingSpan implements Span {
+        private final String name;
+        private final RecordingSpan parent;
+        private final List<RecordingSpan> ended;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>();
+        private final List<String> events = new CopyOnWriteArrayList<String>();
+
+        RecordingSpan(String name, RecordingSpan parent, List<RecordingSpan> ended) {
+            this.name = name;
+            this.parent = parent;
+            this.ended = ended;
+        }
+
+        @Override
+        public void setAttribute(String key, String value) {
+            attributes.put(key, value);
+        }
+
+        @Override
+        public void setAttribute(String key, long value) {
+            attributes.put(key, value);
+        }
+
+        @Override
+        public void addEvent(String event) {
+            events.add(event);
+        }
+
+        @Override
+        public void end() {
+            ended.add(this);
+        }
+
+        @Override
+        public String toString() {
+            return name + attributes;
+        }
+    }
+
+    /**
+     * Checks that {@link Assembly#saveAsync(boolean, java.util.concurrent.Executor)} submits the assembly without
+     * blocking and polls its status until it is complete, completing the future on the provided executor.
+     * @throws Exception if communication with the server goes wrong, if building the request goes wrong or
+     * if Test resources  "assembly_executing.json" or "resumable_assembly_complete.json" are missing.
+     */
+    @Test
+    public void saveAsyncTillComplete() throws Exception {
+        mockServerClient.when(request()
+                .withPath("/assemblies").withMethod("POST")
+                .withBody(regex("[\\w\\W]*Permission is hereby granted, free of charge[\\w\\W]*")))
+                .respond(HttpResponse.response().withBody(getJson("assembly_executing.json")));
+
+        mockServerClient.when(request()
+                .withPath("/assemblies/76fe5df1c93a0a530f3e583805cf98b4").withMethod("GET"))
+                .respond(HttpResponse.response().withBody(getJson("resumable_assembly_complete.json")));
+
+        assembly.addFile(new File("LICENSE"), "file_name");
+        assembly.setShouldWaitForCompletion(true);
+
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "callback-thread"));
+        try {
+            AssemblyResponse savedAssembly = assembly.saveAsync(false, callbackExecutor)
+                    .thenApply(response -> {
+                        Assertions.assertEquals("callback-thread", Thread.currentThread().getName());
+                        return response;
+                    }).get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals("ASSEMBLY_COMPLETED", savedAssembly.json().get("ok"));
+        } finally {
+            callbackExecutor.shutdown();
+        }
+    }
+
     /**
      * This test checks the functionality of the {@link Assembly#save(boolean)} method with parameter
      * {@code isResumable = true}, indicating a {@link TusUpload TUSUpload}. The Test passes if the
@@ -0,0 +1,103 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.CircuitBreakerOpenException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+    /**
+     * The breaker opens once the failure rate of the recorded calls reaches the threshold, but not before the
+     * minimum number of calls has been recorded.
+     * @throws Exception if the breaker rejects a call unexpectedly
+     */
+    @Test
+    public void opensAtFailureRate() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 0.5, 0, 60000);
+        for (int i = 0; i < CircuitBreaker.MINIMUM_CALLS - 1; i++) {
+            breaker.acquire();
+            breaker.onResult(true, 0);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.acquire();
+        breaker.onResult(true, 0);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        CircuitBreakerOpenException e = Assertions.assertThrows(CircuitBreakerOpenException.class,
+                breaker::acquire);
+        Assertions.assertTrue(e.getRemainingOpenMillis() > 0);
+    }
+
+    /**
+     * Failures which drop out of the window are forgotten, slow calls count as failed.
+     * @throws Exception if the breaker rejects a call unexpectedly
+     */
+    @Test
+    public void slidingWindowAndSlowCalls() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 0.5, 100, 60000);
+        for (int i = 0; i < CircuitBreaker.WINDOW_SIZE * 5; i++) {
+            breaker.acquire();
+            // every third call fails, which stays below the threshold
+            breaker.onResult(i % 3 == 0, 0);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        long slow = TimeUnit.MILLISECONDS.toNanos(101);
+        int slowCalls = 0;
+        while (breaker.getState() == CircuitBreaker.State.CLOSED) {
+            breaker.acquire();
+            breaker.onResult(false, slow);
+            slowCalls++;
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assertions.assertTrue(slowCalls < CircuitBreaker.WINDOW_SIZE / 2, "slow calls " + slowCalls);
+    }
+
+    /**
+     * After the open duration a limited number of trial calls is let through, which close the breaker if they
+     * succeed and open it again if one of them fails.
+     * @throws Exception if the breaker rejects a call unexpectedly
+     */
+    @Test
+    public void halfOpen() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 0.5, 0, 0);
+        for (int i = 0; i < CircuitBreaker.MINIMUM_CALLS; i++) {
+            breaker.acquire();
+            breaker.onResult(true, 0);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_CALLS; i++) {
+            breaker.acquire();
+        }
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assertions.assertThrows(CircuitBreakerOpenException.class, breaker::acquire);
+        breaker.release();
+        breaker.acquire();
+
+        breaker.onResult(false, 0);
+        breaker.onResult(true, 0);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_CALLS; i++) {
+            breaker.acquire();
+            breaker.onResult(false, 0);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    /**
+     * Endpoint classes are derived from the first segment of the path.
+     */
+    @Test
+    public void getEndpointClass() {
+        Assertions.assertEquals("assemblies", CircuitBreaker.getEndpointClass("/assemblies/123"));
+        Assertions.assertEquals("templates", CircuitBreaker.getEndpointClass("/templates"));
+        Assertions.assertEquals("tus", CircuitBreaker.getEndpointClass("/resumable/files/"));
+        Assertions.assertEquals("", CircuitBreaker.getEndpointClass("/"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.transloadit.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link ExpiryClock}.
+ */
+public class ExpiryClockTest {
+    /**
+     * Checks the format of the expiry time and that it is only recomputed when the second rolls over.
+     */
+    @Test
+    public void format() {
+        ExpiryClock clock = new ExpiryClock();
+        long millis = 1792240496000L; // 2026-10-17T12:34:56Z
+
+        String formatted = clock.format(millis);
+        Assertions.assertEquals("2026/10/17 12:34:56+00:00", formatted);
+        Assertions.assertSame(formatted, clock.format(millis + 999));
+        Assertions.assertEquals("2026/10/17 12:34:57+00:00", clock.format(millis + 1000));
+        Assertions.assertEquals("2026/10/17 12:34:56+00:00", clock.format(millis + 1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.io.IOException;
+
+/**
+ * Unit test for {@link ExponentialBackoffRetryPolicy}.
+ */
+public class ExponentialBackoffRetryPolicyTest {
+    /**
+     * Retryable status codes and exceptions are retried until the maximum number of attempts is reached.
+     */
+    @Test
+    public void classification() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        Assertions.assertTrue(policy.getRetryDelay(attempt("GET", 1, 503, null)) >= 0);
+        Assertions.assertTrue(policy.getRetryDelay(attempt("GET", 1, 429, null)) >= 0);
+        Assertions.assertTrue(policy.getRetryDelay(attempt("GET", 1, -1, new SocketTimeoutException())) >= 0);
+        Assertions.assertEquals(-1, policy.getRetryDelay(attempt("GET", 1, 404, null)));
+        Assertions.assertEquals(-1, policy.getRetryDelay(attempt("GET", 1, -1, new IOException())));
+        Assertions.assertEquals(-1, policy.getRetryDelay(attempt("GET", 4, 503, null)));
+
+        // POST requests create Assemblies and are only retried if the server has not processed them.
+        Assertions.assertTrue(policy.getRetryDelay(attempt("POST", 1, 413, null)) >= 0);
+        Assertions.assertTrue(policy.getRetryDelay(attempt("POST", 1, -1, new ConnectException())) >= 0);
+        Assertions.assertEquals(-1, policy.getRetryDelay(attempt("POST", 1, 500, null)));
+        Assertions.assertEquals(-1, policy.getRetryDelay(attempt("POST", 1, -1, new SocketTimeoutException())));
+    }
+
+    /**
+     * Delays grow with the previous delay, stay within the configured bounds and are jittered.
+     * @throws LocalOperationException if the configuration is invalid
+     */
+    @Test
+    public void decorrelatedJitter() throws LocalOperationException {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setMaxAttempts(100);
+        policy.setBaseDelay(100);
+        policy.setMaxDelay(5000);
+
+        long previous = 0;
+        long max = 0;
+        boolean jittered = false;
+        for (int i = 1; i < 100; i++) {
+            long delay = policy.getRetryDelay(new RetryAttempt("GET", i, previous, 503, null));
+            Assertions.assertTrue(delay >= 100 && delay <= Math.max(300, previous * 3), "delay " + delay);
+            Assertions.assertTrue(delay <= 5000, "delay " + delay);
+            jittered |= delay != previous;
+            max = Math.max(max, delay);
+            previous = delay;
+        }
+        Assertions.assertTrue(jittered);
+        Assertions.assertTrue(max > 1000, "max " + max);
+    }
+
+    /**
+     * Invalid settings are rejected.
+     */
+    @Test
+    public void invalidSettings() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        Assertions.assertThrows(LocalOperationException.class, () -> policy.setMaxAttempts(0));
+        Assertions.assertThrows(LocalOperationException.class, () -> policy.setBaseDelay(-1));
+        Assertions.assertThrows(LocalOperationException.class, () -> policy.setMaxDelay(policy.getBaseDelay() - 1));
+    }
+
+    /**
+     * The retry budget allows its reserve at once and refills with every request.
+     */
+    @Test
+    public void retryBudget() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        Assertions.assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        Assertions.assertTrue(budget.tryWithdraw());
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertTrue(budget.tryWithdraw());
+        Assertions.assertFalse(budget.tryWithdraw());
+    }
+
+    private static RetryAttempt attempt(String method, int number, int statusCode, IOException exception) {
+        return new RetryAttempt(method, number, 0, statusCode, exception);
+    }
+}
@@ -0,0 +1,72 @@
+package com.transloadit.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit test for {@link HmacSigner}.
+ */
+public class HmacSignerTest {
+    /**
+     * Checks the signatures against the test vectors of RFC 4231, test case 2.
+     * @throws Exception if signing fails
+     */
+    @Test
+    public void signMatchesRfc4231() throws Exception {
+        String data = "what do ya want for nothing?";
+        Assertions.assertEquals("sha384:af45d2e376484031617f78d2b58a6b1b9c7ef464f5a01b47e42ec3736322445e"
+                + "8e2240ca5e69e2c78b3239ecfab21649", new HmacSigner("HmacSHA384", "sha384:", "Jefe").sign(data));
+        Assertions.assertEquals("sha256:5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843",
+                new HmacSigner("HmacSHA256", "sha256:", "Jefe").sign(data));
+    }
+
+    /**
+     * Checks that messages longer than the encoding buffer and non ASCII characters are signed like
+     * {@link Mac#doFinal(byte[])} does for the UTF-8 bytes of the message, also when a signer is used by
+     * several threads.
+     * @throws Exception if signing fails
+     */
+    @Test
+    public void signLongMessagesConcurrently() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; builder.length() < 10000; i++) {
+            builder.append("{\"field_").append(i).append("\":\"Gr\u00fc\u00dfe \u2713\"},");
+        }
+        final String message = builder.toString();
+        Mac mac = Mac.getInstance("HmacSHA384");
+        mac.init(new SecretKeySpec("SECRET".getBytes(StandardCharsets.UTF_8), "HmacSHA384"));
+        StringBuilder expected = new StringBuilder("sha384:");
+        for (byte b : mac.doFinal(message.getBytes(StandardCharsets.UTF_8))) {
+            expected.append(String.format("%02x", b));
+        }
+
+        final HmacSigner signer = new HmacSigner("HmacSHA384", "sha384:", "SECRET");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> signatures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 40; i++) {
+                signatures.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return signer.sign(message);
+                    }
+                }));
+            }
+            for (Future<String> signature : signatures) {
+                Assertions.assertEquals(expected.toString(), signature.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.transloadit.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit test for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+    /**
+     * Buckets are contiguous and every value falls into a bucket whose upper bound is within about 6% of the value.
+     */
+    @Test
+    public void bucketsCoverAllValues() {
+        Assertions.assertEquals(5, LatencyHistogram.bucketOf(5));
+        Assertions.assertEquals(16, LatencyHistogram.bucketOf(16));
+        Assertions.assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+        for (int bucket = 1; bucket < LatencyHistogram.bucketOf(Long.MAX_VALUE); bucket++) {
+            long lower = LatencyHistogram.upperBoundOf(bucket - 1) + 1;
+            Assertions.assertEquals(bucket, LatencyHistogram.bucketOf(lower));
+            Assertions.assertEquals(bucket, LatencyHistogram.bucketOf(LatencyHistogram.upperBoundOf(bucket)));
+            Assertions.assertTrue(LatencyHistogram.upperBoundOf(bucket) - lower <= lower / 16);
+        }
+    }
+
+    /**
+     * Percentiles, mean and maximum follow the recorded values.
+     */
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(0, histogram.getPercentile(99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000000L);
+        }
+        Assertions.assertEquals(1000, histogram.getCount());
+        Assertions.assertEquals(500500000, histogram.getMean(), 1);
+        Assertions.assertEquals(1000000000L, histogram.getMax());
+        Assertions.assertEquals(1000000000L, histogram.getPercentile(100));
+        assertWithin(500000000L, histogram.getPercentile(50));
+        assertWithin(990000000L, histogram.getPercentile(99));
+        assertWithin(1000000L, histogram.getPercentile(0));
+    }
+
+    /**
+     * Values recorded concurrently are not lost.
+     * @throws Exception if a thread is interrupted
+     */
+    @Test
+    public void concurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(80000, histogram.getCount());
+        Assertions.assertEquals(9999, histogram.getMax());
+        Assertions.assertEquals(9999, histogram.getPercentile(100));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        Assertions.assertTrue(actual >= expected && actual <= expected + expected / 16, expected + " vs " + actual);
+    }
+}
@@ -0,0 +1,151 @@
+package com.transloadit.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link RateLimiter}.
+ */
+public class RateLimiterTest {
+    /**
+     * Without a maximum rate and without rate limited responses, requests never wait.
+     */
+    @Test
+    public void unlimited() {
+        RateLimiter limiter = new RateLimiter(0);
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(0, limiter.reserve());
+        }
+        Assertions.assertEquals(0, limiter.getRate(), 0);
+    }
+
+    /**
+     * Once the burst allowance of a limited rate is used up, reservations queue up behind each other.
+     */
+    @Test
+    public void reservationsQueueUp() {
+        RateLimiter limiter = new RateLimiter(10);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, limiter.reserve());
+        }
+        // The request using up the last fraction of a permit is sent right away, its successors pay for it.
+        limiter.reserve();
+        long previous = 0;
+        for (int i = 1; i <= 5; i++) {
+            long wait = limiter.reserve();
+            Assertions.assertTrue(wait > previous, "wait " + wait + " after " + previous);
+            Assertions.assertTrue(wait <= i * 100 + 1, "wait " + wait);
+            previous = wait;
+        }
+    }
+
+    /**
+     * A slot is only reserved without waiting if it is available right away.
+     */
+    @Test
+    public void tryReserve() {
+        RateLimiter limiter = new RateLimiter(10);
+        for (int i = 0; i < 11; i++) {
+            Assertions.assertEquals(0, limiter.reserve());
+        }
+        Assertions.assertFalse(limiter.tryReserve());
+        long wait = limiter.reserve();
+        Assertions.assertTrue(wait > 0 && wait <= 100, "wait " + wait);
+
+        RateLimiter unlimited = new RateLimiter(0);
+        Assertions.assertTrue(unlimited.tryReserve());
+        unlimited.pause(500);
+        Assertions.assertFalse(unlimited.tryReserve());
+    }
+
+    /**
+     * Changing the maximum rate keeps a pause and a backoff in progress.
+     */
+    @Test
+    public void setMaxRate() {
+        RateLimiter limiter = new RateLimiter(20);
+        limiter.onRateLimited(500);
+        limiter.setMaxRate(40);
+        Assertions.assertEquals(10, limiter.getRate(), 0);
+        long wait = limiter.reserve();
+        Assertions.assertTrue(wait > 400 && wait <= 500, "wait " + wait);
+
+        limiter.setMaxRate(0);
+        Assertions.assertEquals(10, limiter.getRate(), 0);
+        int successes = 0;
+        while (limiter.getRate() > 0 && successes < 10000) {
+            limiter.onSuccess();
+            successes++;
+        }
+        Assertions.assertEquals(0, limiter.getRate(), 0);
+        Assertions.assertTrue(successes > 500, "disengaged after " + successes);
+
+        limiter.setMaxRate(10);
+        Assertions.assertEquals(10, limiter.getRate(), 0);
+        limiter.setMaxRate(5);
+        Assertions.assertEquals(5, limiter.getRate(), 0);
+        limiter.setMaxRate(0);
+        Assertions.assertEquals(0, limiter.getRate(), 0);
+    }
+
+    /**
+     * A rate limited response pauses all callers and halves the rate once per pause window; other responses raise
+     * the rate up to the maximum.
+     */
+    @Test
+    public void additiveIncreaseMultiplicativeDecrease() {
+        RateLimiter limiter = new RateLimiter(20);
+        limiter.onRateLimited(500);
+        Assertions.assertEquals(10, limiter.getRate(), 0);
+        limiter.onRateLimited(500);
+        Assertions.assertEquals(10, limiter.getRate(), 0);
+
+        long wait = limiter.reserve();
+        Assertions.assertTrue(wait > 400 && wait <= 500, "wait " + wait);
+        Assertions.assertTrue(limiter.reserve() > wait);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.onSuccess();
+        }
+        Assertions.assertEquals(20, limiter.getRate(), 0);
+    }
+
+    /**
+     * Without a maximum rate, the first rate limited response engages the limiter with half the observed rate.
+     */
+    @Test
+    public void engagesAfterRateLimit() {
+        RateLimiter limiter = new RateLimiter(0);
+        for (int i = 0; i < 100; i++) {
+            limiter.reserve();
+        }
+        limiter.onRateLimited(0);
+        Assertions.assertTrue(limiter.getRate() >= RateLimiter.MIN_RATE && limiter.getRate() <= 50,
+                "rate " + limiter.getRate());
+
+        limiter.pause(300);
+        Assertions.assertTrue(limiter.reserve() > 200);
+    }
+
+    /**
+     * Without a maximum rate, the limiter is disengaged again once the rate has recovered to the observed rate.
+     */
+    @Test
+    public void disengagesOnceRecovered() {
+        RateLimiter limiter = new RateLimiter(0);
+        for (int i = 0; i < 100; i++) {
+            limiter.reserve();
+        }
+        limiter.onRateLimited(0);
+        double limited = limiter.getRate();
+        Assertions.assertTrue(limited > 0, "rate " + limited);
+
+        for (int i = 0; i < 100000 && limiter.getRate() > 0; i++) {
+            limiter.onSuccess();
+        }
+        Assertions.assertEquals(0, limiter.getRate(), 0);
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(0, limiter.reserve());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.transloadit.sdk;
 
+import com.transloadit.sdk.exceptions.CircuitBreakerOpenException;
 import com.transloadit.sdk.exceptions.LocalOperationException;
 import com.transloadit.sdk.exceptions.RequestException;
 import org.junit.jupiter.api.Assertions;
@@ -14,15 +15,25 @@ import org.mockserver.junit.jupiter.MockServerSettings;
 import org.mockserver.matchers.Times;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.HttpResponse;
+import org.mockserver.verify.VerificationTimes;
 
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockserver.model.HttpError.error;
 
@@ -151,6 +162,276 @@ public class RequestTest extends MockHttpService {
                 .withPath("/foo").withMethod("POST"));
     }
 
+    /**
+     * Checks that rate limited GET requests are retried once the window of the "Retry-After" header has passed and
+     * that the window holds back other requests of the same client as well.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void rateLimitAppliesToAllRequestsOfClient() throws Exception {
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/limited").withMethod("GET"), Times.once())
+                .respond(HttpResponse.response().withStatusCode(413).withHeader("Retry-After", "1")
+                        .withBody(getJson("rate_limit_reached.json")));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/limited").withMethod("GET"))
+                .respond(HttpResponse.response().withStatusCode(200));
+
+        long start = System.currentTimeMillis();
+        Assertions.assertEquals(200, request.get("/limited").code());
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 1000);
+        mockServerClient.verify(HttpRequest.request().withPath("/limited"), VerificationTimes.exactly(2));
+        Assertions.assertTrue(transloadit.getRateLimiter().getRate() >= RateLimiter.MIN_RATE);
+
+        transloadit.getRateLimiter().onRateLimited(500);
+        start = System.currentTimeMillis();
+        new Request(transloadit).get("/other").close();
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 400);
+    }
+
+    /**
+     * Checks that a {@link RetryPolicy} retries server errors, but not POST requests which may have been processed.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void retryPolicyRetriesServerErrors() throws Exception {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setBaseDelay(10);
+        transloadit.setRetryPolicy(policy);
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/unavailable"), Times.exactly(2))
+                .respond(HttpResponse.response().withStatusCode(500));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/unavailable"))
+                .respond(HttpResponse.response().withStatusCode(200));
+
+        Assertions.assertEquals(200, request.get("/unavailable").code());
+        mockServerClient.verify(HttpRequest.request().withPath("/unavailable"), VerificationTimes.exactly(3));
+
+        mockServerClient.reset();
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/unavailable"))
+                .respond(HttpResponse.response().withStatusCode(500));
+        Assertions.assertEquals(500, new Request(transloadit).post("/unavailable", new HashMap<>()).code());
+        mockServerClient.verify(HttpRequest.request().withPath("/unavailable"), VerificationTimes.exactly(1));
+    }
+
+    /**
+     * Checks that the retries of a {@link RetryPolicy} are limited by the client's retry budget.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void retryBudgetLimitsRetries() throws Exception {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setBaseDelay(0);
+        policy.setMaxDelay(0);
+        transloadit.setRetryPolicy(policy);
+        transloadit.setRetryBudget(0, 2);
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/unavailable"))
+                .respond(HttpResponse.response().withStatusCode(503));
+
+        Assertions.assertEquals(503, request.get("/unavailable").code());
+        Assertions.assertEquals(503, new Request(transloadit).getAsync("/unavailable", new HashMap<>()).get().code());
+        mockServerClient.verify(HttpRequest.request().withPath("/unavailable"), VerificationTimes.exactly(4));
+    }
+
+    /**
+     * Checks that an open circuit breaker fails requests to its endpoint without sending them or waiting for the rate
+     * limiter, while other endpoints are not affected, and that it closes again after successful trial requests.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void circuitBreakerFailsFast() throws Exception {
+        transloadit.setCircuitBreakerEnabled(true);
+        transloadit.setCircuitBreakerOpenDuration(300);
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies"), Times.exactly(CircuitBreaker.MINIMUM_CALLS))
+                .respond(HttpResponse.response().withStatusCode(502));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies"))
+                .respond(HttpResponse.response().withStatusCode(200));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/templates"))
+                .respond(HttpResponse.response().withStatusCode(200));
+
+        for (int i = 0; i < CircuitBreaker.MINIMUM_CALLS; i++) {
+            request.get("/assemblies").close();
+        }
+        transloadit.getRateLimiter().pause(1000);
+        long start = System.currentTimeMillis();
+        Assertions.assertThrows(CircuitBreakerOpenException.class, () -> request.get("/assemblies"));
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> request.getAsync("/assemblies", new HashMap<>()).get());
+        Assertions.assertTrue(e.getCause() instanceof CircuitBreakerOpenException);
+        Assertions.assertTrue(System.currentTimeMillis() - start < 500);
+        mockServerClient.verify(HttpRequest.request().withPath("/assemblies"),
+                VerificationTimes.exactly(CircuitBreaker.MINIMUM_CALLS));
+        Assertions.assertEquals(200, request.get("/templates").code());
+
+        Thread.sleep(400);
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_CALLS; i++) {
+            Assertions.assertEquals(200, request.get("/assemblies").code());
+        }
+        Assertions.assertEquals(200, request.get("/assemblies").code());
+    }
+
+    /**
+     * Checks that a slow GET request is hedged once enough latencies have been observed, and that the faster hedge
+     * request answers it.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void hedgedGetAnswersFromFasterRequest() throws Exception {
+        transloadit.setHedgingEnabled(true);
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/fast"))
+                .respond(HttpResponse.response().withStatusCode(200));
+        for (int i = 0; i < RequestHedger.MIN_SAMPLES; i++) {
+            request.get("/assemblies/fast").close();
+        }
+        HedgeStatistics statistics = transloadit.getHedgeStatistics();
+        Assertions.assertEquals(RequestHedger.MIN_SAMPLES, statistics.getRequests());
+        Assertions.assertTrue(statistics.getHedgeDelay() >= RequestHedger.MIN_DELAY_MILLIS);
+
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/slow"), Times.once())
+                .respond(HttpResponse.response().withStatusCode(200).withDelay(TimeUnit.SECONDS, 5));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/slow"))
+                .respond(HttpResponse.response().withStatusCode(200).withBody("hedge"));
+        long start = System.currentTimeMillis();
+        okhttp3.Response response = request.get("/assemblies/slow");
+        Assertions.assertTrue(System.currentTimeMillis() - start < 4000);
+        Assertions.assertEquals("hedge", response.body().string());
+
+        statistics = transloadit.getHedgeStatistics();
+        Assertions.assertTrue(statistics.getHedges() >= 1, statistics.toString());
+        Assertions.assertTrue(statistics.getHedgeWins() >= 1, statistics.toString());
+        mockServerClient.verify(HttpRequest.request().withPath("/assemblies/slow"), VerificationTimes.exactly(2));
+        HttpRequest[] sent = mockServerClient.retrieveRecordedRequests(HttpRequest.request()
+                .withPath("/assemblies/slow"));
+        Assertions.assertNotEquals(sent[0].getFirstQueryStringParameter("params"),
+                sent[1].getFirstQueryStringParameter("params"), "hedge request must carry its own nonce");
+    }
+
+    /**
+     * Checks that a failing hedge request does not answer a hedged GET request, the slower but successful original
+     * request does.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void hedgedGetIgnoresFailingHedge() throws Exception {
+        transloadit.setHedgingEnabled(true);
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/fast"))
+                .respond(HttpResponse.response().withStatusCode(200));
+        for (int i = 0; i < RequestHedger.MIN_SAMPLES; i++) {
+            request.get("/assemblies/fast").close();
+        }
+
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/slow"), Times.once())
+                .respond(HttpResponse.response().withStatusCode(200).withBody("original")
+                        .withDelay(TimeUnit.MILLISECONDS, 1000));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/slow"))
+                .respond(HttpResponse.response().withStatusCode(400).withBody("hedge"));
+        okhttp3.Response response = request.get("/assemblies/slow");
+        Assertions.assertEquals(200, response.code());
+        Assertions.assertEquals("original", response.body().string());
+
+        HedgeStatistics statistics = transloadit.getHedgeStatistics();
+        Assertions.assertTrue(statistics.getHedges() >= 1, statistics.toString());
+        Assertions.assertEquals(0, statistics.getHedgeWins(), statistics.toString());
+    }
+
+    /**
+     * Checks that no hedge request is sent while the rate limiter has no slot available right away.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void hedgeRespectsRateLimiter() throws Exception {
+        transloadit.setHedgingEnabled(true);
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/fast"))
+                .respond(HttpResponse.response().withStatusCode(200));
+        for (int i = 0; i < RequestHedger.MIN_SAMPLES; i++) {
+            request.get("/assemblies/fast").close();
+        }
+
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies/slow"))
+                .respond(HttpResponse.response().withStatusCode(200).withBody("original")
+                        .withDelay(TimeUnit.MILLISECONDS, 500));
+        transloadit.setMaxRequestsPerSecond(1);
+        // Uses up the burst allowance, so the original request leaves no slot for a hedge request.
+        transloadit.getRateLimiter().reserve();
+        okhttp3.Response response = request.get("/assemblies/slow");
+        Assertions.assertEquals("original", response.body().string());
+
+        Assertions.assertEquals(0, transloadit.getHedgeStatistics().getHedges());
+        mockServerClient.verify(HttpRequest.request().withPath("/assemblies/slow"), VerificationTimes.exactly(1));
+    }
+
+    /**
+     * Checks that {@link InputStream InputStreams} are streamed completely, even if they do not report their length
+     * through {@link InputStream#available()}, like network streams.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void postStreamsInputStreamOfUnknownLength() throws Exception {
+        final byte[] content = new byte[256 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        InputStream stream = new InputStream() {
+            private int position = 0;
+
+            @Override
+            public int read() {
+                return position < content.length ? content[position++] : -1;
+            }
+        };
+        HashMap<String, InputStream> fileStreams = new HashMap<String, InputStream>();
+        fileStreams.put("file", stream);
+
+        Assertions.assertEquals(-1, new InputStreamRequestBody(null, stream).contentLength());
+        request.post("/foo", new HashMap<String, Object>(), null, null, fileStreams);
+
+        HttpRequest[] recorded = mockServerClient.retrieveRecordedRequests(HttpRequest.request()
+                .withPath("/foo").withMethod("POST"));
+        Assertions.assertEquals(1, recorded.length);
+        String body = new String(recorded[0].getBodyAsRawBytes(), StandardCharsets.US_ASCII);
+        Assertions.assertTrue(body.contains(new String(content, StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Checks that a POST request uploading an {@link InputStream} is not retried after a rate limited response, as the
+     * first attempt has already consumed the stream and a retry would upload an empty file.
+     * @throws Exception if request building goes wrong.
+     */
+    @Test
+    public void postWithInputStreamIsNotRetried() throws Exception {
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/limited").withMethod("POST"), Times.once())
+                .respond(HttpResponse.response().withStatusCode(413).withBody(getJson("rate_limit_reached.json")));
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/limited").withMethod("POST"))
+                .respond(HttpResponse.response().withStatusCode(200));
+        HashMap<String, InputStream> fileStreams = new HashMap<String, InputStream>();
+        fileStreams.put("file", new ByteArrayInputStream("content".getBytes(StandardCharsets.US_ASCII)));
+
+        Assertions.assertEquals(413, request.post("/limited", new HashMap<String, Object>(), null, null,
+                fileStreams).code());
+        mockServerClient.verify(HttpRequest.request().withPath("/limited"), VerificationTimes.exactly(1));
+
+        fileStreams.put("file", new ByteArrayInputStream("content".getBytes(StandardCharsets.US_ASCII)));
+        Assertions.assertEquals(200, request.post("/limited", new HashMap<String, Object>(), null, null,
+                fileStreams).code());
+        mockServerClient.verify(HttpRequest.request().withPath("/limited"), VerificationTimes.exactly(2));
+    }
+
     /**
      * Checks the result of the {@link Request#delete(String, Map)} )}  method by verifying the format of the
      * DELETE request the MockServer receives.
@@ -351,6 +632,20 @@ public class RequestTest extends MockHttpService {
         Assertions.assertEquals(44, nonce.length());
     }
 
+    /**
+     * Checks that nonces keep the format of a Base64 encoded key and do not repeat.
+     */
+    @Test
+    public void getNonceIsUnique() {
+        Set<String> nonces = new HashSet<String>();
+        for (int i = 0; i < 1000; i++) {
+            String nonce = request.getNonce("AES", 256);
+            Assertions.assertEquals(32, Base64.getDecoder().decode(nonce).length);
+            Assertions.assertTrue(nonces.add(nonce));
+        }
+        Assertions.assertEquals(24, request.getNonce("AES", 128).length());
+    }
+
     /**
      * Tests if {@link Request#delayBeforeRetry()} works.
      * @throws LocalOperationException
@@ -366,4 +661,114 @@ public class RequestTest extends MockHttpService {
         Assertions.assertTrue(delta >= timeout);
 
     }
+
+    /**
+     * Large bodies are gzip-compressed once they reach the compression threshold, small ones are sent as they are.
+     * The mock server decodes compressed bodies, so the saved bytes are measured on the body itself.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void compressesLargeBodies() throws Exception {
+        mockServerClient.when(HttpRequest.request().withPath("/compressed").withMethod("POST"))
+                .respond(HttpResponse.response().withStatusCode(200));
+        HashMap<String, Object> steps = new HashMap<String, Object>();
+        for (int i = 0; i < 300; i++) {
+            HashMap<String, Object> step = new HashMap<String, Object>();
+            step.put("robot", "/image/resize");
+            step.put("use", i == 0 ? ":original" : "step_" + (i - 1));
+            step.put("width", 100 + i);
+            steps.put("step_" + i, step);
+        }
+        HashMap<String, Object> params = new HashMap<String, Object>();
+        params.put("steps", steps);
+
+        request.post("/compressed", params);
+        transloadit.setRequestCompressionThreshold(16 * 1024);
+        request.post("/compressed", new HashMap<String, Object>());
+        request.post("/compressed", params);
+
+        HttpRequest[] recorded = mockServerClient.retrieveRecordedRequests(HttpRequest.request()
+                .withPath("/compressed").withMethod("POST"));
+        Assertions.assertEquals(3, recorded.length);
+        Assertions.assertFalse(recorded[0].containsHeader("Content-Encoding"));
+        Assertions.assertFalse(recorded[1].containsHeader("Content-Encoding"));
+        Assertions.assertEquals("gzip", recorded[2].getFirstHeader("Content-Encoding"));
+        Assertions.assertTrue(extractMultipartField(recorded[2].getBodyAsString(), "params").contains("step_299"));
+
+        okhttp3.RequestBody plain = okhttp3.RequestBody.create(recorded[0].getBodyAsString(),
+                okhttp3.MediaType.parse("multipart/form-data"));
+        long compressedLength = Request.gzip(plain).contentLength();
+        Assertions.assertTrue(plain.contentLength() >= 16 * 1024, "plain body too small: " + plain.contentLength());
+        Assertions.assertTrue(compressedLength * 5 < plain.contentLength(), plain.contentLength() + " -> " + compressedLength);
+        Assertions.assertThrows(LocalOperationException.class, () -> transloadit.setRequestCompressionThreshold(-1));
+    }
+
+    /**
+     * Checks that latencies, status codes and retries of every attempt reach the client's {@link MetricsRecorder}.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void recordsMetrics() throws Exception {
+        HistogramMetricsRecorder metrics = new HistogramMetricsRecorder();
+        transloadit.setMetricsRecorder(metrics);
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+        policy.setBaseDelay(10);
+        transloadit.setRetryPolicy(policy);
+        mockServerClient.when(HttpRequest.request().withPath("/assemblies/metrics"), Times.exactly(1))
+                .respond(HttpResponse.response().withStatusCode(503));
+        mockServerClient.when(HttpRequest.request().withPath("/assemblies/metrics"))
+                .respond(HttpResponse.response().withStatusCode(200));
+
+        Assertions.assertEquals(200, request.get("/assemblies/metrics").code());
+        Assertions.assertEquals(200, new Request(transloadit).getAsync("/assemblies/metrics", new HashMap<>()).get().code());
+
+        LatencyHistogram histogram = metrics.getLatencyHistogram("GET", "assemblies");
+        Assertions.assertNotNull(histogram, metrics.getLatencyHistogramKeys().toString());
+        Assertions.assertEquals(3, histogram.getCount());
+        Assertions.assertTrue(histogram.getPercentile(50) > 0);
+        Assertions.assertEquals(Long.valueOf(1), metrics.getStatusCodes().get(503));
+        Assertions.assertEquals(Long.valueOf(2), metrics.getStatusCodes().get(200));
+        Assertions.assertEquals(1, metrics.getRetries());
+
+        transloadit.setMetricsRecorder(null);
+        Assertions.assertSame(MetricsRecorder.NOOP, transloadit.getMetricsRecorder());
+    }
+
+    /**
+     * Checks that the phases of a call are timed and reported on the response and to the client's
+     * {@link MetricsRecorder}.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void callTimings() throws Exception {
+        final List<CallTimings> reported = new CopyOnWriteArrayList<CallTimings>();
+        transloadit.setMetricsRecorder(new MetricsRecorder() {
+            @Override
+            public void onCallTimings(String method, String endpoint, CallTimings timings) {
+                Assertions.assertEquals("GET", method);
+                Assertions.assertEquals("templates", endpoint);
+                reported.add(timings);
+            }
+        });
+        mockServerClient.when(HttpRequest.request().withPath("/templates/timed"))
+                .respond(HttpResponse.response().withStatusCode(200).withBody("{\"ok\":\"TEMPLATE_FOUND\"}")
+                        .withDelay(TimeUnit.MILLISECONDS, 100));
+
+        com.transloadit.sdk.response.Response first = new com.transloadit.sdk.response.Response(
+                request.get("/templates/timed"));
+        CallTimings timings = first.getCallTimings();
+        Assertions.assertNotNull(timings);
+        Assertions.assertFalse(timings.isConnectionReused(), timings.toString());
+        Assertions.assertTrue(timings.getConnect() > 0, timings.toString());
+        Assertions.assertEquals(-1, timings.getTls(), timings.toString());
+        Assertions.assertTrue(timings.getRequestWrite() >= 0, timings.toString());
+        Assertions.assertTrue(timings.getTimeToFirstByte() >= TimeUnit.MILLISECONDS.toNanos(90), timings.toString());
+        Assertions.assertTrue(timings.getResponseRead() >= 0, timings.toString());
+        Assertions.assertTrue(timings.getTotal() >= timings.getTimeToFirstByte(), timings.toString());
+
+        CallTimings second = new com.transloadit.sdk.response.Response(request.get("/templates/timed")).getCallTimings();
+        Assertions.assertTrue(second.isConnectionReused(), second.toString());
+        Assertions.assertEquals(-1, second.getConnect(), second.toString());
+        Assertions.assertEquals(Arrays.asList(timings, second), reported);
+    }
 }
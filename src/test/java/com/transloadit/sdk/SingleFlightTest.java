@@ -0,0 +1,65 @@
+package com.transloadit.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit test for {@link SingleFlight}.
+ */
+public class SingleFlightTest {
+    /**
+     * An {@link Error} thrown by a load completes the flight for the callers waiting for it and removes it, so the
+     * next caller loads the value again instead of blocking forever.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void errorCompletesFlight() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        final SingleFlight<String> singleFlight = new SingleFlight<String>(scheduler);
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+
+        Thread loader = new Thread(() -> {
+            try {
+                singleFlight.execute("key", 0, () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new StackOverflowError("test");
+                });
+            } catch (Throwable ignored) {
+                // expected
+            }
+        });
+        loader.start();
+        Assertions.assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<String> waiter = singleFlight.executeAsync("key", 0,
+                () -> CompletableFuture.completedFuture("unexpected"), Runnable::run);
+        release.countDown();
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> waiter.get(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(e.getCause() instanceof StackOverflowError);
+        loader.join(10000);
+
+        Assertions.assertEquals("value", singleFlight.execute("key", 0, () -> {
+            loads.incrementAndGet();
+            return "value";
+        }));
+        Assertions.assertEquals(2, loads.get());
+        scheduler.shutdown();
+    }
+}
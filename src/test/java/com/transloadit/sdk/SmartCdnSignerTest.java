@@ -0,0 +1,150 @@
+package com.transloadit.sdk;
+
+import com.transloadit.sdk.exceptions.LocalOperationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Unit test for {@link SmartCdnSigner}.
+ */
+public class SmartCdnSignerTest {
+    private final Transloadit transloadit = new Transloadit("foo_key", "foo_secret");
+
+    /**
+     * Checks a signed URL against a known signature.
+     * @throws Exception if signing fails
+     */
+    @Test
+    @SuppressWarnings("checkstyle:linelength")
+    public void sign() throws Exception {
+        Map<String, List<String>> params = new HashMap<>();
+        params.put("foo", Collections.singletonList("bar"));
+        params.put("aaa", Arrays.asList("42", "21"));
+        long expiresAt = Instant.parse("2024-05-01T01:00:00.000Z").toEpochMilli();
+
+        SmartCdnSigner signer = transloadit.newSmartCdnSigner("foo_workspace", "foo_template");
+        Assertions.assertEquals("https://foo_workspace.tlcdn.com/foo_template/foo%2Finput?aaa=42&aaa=21&auth_key=foo_key&exp=1714525200000&foo=bar&sig=sha256%3A9a8df3bb28eea621b46ec808a250b7903b2546be7e66c048956d4f30b8da7519",
+                signer.sign("foo/input", params, expiresAt));
+    }
+
+    /**
+     * Checks that {@link SmartCdnSigner#signAll(java.util.Collection, Map, long)} produces the same URLs as the
+     * original implementation of {@link Transloadit#getSignedSmartCDNUrl(String, String, String, Map, long)}.
+     * @throws Exception if signing fails
+     */
+    @Test
+    public void signAllMatchesSingleSignatures() throws Exception {
+        Map<String, List<String>> params = new HashMap<>();
+        params.put("w", Collections.singletonList("320"));
+        params.put("format", Collections.singletonList("web p"));
+        long expiresAt = 1714525200000L;
+        List<String> inputs = Arrays.asList("image.jpg", "dir/Gr\u00fc\u00dfe & more.png", "", "a?b=c");
+
+        List<String> urls = transloadit.newSmartCdnSigner("my workspace", "tpl/1").signAll(inputs, params, expiresAt);
+        Assertions.assertEquals(inputs.size(), urls.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            String expected = legacySign("my workspace", "tpl/1", inputs.get(i), params, expiresAt);
+            Assertions.assertEquals(expected, urls.get(i));
+            Assertions.assertEquals(expected,
+                    transloadit.getSignedSmartCDNUrl("my workspace", "tpl/1", inputs.get(i), params, expiresAt));
+        }
+    }
+
+    /**
+     * Checks that the default expiration is rounded up to the expiry bucket and that invalid buckets are rejected.
+     * @throws Exception if signing fails
+     */
+    @Test
+    public void expiryBucketing() throws Exception {
+        long bucket = 10 * 60 * 1000;
+        Transloadit client = new Transloadit("foo_key", "foo_secret");
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setSmartCdnExpiryBucket(-1));
+        client.setSmartCdnExpiryBucket(bucket);
+        Assertions.assertEquals(bucket, client.getSmartCdnExpiryBucket());
+
+        long earliest = System.currentTimeMillis() + 60 * 60 * 1000;
+        String url = client.getSignedSmartCDNUrl("foo_workspace", "foo_template", "foo/input", null);
+        long latest = System.currentTimeMillis() + 60 * 60 * 1000 + bucket;
+        Matcher matcher = Pattern.compile("exp=(\\d+)").matcher(url);
+        Assertions.assertTrue(matcher.find());
+        long expiresAt = Long.parseLong(matcher.group(1));
+        Assertions.assertEquals(0, expiresAt % bucket);
+        Assertions.assertTrue(expiresAt >= earliest && expiresAt <= latest);
+        Assertions.assertEquals(legacySign("foo_workspace", "foo_template", "foo/input",
+                Collections.<String, List<String>>emptyMap(), expiresAt), url);
+    }
+
+    /**
+     * Checks that signed URLs are served from the cache and that the least recently used URLs are evicted.
+     * @throws Exception if signing fails
+     */
+    @Test
+    public void urlCache() throws Exception {
+        Transloadit client = new Transloadit("foo_key", "foo_secret");
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setSmartCdnUrlCacheSize(-1));
+        client.setSmartCdnUrlCacheSize(2);
+        Assertions.assertEquals(2, client.getSmartCdnUrlCacheSize());
+
+        SmartCdnSigner signer = client.newSmartCdnSigner("foo_workspace", "foo_template");
+        Map<String, List<String>> params = Collections.singletonMap("w", Collections.singletonList("320"));
+        String first = signer.sign("a.jpg", params, 1714525200000L);
+        Assertions.assertSame(first, signer.sign("a.jpg", params, 1714525200000L));
+        Assertions.assertSame(first, client.newSmartCdnSigner("foo_workspace", "foo_template")
+                .signAll(Collections.singletonList("a.jpg"), params, 1714525200000L).get(0));
+        Assertions.assertNotEquals(first, signer.sign("a.jpg", params, 1714525260000L));
+        Assertions.assertNotEquals(first, signer.sign("a.jpg", null, 1714525200000L));
+
+        // "a.jpg" with the first parameters is the least recently used entry by now
+        Assertions.assertNotSame(first, signer.sign("a.jpg", params, 1714525200000L));
+        Assertions.assertEquals(first, signer.sign("a.jpg", params, 1714525200000L));
+    }
+
+    /**
+     * The Smart CDN signing code as it was before {@link SmartCdnSigner} has been introduced.
+     */
+    private static String legacySign(String workspace, String template, String input,
+                                     Map<String, List<String>> urlParams, long expiresAt) throws Exception {
+        String workspaceSlug = URLEncoder.encode(workspace, StandardCharsets.UTF_8.name());
+        String templateSlug = URLEncoder.encode(template, StandardCharsets.UTF_8.name());
+        String inputField = URLEncoder.encode(input, StandardCharsets.UTF_8.name());
+
+        SortedMap<String, List<String>> params = new TreeMap<>(urlParams);
+        params.put("auth_key", Collections.singletonList("foo_key"));
+        params.put("exp", Collections.singletonList(String.valueOf(expiresAt)));
+
+        List<String> queryParts = new ArrayList<>(params.size());
+        for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+            for (String value : entry.getValue()) {
+                queryParts.add(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8.name()) + "="
+                        + URLEncoder.encode(value, StandardCharsets.UTF_8.name()));
+            }
+        }
+        String queryString = String.join("&", queryParts);
+        String stringToSign = workspaceSlug + "/" + templateSlug + "/" + inputField + "?" + queryString;
+
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        hmac.init(new SecretKeySpec("foo_secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        StringBuilder signature = new StringBuilder("sha256:");
+        for (byte b : hmac.doFinal(stringToSign.getBytes(StandardCharsets.UTF_8))) {
+            signature.append(String.format("%02x", b));
+        }
+        return "https://" + workspaceSlug + ".tlcdn.com/" + templateSlug + "/" + inputField + "?" + queryString
+                + "&sig=" + URLEncoder.encode(signature.toString(), StandardCharsets.UTF_8.name());
+    }
+}
@@ -13,7 +13,9 @@ import org.mockserver.client.MockServerClient;
 import org.mockserver.junit.jupiter.MockServerExtension;
 import org.mockserver.junit.jupiter.MockServerSettings;
 import org.mockserver.model.HttpRequest;
+import org.mockserver.model.ClearType;
 import org.mockserver.model.HttpResponse;
+import org.mockserver.verify.VerificationTimes;
 
 import java.io.IOException;
 import java.time.Instant;
@@ -23,6 +25,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -147,6 +155,115 @@ public class TransloaditTest extends MockHttpService {
         Assertions.assertEquals(assembly.getUrl(), "http://localhost:9040/assemblies/76fe5df1c93a0a530f3e583805cf98b4");
     }
 
+    /**
+     * Checks that concurrent identical requests for an Assembly share one call when request coalescing is enabled,
+     * that every caller gets its own copy of the response and that the response is reused within the freshness
+     * window.
+     *
+     * @throws Exception if the Test resources are missing or a request fails.
+     */
+    @Test
+    public void coalesceConcurrentGetAssembly() throws Exception {
+        HttpRequest assemblyRequest = HttpRequest.request()
+                .withPath("/assemblies/76fe5df1c93a0a530f3e583805cf98b4").withMethod("GET");
+        mockServerClient.when(assemblyRequest)
+                .respond(HttpResponse.response().withBody(getJson("assembly.json"))
+                        .withDelay(TimeUnit.MILLISECONDS, 500));
+        transloadit.setRequestCoalescingEnabled(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<AssemblyResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> transloadit.getAssembly("76fe5df1c93a0a530f3e583805cf98b4")));
+            }
+            AssemblyResponse async = transloadit.getAssemblyAsync("76fe5df1c93a0a530f3e583805cf98b4").get();
+            AssemblyResponse first = futures.get(0).get();
+            first.json().put("ok", "CHANGED");
+            for (Future<AssemblyResponse> future : futures.subList(1, futures.size())) {
+                Assertions.assertNotSame(first, future.get());
+                Assertions.assertEquals("ASSEMBLY_COMPLETED", future.get().json().getString("ok"));
+            }
+            Assertions.assertEquals("76fe5df1c93a0a530f3e583805cf98b4", async.getId());
+        } finally {
+            executor.shutdown();
+        }
+        mockServerClient.verify(assemblyRequest, VerificationTimes.atMost(2));
+
+        // Without a freshness window, completed requests are not reused.
+        mockServerClient.clear(assemblyRequest, ClearType.LOG);
+        transloadit.getAssembly("76fe5df1c93a0a530f3e583805cf98b4");
+        transloadit.getAssembly("76fe5df1c93a0a530f3e583805cf98b4");
+        mockServerClient.verify(assemblyRequest, VerificationTimes.exactly(2));
+
+        mockServerClient.clear(assemblyRequest, ClearType.LOG);
+        transloadit.setRequestCoalescingFreshness(60000);
+        AssemblyResponse fresh = transloadit.getAssembly("76fe5df1c93a0a530f3e583805cf98b4");
+        fresh.json().put("ok", "CHANGED");
+        Assertions.assertEquals("ASSEMBLY_COMPLETED",
+                transloadit.getAssembly("76fe5df1c93a0a530f3e583805cf98b4").json().getString("ok"));
+        Assertions.assertEquals("ASSEMBLY_COMPLETED", transloadit.getAssemblyByUrl(
+                transloadit.getHostUrl() + "/assemblies/76fe5df1c93a0a530f3e583805cf98b4").json().getString("ok"));
+        mockServerClient.verify(assemblyRequest, VerificationTimes.exactly(1));
+    }
+
+    /**
+     * Tests if {@link Transloadit#getAssemblyAsync(String, java.util.concurrent.Executor)} and
+     * {@link Transloadit#cancelAssemblyAsync(String)} complete with the parsed {@link AssemblyResponse} and run
+     * callbacks on the provided executor.
+     *
+     * @throws Exception if the Test resources are missing or a future completes exceptionally.
+     */
+    @Test
+    public void getAndCancelAssemblyAsync() throws Exception {
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/assemblies/76fe5df1c93a0a530f3e583805cf98b4").withMethod("GET"))
+                .respond(HttpResponse.response().withBody(getJson("assembly.json")));
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/assemblies/76fe5df1c93a0a530f3e583805cf98b4").withMethod("DELETE"))
+                .respond(HttpResponse.response().withBody(getJson("cancel_assembly.json")));
+
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "callback-thread"));
+        try {
+            String callbackThread = transloadit.getAssemblyAsync("76fe5df1c93a0a530f3e583805cf98b4", callbackExecutor)
+                    .thenApply(response -> {
+                        Assertions.assertEquals("76fe5df1c93a0a530f3e583805cf98b4", response.getId());
+                        return Thread.currentThread().getName();
+                    }).get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals("callback-thread", callbackThread);
+        } finally {
+            callbackExecutor.shutdown();
+        }
+
+        AssemblyResponse canceled = transloadit
+                .cancelAssemblyAsync(transloadit.getHostUrl() + "/assemblies/76fe5df1c93a0a530f3e583805cf98b4")
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals("ASSEMBLY_CANCELED", canceled.json().getString("ok"));
+    }
+
+    /**
+     * Tests if asynchronous calls complete exceptionally with a {@link RequestException} if the server cannot be
+     * reached, and if {@link Transloadit#listAssembliesAsync(Map)} parses list responses.
+     *
+     * @throws Exception if the Test resource "assemblies.json" is missing.
+     */
+    @Test
+    public void asyncFailuresAndLists() throws Exception {
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/assemblies").withMethod("GET"))
+                .respond(HttpResponse.response().withBody(getJson("assemblies.json")));
+
+        ListResponse assemblies = transloadit.listAssembliesAsync(new HashMap<String, Object>())
+                .get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(0, assemblies.size());
+
+        Transloadit unreachable = new Transloadit("KEY", "SECRET", "http://localhost:1");
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class,
+                () -> unreachable.getAssemblyAsync("76fe5df1c93a0a530f3e583805cf98b4").get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(exception.getCause() instanceof RequestException);
+    }
+
     /**
      * Tests if sending an cancel request for an running Assembly with {@link Transloadit#cancelAssembly(String)} works.
      *
@@ -220,6 +337,95 @@ public class TransloaditTest extends MockHttpService {
         Assertions.assertEquals(template.json().get("ok"), "TEMPLATE_FOUND");
     }
 
+    /**
+     * Checks that the template cache serves repeated requests with copies of the cached response, revalidates
+     * expired responses of synchronous and asynchronous requests with a conditional request and drops templates and
+     * lists changed through the client.
+     *
+     * @throws Exception if the Test resources are missing or a request fails.
+     */
+    @Test
+    public void templateCache() throws Exception {
+        HttpRequest templateRequest = HttpRequest.request()
+                .withPath("/templates/76fe5df1c93a0a530f3e583805cf98b4").withMethod("GET");
+        HttpRequest listRequest = HttpRequest.request().withPath("/templates").withMethod("GET");
+        mockServerClient.when(HttpRequest.request().withPath("/templates/76fe5df1c93a0a530f3e583805cf98b4")
+                        .withMethod("GET").withHeader("If-None-Match", "\"v1\""))
+                .respond(HttpResponse.response().withStatusCode(304));
+        mockServerClient.when(templateRequest)
+                .respond(HttpResponse.response().withHeader("ETag", "\"v1\"").withBody(getJson("template.json")));
+        mockServerClient.when(listRequest)
+                .respond(HttpResponse.response().withBody(getJson("templates.json")));
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/templates/76fe5df1c93a0a530f3e583805cf98b4").withMethod("PUT"))
+                .respond(HttpResponse.response().withBody(getJson("update_template.json")));
+        transloadit.setTemplateCacheSize(10);
+        transloadit.setTemplateCacheTtl(300);
+
+        Response template = transloadit.getTemplate("76fe5df1c93a0a530f3e583805cf98b4");
+        template.json().put("ok", "CHANGED");
+        Assertions.assertEquals("TEMPLATE_FOUND",
+                transloadit.getTemplate("76fe5df1c93a0a530f3e583805cf98b4").json().getString("ok"));
+        Assertions.assertEquals("TEMPLATE_FOUND",
+                transloadit.getTemplateAsync("76fe5df1c93a0a530f3e583805cf98b4").get().json().getString("ok"));
+        ListResponse list = transloadit.listTemplates();
+        Assertions.assertNotSame(list, transloadit.listTemplates());
+        mockServerClient.verify(templateRequest, VerificationTimes.exactly(1));
+        mockServerClient.verify(listRequest, VerificationTimes.exactly(1));
+
+        Thread.sleep(400);
+        Assertions.assertEquals("TEMPLATE_FOUND",
+                transloadit.getTemplate("76fe5df1c93a0a530f3e583805cf98b4").json().getString("ok"));
+        TemplateCacheStatistics statistics = transloadit.getTemplateCacheStatistics();
+        Assertions.assertEquals(3, statistics.getHits(), statistics.toString());
+        Assertions.assertEquals(2, statistics.getMisses(), statistics.toString());
+        Assertions.assertEquals(1, statistics.getRevalidations(), statistics.toString());
+
+        Thread.sleep(400);
+        Assertions.assertEquals("TEMPLATE_FOUND",
+                transloadit.getTemplateAsync("76fe5df1c93a0a530f3e583805cf98b4").get().json().getString("ok"));
+        statistics = transloadit.getTemplateCacheStatistics();
+        Assertions.assertEquals(2, statistics.getMisses(), statistics.toString());
+        Assertions.assertEquals(2, statistics.getRevalidations(), statistics.toString());
+
+        transloadit.updateTemplate("76fe5df1c93a0a530f3e583805cf98b4", new HashMap<String, Object>());
+        Assertions.assertEquals(0, transloadit.getTemplateCacheStatistics().getSize());
+        Assertions.assertNotSame(template, transloadit.getTemplate("76fe5df1c93a0a530f3e583805cf98b4"));
+        Assertions.assertNotSame(list, transloadit.listTemplates());
+        Assertions.assertEquals(4, transloadit.getTemplateCacheStatistics().getMisses());
+    }
+
+    /**
+     * Checks that {@link Transloadit#warmUp(String...)} opens connections to the API and the tus endpoint, and that
+     * keep-alive pings repeat the warm-up requests.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void warmUp() throws Exception {
+        HttpRequest headRequest = HttpRequest.request().withPath("/").withMethod("HEAD");
+        HttpRequest optionsRequest = HttpRequest.request().withPath("/resumable/files/").withMethod("OPTIONS");
+        mockServerClient.when(headRequest).respond(HttpResponse.response().withStatusCode(200));
+        mockServerClient.when(optionsRequest).respond(HttpResponse.response().withStatusCode(204)
+                .withHeader("Tus-Resumable", "1.0.0"));
+        Assertions.assertEquals(-1, transloadit.getConnectionStatistics().getLastWarmUpDuration());
+
+        transloadit.warmUp();
+        ConnectionStatistics statistics = transloadit.getConnectionStatistics();
+        Assertions.assertEquals(4, statistics.getWarmUpRequests(), statistics.toString());
+        Assertions.assertEquals(0, statistics.getWarmUpFailures(), statistics.toString());
+        Assertions.assertTrue(statistics.getLastWarmUpDuration() >= 0, statistics.toString());
+        Assertions.assertTrue(statistics.getIdleConnections() >= 1, statistics.toString());
+        mockServerClient.verify(headRequest, VerificationTimes.exactly(2));
+        mockServerClient.verify(optionsRequest, VerificationTimes.exactly(2));
+
+        transloadit.setKeepAlivePingInterval(50);
+        Thread.sleep(400);
+        transloadit.setKeepAlivePingInterval(0);
+        Assertions.assertTrue(transloadit.getConnectionStatistics().getPings() >= 4);
+        Assertions.assertThrows(LocalOperationException.class, () -> transloadit.setWarmUpConnections(0));
+        Assertions.assertThrows(LocalOperationException.class, () -> transloadit.setKeepAlivePingInterval(-1));
+    }
+
     /**
      * Proves that {@link Transloadit#updateTemplate(String, Map)} sends a PUT - request and verifies that the
      * {@link Response} receives the mockserver's answer "TEMPLATE_UPDATED".
@@ -398,5 +604,134 @@ public class TransloaditTest extends MockHttpService {
         String expectedUrl = "https://foo_workspace.tlcdn.com/foo_template/foo%2Finput?aaa=42&aaa=21&auth_key=foo_key&exp=1714525200000&foo=bar&sig=sha256%3A9a8df3bb28eea621b46ec808a250b7903b2546be7e66c048956d4f30b8da7519";
         Assertions.assertEquals(expectedUrl, url);
     }
-}
 
+    /**
+     * Verifies that all {@link Request Requests} of one client share the same HTTP client and therefore reuse
+     * pooled connections instead of opening a new one for every call.
+     * @throws Exception if building the request goes wrong or the Test resource "assembly.json" is missing.
+     */
+    @Test
+    public void requestsShareHttpClientAndConnections() throws Exception {
+        mockServerClient.when(HttpRequest.request()
+                        .withPath("/assemblies/76fe5df1c93a0a530f3e583805cf98b4").withMethod("GET"))
+                .respond(HttpResponse.response().withBody(getJson("assembly.json")));
+
+        Transloadit client = new Transloadit("KEY", "SECRET", "http://localhost:" + PORT);
+        Assertions.assertSame(client.getHttpClient(), client.getHttpClient());
+
+        for (int i = 0; i < 3; i++) {
+            client.getAssembly("76fe5df1c93a0a530f3e583805cf98b4");
+        }
+        Assertions.assertEquals(1, client.getHttpClient().connectionPool().connectionCount());
+    }
+
+    /**
+     * Verifies that connection pool, dispatcher and timeout settings are applied to the shared HTTP client and
+     * that invalid values are rejected.
+     * @throws LocalOperationException if a valid setting is rejected.
+     */
+    @Test
+    public void httpClientSettings() throws LocalOperationException {
+        Transloadit client = new Transloadit("KEY", "SECRET", "http://localhost:" + PORT);
+        okhttp3.OkHttpClient initialClient = client.getHttpClient();
+
+        client.setMaxRequests(12);
+        client.setMaxRequestsPerHost(7);
+        client.setConnectTimeout(1000);
+        client.setReadTimeout(2000);
+        client.setWriteTimeout(3000);
+        client.setMaxIdleConnections(9);
+        client.setKeepAliveDuration(60000);
+
+        okhttp3.OkHttpClient httpClient = client.getHttpClient();
+        Assertions.assertNotSame(initialClient, httpClient);
+        Assertions.assertEquals(12, httpClient.dispatcher().getMaxRequests());
+        Assertions.assertEquals(7, httpClient.dispatcher().getMaxRequestsPerHost());
+        Assertions.assertEquals(1000, httpClient.connectTimeoutMillis());
+        Assertions.assertEquals(2000, httpClient.readTimeoutMillis());
+        Assertions.assertEquals(3000, httpClient.writeTimeoutMillis());
+
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setMaxIdleConnections(-1));
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setKeepAliveDuration(0));
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setMaxRequests(0));
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setMaxRequestsPerHost(0));
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setConnectTimeout(-1));
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setReadTimeout(-1));
+        Assertions.assertThrows(LocalOperationException.class, () -> client.setWriteTimeout(-1));
+    }
+
+    /**
+     * Checks the built-in upload and event stream executors and that they can be replaced.
+     * @throws LocalOperationException if a setting is rejected
+     */
+    @Test
+    public void uploadAndEventStreamExecutors() throws LocalOperationException {
+        Assertions.assertEquals(16, transloadit.getMaxConcurrentUploads());
+        Assertions.assertEquals(64, transloadit.getMaxEventStreams());
+        ThreadPoolExecutor uploads = (ThreadPoolExecutor) transloadit.getUploadExecutor();
+        Assertions.assertSame(uploads, transloadit.getUploadExecutor());
+        Assertions.assertEquals(16, uploads.getMaximumPoolSize());
+
+        transloadit.setMaxConcurrentUploads(4);
+        Assertions.assertEquals(4, uploads.getCorePoolSize());
+        Assertions.assertEquals(4, uploads.getMaximumPoolSize());
+        transloadit.setMaxEventStreams(2);
+        Assertions.assertEquals(2, ((ThreadPoolExecutor) transloadit.getEventStreamExecutor()).getMaximumPoolSize());
+        Assertions.assertThrows(LocalOperationException.class, () -> transloadit.setMaxConcurrentUploads(0));
+        Assertions.assertThrows(LocalOperationException.class, () -> transloadit.setMaxEventStreams(0));
+
+        ExecutorService custom = Executors.newSingleThreadExecutor();
+        try {
+            transloadit.setUploadExecutor(custom);
+            transloadit.setEventStreamExecutor(custom);
+            Assertions.assertSame(custom, transloadit.getUploadExecutor());
+            Assertions.assertSame(custom, transloadit.getEventStreamExecutor());
+            transloadit.setUploadExecutor(null);
+            Assertions.assertSame(uploads, transloadit.getUploadExecutor());
+        } finally {
+            custom.shutdown();
+        }
+    }
+
+    /**
+     * Checks that enabling virtual threads replaces the built-in executors, which only use virtual threads where they
+     * are available.
+     */
+    @Test
+    public void virtualThreads() {
+        Assertions.assertFalse(transloadit.isVirtualThreadsEnabled());
+        ExecutorService platform = transloadit.getUploadExecutor();
+        Assertions.assertTrue(platform instanceof ThreadPoolExecutor);
+
+        transloadit.setVirtualThreadsEnabled(true);
+        Assertions.assertTrue(transloadit.isVirtualThreadsEnabled());
+        Assertions.assertTrue(platform.isShutdown());
+        Assertions.assertEquals(!VirtualThreads.isSupported(), transloadit.getUploadExecutor() instanceof ThreadPoolExecutor);
+        Assertions.assertEquals(!VirtualThreads.isSupported(),
+                transloadit.getEventStreamExecutor() instanceof ThreadPoolExecutor);
+    }
+
+    /**
+     * Checks that closing the client shuts down its scheduler, the dispatcher of its HTTP engine and its built-in
+     * executors, but not executors set by the application.
+     */
+    @Test
+    public void close() {
+        Transloadit client = new Transloadit("KEY", "SECRET", "http://localhost:9040");
+        ExecutorService scheduler = client.getScheduler();
+        ExecutorService uploads = client.getUploadExecutor();
+        ExecutorService dispatcher = client.getHttpClient().dispatcher().executorService();
+        ExecutorService custom = Executors.newSingleThreadExecutor();
+        try {
+            client.setEventStreamExecutor(custom);
+            client.getEventStreamExecutor();
+            client.close();
+            Assertions.assertTrue(scheduler.isShutdown());
+            Assertions.assertTrue(uploads.isShutdown());
+            Assertions.assertTrue(dispatcher.isShutdown());
+            Assertions.assertFalse(custom.isShutdown());
+        } finally {
+            custom.shutdown();
+        }
+    }
+}
@@ -48,6 +48,24 @@ public class ResponseTest extends MockHttpService {
         Assertions.assertEquals(response.json().getString("ok"), "ASSEMBLY_COMPLETED");
     }
 
+    /**
+     * This Test checks if {@link Response#json()} parses the response body only once and hands out the same
+     * {@link org.json.JSONObject} on every call.
+     * @throws Exception if the Test resource "assembly.json" is missing or if HTTP or non-HTTP errors have occurred.
+     */
+    @Test
+    public void jsonIsParsedOnce() throws Exception {
+        mockServerClient.when(HttpRequest.request()
+                .withPath("/assemblies").withMethod("POST"))
+                .respond(HttpResponse.response().withBody(getJson("assembly.json")));
+
+        AssemblyResponse response = newAssemblyWithoutID().save(false);
+        Assertions.assertSame(response.json(), response.json());
+        Assertions.assertTrue(response.isFinished());
+        Assertions.assertTrue(response.isCompleted());
+        Assertions.assertFalse(response.isExecuting());
+    }
+
     /**
      * This Test checks if {@link Response#status()} returns status code from a defined server response.
      * @throws Exception  if the Test resource "assembly.json" is missing or if HTTP or non-HTTP errors have occurred.
@@ -0,0 +1,101 @@
+package com.transloadit.sdk;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.junit.jupiter.MockServerExtension;
+import org.mockserver.junit.jupiter.MockServerSettings;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.HttpResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit test for the Java 11 variant of {@link JfrEvents}, which emits Java Flight Recorder events.
+ */
+@ExtendWith(MockServerExtension.class)
+@MockServerSettings(ports = MockHttpService.PORT)
+public class JfrEventsTest extends MockHttpService {
+    private final MockServerClient mockServerClient = new MockServerClient("localhost", MockHttpService.PORT);
+
+    @BeforeEach
+    public void setUp() {
+        mockServerClient.reset();
+    }
+
+    /**
+     * Checks that requests, chunks, pauses, stream events and polls are recorded while a recording is running, and
+     * that no event is started without one.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void recordsEvents() throws Exception {
+        Assertions.assertNull(JfrEvents.beginRequest());
+        Assertions.assertNull(JfrEvents.beginChunk());
+
+        mockServerClient.when(HttpRequest.request().withPath("/templates/jfr"))
+                .respond(HttpResponse.response().withStatusCode(200).withBody("{\"ok\":\"TEMPLATE_FOUND\"}"));
+
+        List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+        Path file = Files.createTempFile("transloadit", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"Request", "UploadChunk", "UploadState", "AssemblyStream",
+                    "AssemblyPoll"}) {
+                recording.enable("com.transloadit." + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            new Request(transloadit).get("/templates/jfr").close();
+            JfrEvents.endChunk(JfrEvents.beginChunk(), "file", 100, 300, 128);
+            JfrEvents.uploadPaused("file");
+            JfrEvents.uploadResumed("file");
+            JfrEvents.streamConnected("ID", false);
+            JfrEvents.streamMessage("ID", "assembly_finished");
+            JfrEvents.streamFault("ID", "closed");
+            JfrEvents.endPoll(JfrEvents.beginPoll(), "ID", "ASSEMBLY_COMPLETED");
+
+            recording.stop();
+            recording.dump(file);
+            events.addAll(RecordingFile.readAllEvents(file));
+        } finally {
+            Files.delete(file);
+        }
+
+        RecordedEvent request = single(events, "com.transloadit.Request");
+        Assertions.assertEquals("GET", request.getString("method"));
+        Assertions.assertEquals("templates", request.getString("endpoint"));
+        Assertions.assertEquals(200, request.getInt("statusCode"));
+        Assertions.assertEquals(0, request.getInt("retries"));
+
+        RecordedEvent chunk = single(events, "com.transloadit.UploadChunk");
+        Assertions.assertEquals("file", chunk.getString("upload"));
+        Assertions.assertEquals(100, chunk.getLong("bytes"));
+        Assertions.assertEquals(300, chunk.getLong("offset"));
+        Assertions.assertEquals(128, chunk.getInt("chunkSize"));
+
+        Assertions.assertEquals(2, count(events, "com.transloadit.UploadState"));
+        Assertions.assertEquals(3, count(events, "com.transloadit.AssemblyStream"));
+
+        RecordedEvent poll = single(events, "com.transloadit.AssemblyPoll");
+        Assertions.assertEquals("ID", poll.getString("assemblyId"));
+        Assertions.assertEquals("ASSEMBLY_COMPLETED", poll.getString("status"));
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).count();
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        Assertions.assertEquals(1, count(events, name), name);
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).findFirst().get();
+    }
+}
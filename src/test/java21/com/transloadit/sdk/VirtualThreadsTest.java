@@ -0,0 +1,31 @@
+package com.transloadit.sdk;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for the Java 21 variant of {@link VirtualThreads}.
+ */
+public class VirtualThreadsTest {
+    /**
+     * Checks that the built-in upload and event stream executors run their tasks on virtual threads once enabled.
+     * @throws Exception if the test fails
+     */
+    @Test
+    public void executorsUseVirtualThreads() throws Exception {
+        Assertions.assertTrue(VirtualThreads.isSupported());
+        Transloadit transloadit = new Transloadit("KEY", "SECRET");
+        Assertions.assertFalse(transloadit.getUploadExecutor().submit(() -> Thread.currentThread().isVirtual())
+                .get(5, TimeUnit.SECONDS));
+
+        transloadit.setVirtualThreadsEnabled(true);
+        Assertions.assertTrue(transloadit.getUploadExecutor().submit(() -> Thread.currentThread().isVirtual())
+                .get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(transloadit.getEventStreamExecutor().submit(() -> Thread.currentThread().isVirtual())
+                .get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(transloadit.getUploadExecutor().submit(() -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS).startsWith("transloadit-upload-"));
+    }
+}